@@ -26,6 +26,7 @@
 import org.apache.maven.artifact.repository.RepositoryRequest;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.repository.legacy.UpdateCheckManager;
 import org.apache.maven.repository.legacy.WagonManager;
 import org.apache.maven.wagon.ResourceDoesNotExistException;
@@ -36,16 +37,21 @@
 import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.WriterFactory;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositorySystemSession;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Jason van Zyl
@@ -61,6 +67,9 @@
     @Requirement
     private UpdateCheckManager updateCheckManager;
 
+    @Requirement( optional = true )
+    private LegacySupport legacySupport;
+
     public void resolve( RepositoryMetadata metadata, List<ArtifactRepository> remoteRepositories,
                          ArtifactRepository localRepository )
         throws RepositoryMetadataResolutionException
@@ -77,6 +86,9 @@ public void resolve( RepositoryMetadata metadata, RepositoryRequest request )
         ArtifactRepository localRepo = request.getLocalRepository();
         List<ArtifactRepository> remoteRepositories = request.getRemoteRepositories();
 
+        // the modification times of the metadata files right before we touched them below
+        Map<File, Long> touched = new HashMap<>();
+
         if ( !request.isOffline() )
         {
             Date localCopyLastModified = null;
@@ -169,6 +181,7 @@ else if ( localCopyLastModified != null && !policy.checkOutOfDate( localCopyLast
                 // touch file so that this is not checked again until interval has passed
                 if ( file.exists() )
                 {
+                    touched.put( file, file.lastModified() );
                     file.setLastModified( System.currentTimeMillis() );
                 }
             }
@@ -176,7 +189,7 @@ else if ( localCopyLastModified != null && !policy.checkOutOfDate( localCopyLast
 
         try
         {
-            mergeMetadata( metadata, remoteRepositories, localRepo );
+            mergeMetadata( metadata, remoteRepositories, localRepo, touched );
         }
         catch ( RepositoryMetadataStoreException e )
         {
@@ -193,7 +206,57 @@ private Date getLocalCopyLastModified( ArtifactRepository localRepository, Repos
     }
 
     private void mergeMetadata( RepositoryMetadata metadata, List<ArtifactRepository> remoteRepositories,
-                                ArtifactRepository localRepository )
+                                ArtifactRepository localRepository, Map<File, Long> touched )
+        throws RepositoryMetadataStoreException
+    {
+        // the enabled remote repositories followed by the local repository, in merge order
+        List<ArtifactRepository> repositories = new ArrayList<>( remoteRepositories.size() + 1 );
+        for ( ArtifactRepository repository : remoteRepositories )
+        {
+            if ( metadata.getPolicy( repository ).isEnabled() )
+            {
+                repositories.add( repository );
+            }
+        }
+        repositories.add( localRepository );
+
+        List<File> files = new ArrayList<>( repositories.size() );
+        for ( ArtifactRepository repository : repositories )
+        {
+            files.add( new File( localRepository.getBasedir(),
+                                 localRepository.pathOfLocalRepositoryMetadata( metadata, repository ) ) );
+        }
+
+        ConcurrentMap<MergeKey, MergedMetadata> cache = getMergedMetadataCache( metadata );
+        if ( cache == null )
+        {
+            mergeMetadata( metadata, repositories, files );
+            return;
+        }
+
+        MergeKey key = new MergeKey( files, metadata.isSnapshot() );
+        long[] stamps = MergedMetadata.stamp( files );
+
+        MergedMetadata merged = cache.get( key );
+        if ( merged != null && merged.isCurrent( files, stamps, touched ) )
+        {
+            merged.applyTo( metadata, repositories );
+            if ( !merged.hasStamps( stamps ) )
+            {
+                cache.put( key, new MergedMetadata( merged, stamps ) );
+            }
+            return;
+        }
+
+        // stamped before reading, so files changed meanwhile are read again next time
+        int selected = mergeMetadata( metadata, repositories, files );
+        cache.put( key, new MergedMetadata( metadata.getMetadata(), selected, stamps ) );
+    }
+
+    /**
+     * @return the index of the repository whose metadata got selected, or {@code -1} if none
+     */
+    private int mergeMetadata( RepositoryMetadata metadata, List<ArtifactRepository> repositories, List<File> files )
         throws RepositoryMetadataStoreException
     {
         // TODO currently this is first wins, but really we should take the latest by comparing either the
@@ -202,24 +265,56 @@ private void mergeMetadata( RepositoryMetadata metadata, List<ArtifactRepository
         //  - we'd be much better having a pristine input, and an ongoing metadata for merging instead
 
         Map<ArtifactRepository, Metadata> previousMetadata = new HashMap<>();
-        ArtifactRepository selected = null;
-        for ( ArtifactRepository repository : remoteRepositories )
+        int selected = -1;
+        int local = repositories.size() - 1;
+        for ( int i = 0; i < repositories.size(); i++ )
         {
-            ArtifactRepositoryPolicy policy = metadata.getPolicy( repository );
-
-            if ( policy.isEnabled() && loadMetadata( metadata, repository, localRepository, previousMetadata ) )
+            if ( loadMetadata( metadata, repositories.get( i ), files.get( i ), previousMetadata ) )
             {
-                metadata.setRepository( repository );
-                selected = repository;
+                metadata.setRepository( i < local ? repositories.get( i ) : null );
+                selected = i;
             }
         }
-        if ( loadMetadata( metadata, localRepository, localRepository, previousMetadata ) )
+
+        updateSnapshotMetadata( metadata, previousMetadata, selected < 0 ? null : repositories.get( selected ),
+                                repositories.get( local ) );
+
+        return selected;
+    }
+
+    /**
+     * Gets the cache of merged metadata for the current session. Only metadata that still holds nothing but its
+     * coordinates is cached, as its merge result depends solely on the merged files.
+     *
+     * @return the cache or {@code null} if the metadata can't be cached
+     */
+    private ConcurrentMap<MergeKey, MergedMetadata> getMergedMetadataCache( RepositoryMetadata metadata )
+    {
+        Metadata md = metadata.getMetadata();
+        if ( md == null || md.getVersioning() != null || !md.getPlugins().isEmpty() )
+        {
+            return null;
+        }
+
+        RepositorySystemSession session = legacySupport != null ? legacySupport.getRepositorySession() : null;
+        if ( session == null )
         {
-            metadata.setRepository( null );
-            selected = localRepository;
+            return null;
+        }
+
+        Object cache = session.getData().get( MergeKey.class );
+        if ( !( cache instanceof ConcurrentMap ) )
+        {
+            cache = new ConcurrentHashMap<MergeKey, MergedMetadata>();
+            if ( !session.getData().set( MergeKey.class, null, cache ) )
+            {
+                cache = session.getData().get( MergeKey.class );
+            }
         }
 
-        updateSnapshotMetadata( metadata, previousMetadata, selected, localRepository );
+        @SuppressWarnings( "unchecked" )
+        ConcurrentMap<MergeKey, MergedMetadata> result = (ConcurrentMap<MergeKey, MergedMetadata>) cache;
+        return result;
     }
 
     private void updateSnapshotMetadata( RepositoryMetadata metadata,
@@ -264,14 +359,10 @@ private void updateSnapshotMetadata( RepositoryMetadata metadata,
     }
 
     private boolean loadMetadata( RepositoryMetadata repoMetadata, ArtifactRepository remoteRepository,
-                                  ArtifactRepository localRepository,
-                                  Map<ArtifactRepository, Metadata> previousMetadata )
+                                  File metadataFile, Map<ArtifactRepository, Metadata> previousMetadata )
     {
         boolean setRepository = false;
 
-        File metadataFile = new File( localRepository.getBasedir(),
-                                      localRepository.pathOfLocalRepositoryMetadata( repoMetadata, remoteRepository ) );
-
         if ( metadataFile.exists() )
         {
             Metadata metadata;
@@ -533,4 +624,141 @@ public void install( ArtifactMetadata metadata, ArtifactRepository localReposito
         }
     }
 
+    /**
+     * Identifies a merge by the metadata files involved, in merge order.
+     */
+    static final class MergeKey
+    {
+
+        private final List<File> files;
+
+        private final boolean snapshot;
+
+        private final int hashCode;
+
+        MergeKey( List<File> files, boolean snapshot )
+        {
+            this.files = files;
+            this.snapshot = snapshot;
+            this.hashCode = files.hashCode() * 31 + ( snapshot ? 1 : 0 );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof MergeKey ) )
+            {
+                return false;
+            }
+            MergeKey that = (MergeKey) obj;
+            return snapshot == that.snapshot && files.equals( that.files );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    /**
+     * The outcome of merging the metadata files of some artifact, along with the modification time and length of
+     * each file when it was read.
+     */
+    static final class MergedMetadata
+    {
+
+        private final Versioning versioning;
+
+        private final List<Plugin> plugins;
+
+        private final int selected;
+
+        private final long[] stamps;
+
+        MergedMetadata( Metadata metadata, int selected, long[] stamps )
+        {
+            this.versioning = metadata.getVersioning() != null ? metadata.getVersioning().clone() : null;
+            this.plugins = new ArrayList<>( metadata.getPlugins().size() );
+            for ( Plugin plugin : metadata.getPlugins() )
+            {
+                plugins.add( plugin.clone() );
+            }
+            this.selected = selected;
+            this.stamps = stamps;
+        }
+
+        MergedMetadata( MergedMetadata merged, long[] stamps )
+        {
+            this.versioning = merged.versioning;
+            this.plugins = merged.plugins;
+            this.selected = merged.selected;
+            this.stamps = stamps;
+        }
+
+        static long[] stamp( List<File> files )
+        {
+            long[] stamps = new long[files.size() * 2];
+            for ( int i = 0; i < files.size(); i++ )
+            {
+                File file = files.get( i );
+                stamps[i * 2] = file.lastModified();
+                stamps[i * 2 + 1] = file.length();
+            }
+            return stamps;
+        }
+
+        boolean hasStamps( long[] stamps )
+        {
+            return Arrays.equals( this.stamps, stamps );
+        }
+
+        /**
+         * Checks the files are unchanged since they were read, tolerating the touches done by the update check.
+         */
+        boolean isCurrent( List<File> files, long[] stamps, Map<File, Long> touched )
+        {
+            for ( int i = 0; i < files.size(); i++ )
+            {
+                long lastModified = this.stamps[i * 2];
+                if ( this.stamps[i * 2 + 1] != stamps[i * 2 + 1] )
+                {
+                    return false;
+                }
+                if ( lastModified != stamps[i * 2] )
+                {
+                    Long previous = touched.get( files.get( i ) );
+                    if ( previous == null || previous != lastModified )
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void applyTo( RepositoryMetadata metadata, List<ArtifactRepository> repositories )
+        {
+            Metadata md = metadata.getMetadata();
+            if ( versioning != null )
+            {
+                md.setVersioning( versioning.clone() );
+            }
+            for ( Plugin plugin : plugins )
+            {
+                md.addPlugin( plugin.clone() );
+            }
+            if ( selected >= 0 )
+            {
+                metadata.setRepository( selected < repositories.size() - 1 ? repositories.get( selected ) : null );
+            }
+        }
+
+    }
+
 }
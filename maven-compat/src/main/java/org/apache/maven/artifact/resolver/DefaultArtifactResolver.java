@@ -28,12 +28,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 
@@ -49,10 +44,12 @@
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.SnapshotArtifactRepositoryMetadata;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.eventspy.internal.EventSpyDispatcher;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.repository.legacy.metadata.DefaultMetadataResolutionRequest;
 import org.apache.maven.repository.legacy.metadata.MetadataResolutionRequest;
+import org.apache.maven.repository.legacy.resolver.DefaultLegacyArtifactCollector;
 import org.apache.maven.repository.legacy.resolver.conflict.ConflictResolver;
 import org.apache.maven.wagon.events.TransferListener;
 import org.codehaus.plexus.PlexusContainer;
@@ -60,20 +57,27 @@
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.logging.Logger;
-import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * @author Jason van Zyl
  */
 @Component( role = ArtifactResolver.class )
 public class DefaultArtifactResolver
-    implements ArtifactResolver, Disposable
+    implements ArtifactResolver
 {
+
+    /**
+     * Whether the dependency collection should retrieve the metadata of sibling dependencies concurrently on the
+     * resolver threads, defaults to {@code false}. The collection decisions are not affected.
+     */
+    public static final String CONFIG_PROP_COLLECT_PREFETCH = "maven.artifact.collect.prefetch";
+
     @Requirement
     private Logger logger;
 
@@ -98,27 +102,11 @@
     @Requirement
     private RepositorySystem repoSystem;
 
-    private final Executor executor;
+    @Requirement
+    private DownloadScheduler scheduler;
 
-    public DefaultArtifactResolver()
-    {
-        int threads = Integer.getInteger( "maven.artifact.threads", 5 );
-        if ( threads <= 1 )
-        {
-            executor = new Executor()
-            {
-                public void execute( Runnable command )
-                {
-                    command.run();
-                }
-            };
-        }
-        else
-        {
-            executor = new ThreadPoolExecutor( threads, threads, 3, TimeUnit.SECONDS,
-                                               new LinkedBlockingQueue<Runnable>(), new DaemonThreadCreator() );
-        }
-    }
+    @Requirement( optional = true )
+    private EventSpyDispatcher eventSpyDispatcher;
 
     private RepositorySystemSession getSession( ArtifactRepository localRepository )
     {
@@ -211,8 +199,15 @@ private void resolve( Artifact artifact, List<ArtifactRepository> remoteReposito
                 LocalRepositoryManager lrm = session.getLocalRepositoryManager();
                 String path = lrm.getPathForLocalArtifact( artifactRequest.getArtifact() );
                 artifact.setFile( new File( lrm.getRepository().getBasedir(), path ) );
+                boolean present = artifact.getFile().isFile();
 
                 result = repoSystem.resolveArtifact( session, artifactRequest );
+
+                File file = result.getArtifact().getFile();
+                if ( !present && file != null )
+                {
+                    scheduler.transferred( file.length() );
+                }
             }
             catch ( org.eclipse.aether.resolution.ArtifactResolutionException e )
             {
@@ -501,8 +496,19 @@ public ArtifactResolutionResult resolve( ArtifactResolutionRequest request )
         }
 
         // After the collection we will have the artifact object in the result but they will not be resolved yet.
-        result = artifactCollector.collect( artifacts, rootArtifact, managedVersions, collectionRequest, source,
-                                            collectionFilter, listeners, null );
+        if ( scheduler.isConcurrent() && artifactCollector instanceof DefaultLegacyArtifactCollector
+            && ConfigUtils.getBoolean( session, false, CONFIG_PROP_COLLECT_PREFETCH ) )
+        {
+            result = ( (DefaultLegacyArtifactCollector) artifactCollector ).collect( artifacts, rootArtifact,
+                                                                                  managedVersions, collectionRequest,
+                                                                                  source, collectionFilter, listeners,
+                                                                                  null, scheduler );
+        }
+        else
+        {
+            result = artifactCollector.collect( artifacts, rootArtifact, managedVersions, collectionRequest, source,
+                                                collectionFilter, listeners, null );
+        }
 
         // We have metadata retrieval problems, or there are cycles that have been detected
         // so we give this back to the calling code and let them deal with this information
@@ -527,8 +533,12 @@ public ArtifactResolutionResult resolve( ArtifactResolutionRequest request )
 
                 if ( resolutionFilter == null || resolutionFilter.include( artifact ) )
                 {
-                    executor.execute( new ResolveTask( classLoader, latch, artifact, session,
-                                                       node.getRemoteRepositories(), result ) );
+                    List<ArtifactRepository> repositories = node.getRemoteRepositories();
+                    // the first repository is asked first, so it carries most of the load
+                    String repositoryId =
+                        ( repositories == null || repositories.isEmpty() ) ? null : repositories.get( 0 ).getId();
+                    scheduler.execute( repositoryId, new ResolveTask( classLoader, latch, artifact, session,
+                                                                      repositories, result ) );
                 }
                 else
                 {
@@ -544,6 +554,11 @@ public ArtifactResolutionResult resolve( ArtifactResolutionRequest request )
                 result.addErrorArtifactException( new ArtifactResolutionException( "Resolution interrupted",
                                                                                    rootArtifact, e ) );
             }
+
+            if ( eventSpyDispatcher != null )
+            {
+                eventSpyDispatcher.onEvent( scheduler.getMetrics() );
+            }
         }
 
         // We want to send the root artifact back in the result but we need to do this after the other dependencies
@@ -654,13 +669,4 @@ public void run()
 
     }
 
-    @Override
-    public void dispose()
-    {
-        if ( executor instanceof ExecutorService )
-        {
-            ( (ExecutorService) executor ).shutdownNow();
-        }
-    }
-
 }
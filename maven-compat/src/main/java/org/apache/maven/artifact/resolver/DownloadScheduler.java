@@ -0,0 +1,395 @@
+package org.apache.maven.artifact.resolver;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
+
+/**
+ * Runs the downloads of the legacy artifact resolution on a thread pool shared by all its users. Besides the number of
+ * threads, the scheduler caps the number of concurrent downloads per remote repository and bounds the number of
+ * queued downloads: once the queue is full, further downloads run in the submitting thread. The scheduler is
+ * configured through system properties:
+ * <ul>
+ * <li>{@code maven.artifact.threads}: the number of download threads, defaults to {@code 5}, values below {@code 2}
+ * run all downloads in the submitting thread.</li>
+ * <li>{@code maven.artifact.threads.perRepository}: the maximum number of concurrent downloads from one repository,
+ * defaults to the number of threads.</li>
+ * <li>{@code maven.artifact.queueSize}: the maximum number of queued downloads, defaults to {@code 1000}.</li>
+ * </ul>
+ *
+ * @since 3.6.0
+ */
+@Component( role = DownloadScheduler.class )
+public class DownloadScheduler
+    implements Executor, Disposable
+{
+
+    static final String THREADS_PROPERTY = "maven.artifact.threads";
+
+    static final String PER_REPOSITORY_PROPERTY = "maven.artifact.threads.perRepository";
+
+    static final String QUEUE_SIZE_PROPERTY = "maven.artifact.queueSize";
+
+    private static final int DEFAULT_THREADS = 5;
+
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private final int perRepository;
+
+    private final int queueSize;
+
+    private final ExecutorService pool;
+
+    /**
+     * The per-repository lanes, guarded by {@code this}.
+     */
+    private final Map<String, Lane> lanes = new HashMap<>();
+
+    /**
+     * The number of accepted downloads not yet started, guarded by {@code this}.
+     */
+    private int queued;
+
+    /**
+     * The number of running downloads, guarded by {@code this}.
+     */
+    private int inFlight;
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong latencyNanos = new AtomicLong();
+
+    private final long startNanos = System.nanoTime();
+
+    public DownloadScheduler()
+    {
+        this( Integer.getInteger( THREADS_PROPERTY, DEFAULT_THREADS ), Integer.getInteger( PER_REPOSITORY_PROPERTY, 0 ),
+              Integer.getInteger( QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE ) );
+    }
+
+    DownloadScheduler( int threads, int perRepository, int queueSize )
+    {
+        this.perRepository = ( perRepository > 0 ) ? perRepository : Math.max( threads, 1 );
+        this.queueSize = Math.max( queueSize, 0 );
+        if ( threads > 1 )
+        {
+            pool = new ThreadPoolExecutor( threads, threads, 3, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                                           new DefaultArtifactResolver.DaemonThreadCreator() );
+        }
+        else
+        {
+            pool = null;
+        }
+    }
+
+    /**
+     * Tells whether downloads run on separate threads.
+     *
+     * @return {@code true} if downloads run concurrently, {@code false} if they run in the submitting thread.
+     */
+    public boolean isConcurrent()
+    {
+        return pool != null;
+    }
+
+    public void execute( Runnable command )
+    {
+        execute( null, command );
+    }
+
+    /**
+     * Schedules the specified download.
+     *
+     * @param repository The id of the repository the download is directed at, may be {@code null} if unknown.
+     * @param command The download to run, must not be {@code null}.
+     */
+    public void execute( String repository, Runnable command )
+    {
+        Task task = new Task( repository, command );
+
+        boolean dispatch = false;
+        synchronized ( this )
+        {
+            if ( pool != null && queued < queueSize )
+            {
+                Lane lane = lanes.get( task.repository );
+                if ( lane == null )
+                {
+                    lane = new Lane();
+                    lanes.put( task.repository, lane );
+                }
+                if ( lane.active < perRepository )
+                {
+                    lane.active++;
+                    dispatch = true;
+                }
+                else
+                {
+                    lane.pending.add( task );
+                }
+                queued++;
+                task.lane = lane;
+            }
+        }
+
+        if ( task.lane == null )
+        {
+            // back-pressure: the submitter does the work itself
+            callerRuns.incrementAndGet();
+            task.run();
+        }
+        else if ( dispatch )
+        {
+            pool.execute( task );
+        }
+    }
+
+    /**
+     * Records the number of bytes a download delivered.
+     *
+     * @param count The number of bytes.
+     */
+    public void transferred( long count )
+    {
+        bytes.addAndGet( count );
+    }
+
+    /**
+     * Takes a snapshot of the scheduler metrics.
+     *
+     * @return The current metrics, never {@code null}.
+     */
+    public synchronized Metrics getMetrics()
+    {
+        return new Metrics( queued, inFlight, completed.get(), callerRuns.get(), bytes.get(), latencyNanos.get(),
+                            System.nanoTime() - startNanos );
+    }
+
+    private void started( Task task )
+    {
+        synchronized ( this )
+        {
+            if ( task.lane != null )
+            {
+                queued--;
+            }
+            inFlight++;
+        }
+    }
+
+    private void finished( Task task )
+    {
+        latencyNanos.addAndGet( System.nanoTime() - task.submitNanos );
+        completed.incrementAndGet();
+
+        Task next = null;
+        synchronized ( this )
+        {
+            inFlight--;
+            Lane lane = task.lane;
+            if ( lane != null )
+            {
+                next = lane.pending.poll();
+                if ( next == null )
+                {
+                    lane.active--;
+                    if ( lane.active <= 0 )
+                    {
+                        lanes.remove( task.repository );
+                    }
+                }
+            }
+        }
+
+        if ( next != null )
+        {
+            pool.execute( next );
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if ( pool != null )
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    static final class Lane
+    {
+
+        int active;
+
+        final Queue<Task> pending = new ArrayDeque<>();
+
+    }
+
+    final class Task
+        implements Runnable
+    {
+
+        final String repository;
+
+        final Runnable command;
+
+        final long submitNanos = System.nanoTime();
+
+        Lane lane;
+
+        Task( String repository, Runnable command )
+        {
+            this.repository = ( repository != null ) ? repository : "";
+            this.command = command;
+        }
+
+        public void run()
+        {
+            started( this );
+            try
+            {
+                command.run();
+            }
+            finally
+            {
+                finished( this );
+            }
+        }
+
+    }
+
+    /**
+     * A snapshot of the scheduler metrics, dispatched to the event spies after each resolution.
+     */
+    public static final class Metrics
+    {
+
+        private static final double NANOS_PER_SECOND = 1000000000.0;
+
+        private static final double NANOS_PER_MILLI = 1000000.0;
+
+        private final int queued;
+
+        private final int inFlight;
+
+        private final long completed;
+
+        private final long callerRuns;
+
+        private final long bytes;
+
+        private final long latencyNanos;
+
+        private final long elapsedNanos;
+
+        Metrics( int queued, int inFlight, long completed, long callerRuns, long bytes, long latencyNanos,
+                 long elapsedNanos )
+        {
+            this.queued = queued;
+            this.inFlight = inFlight;
+            this.completed = completed;
+            this.callerRuns = callerRuns;
+            this.bytes = bytes;
+            this.latencyNanos = latencyNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return The number of downloads waiting for a thread or for their repository.
+         */
+        public int getQueued()
+        {
+            return queued;
+        }
+
+        /**
+         * @return The number of running downloads.
+         */
+        public int getInFlight()
+        {
+            return inFlight;
+        }
+
+        /**
+         * @return The number of finished downloads, successful or not.
+         */
+        public long getCompleted()
+        {
+            return completed;
+        }
+
+        /**
+         * @return The number of downloads that ran in the submitting thread because the queue was full.
+         */
+        public long getCallerRuns()
+        {
+            return callerRuns;
+        }
+
+        /**
+         * @return The number of bytes delivered by the finished downloads.
+         */
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        /**
+         * @return The bytes delivered per second since the scheduler was created.
+         */
+        public double getBytesPerSecond()
+        {
+            return ( elapsedNanos > 0 ) ? bytes * NANOS_PER_SECOND / elapsedNanos : 0;
+        }
+
+        /**
+         * @return The average time in milliseconds from submitting a download to its completion.
+         */
+        public double getAverageLatencyMillis()
+        {
+            return ( completed > 0 ) ? latencyNanos / NANOS_PER_MILLI / completed : 0;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "queued: " + queued + ", in flight: " + inFlight + ", completed: " + completed + ", bytes: "
+                + bytes + ", average latency: " + String.format( "%.1f ms", getAverageLatencyMillis() );
+        }
+
+    }
+
+}
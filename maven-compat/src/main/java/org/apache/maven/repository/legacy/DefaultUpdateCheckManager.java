@@ -25,9 +25,14 @@
 import org.apache.maven.artifact.repository.Authentication;
 import org.apache.maven.artifact.repository.metadata.RepositoryMetadata;
 import org.apache.maven.repository.Proxy;
+import org.apache.maven.plugin.LegacySupport;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -37,7 +42,17 @@
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DefaultUpdateCheckManager
@@ -45,7 +60,7 @@
 @Component( role = UpdateCheckManager.class )
 public class DefaultUpdateCheckManager
     extends AbstractLogEnabled
-    implements UpdateCheckManager
+    implements UpdateCheckManager, Disposable
 {
 
     private static final String ERROR_KEY_SUFFIX = ".error";
@@ -64,6 +79,24 @@ public DefaultUpdateCheckManager( Logger logger )
 
     private static final String TOUCHFILE_NAME = "resolver-status.properties";
 
+    /**
+     * The delay in milliseconds after which updates of the resolution tracking files get written, defaults to
+     * {@code 0} which writes each update immediately. Updates made within the delay are coalesced into a single locked
+     * write per file.
+     */
+    static final String CONFIG_PROP_WRITE_BEHIND = "maven.updateCheck.writeBehind";
+
+    private static final int MAX_TRACKING_FILES = 8192;
+
+    @Requirement( optional = true )
+    private LegacySupport legacySupport;
+
+    private final ConcurrentMap<File, TrackingFile> trackingFiles = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService flushExecutor;
+
     public boolean isUpdateRequired( Artifact artifact, ArtifactRepository repository )
     {
         File file = artifact.getFile();
@@ -173,7 +206,7 @@ public void touch( Artifact artifact, ArtifactRepository repository, String erro
 
         if ( file.exists() )
         {
-            touchfile.delete();
+            delete( touchfile );
         }
         else
         {
@@ -226,8 +259,46 @@ String getRepositoryKey( ArtifactRepository repository )
 
     private void writeLastUpdated( File touchfile, String key, String error )
     {
+        TrackingFile trackingFile = getTrackingFile( touchfile );
+
+        synchronized ( trackingFile )
+        {
+            trackingFile.set( key, Long.toString( System.currentTimeMillis() ) );
+            trackingFile.set( key + ERROR_KEY_SUFFIX, error );
+        }
+
+        long delay = getWriteBehindDelay();
+        if ( delay > 0 )
+        {
+            scheduleFlush( delay );
+        }
+        else
+        {
+            flush( trackingFile );
+        }
+    }
+
+    /**
+     * Writes the pending changes of the specified tracking file. Changes are merged into the current file contents
+     * under an exclusive lock, so entries written by concurrent processes are preserved.
+     */
+    private void flush( TrackingFile trackingFile )
+    {
+        File touchfile = trackingFile.file;
+
         synchronized ( touchfile.getAbsolutePath().intern() )
         {
+            Map<String, String> changes;
+            synchronized ( trackingFile )
+            {
+                if ( trackingFile.pending.isEmpty() )
+                {
+                    return;
+                }
+                changes = new LinkedHashMap<>( trackingFile.pending );
+                trackingFile.pending.clear();
+            }
+
             if ( !touchfile.getParentFile().exists() && !touchfile.getParentFile().mkdirs() )
             {
                 getLogger().debug( "Failed to create directory: " + touchfile.getParent()
@@ -250,32 +321,31 @@ private void writeLastUpdated( File touchfile, String key, String error )
                     props.load( Channels.newInputStream( channel ) );
                 }
 
-                props.setProperty( key, Long.toString( System.currentTimeMillis() ) );
-
-                if ( error != null )
-                {
-                    props.setProperty( key + ERROR_KEY_SUFFIX, error );
-                }
-                else
-                {
-                    props.remove( key + ERROR_KEY_SUFFIX );
-                }
+                apply( props, changes );
 
                 getLogger().debug( "Writing resolution-state to: " + touchfile );
                 channel.truncate( 0 );
                 props.store( Channels.newOutputStream( channel ), "Last modified on: " + new Date() );
 
+                long lastModified = touchfile.lastModified();
+                long length = touchfile.length();
+
                 lock.release();
                 lock = null;
 
                 channel.close();
                 channel = null;
+
+                synchronized ( trackingFile )
+                {
+                    trackingFile.update( props, lastModified, length );
+                }
             }
             catch ( IOException e )
             {
                 getLogger().debug(
                     "Failed to record lastUpdated information for resolution.\nFile: " + touchfile.toString()
-                        + "; key: " + key, e );
+                        + "; keys: " + changes.keySet(), e );
             }
             finally
             {
@@ -307,6 +377,133 @@ private void writeLastUpdated( File touchfile, String key, String error )
         }
     }
 
+    /**
+     * Writes the pending changes of all tracking files.
+     */
+    void flush()
+    {
+        for ( TrackingFile trackingFile : trackingFiles.values() )
+        {
+            flush( trackingFile );
+        }
+    }
+
+    private void scheduleFlush( long delay )
+    {
+        if ( flushScheduled.compareAndSet( false, true ) )
+        {
+            getFlushExecutor().schedule( new Runnable()
+            {
+                public void run()
+                {
+                    flushScheduled.set( false );
+                    flush();
+                }
+            }, delay, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    private synchronized ScheduledExecutorService getFlushExecutor()
+    {
+        if ( flushExecutor == null )
+        {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor( new ThreadFactory()
+            {
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "Resolution tracking" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return flushExecutor;
+    }
+
+    private long getWriteBehindDelay()
+    {
+        RepositorySystemSession session = ( legacySupport != null ) ? legacySupport.getRepositorySession() : null;
+        return ( session != null ) ? ConfigUtils.getLong( session, 0, CONFIG_PROP_WRITE_BEHIND ) : 0;
+    }
+
+    public void dispose()
+    {
+        synchronized ( this )
+        {
+            if ( flushExecutor != null )
+            {
+                flushExecutor.shutdownNow();
+                flushExecutor = null;
+            }
+        }
+
+        flush();
+    }
+
+    private void delete( File touchfile )
+    {
+        TrackingFile trackingFile = getTrackingFile( touchfile );
+
+        synchronized ( touchfile.getAbsolutePath().intern() )
+        {
+            synchronized ( trackingFile )
+            {
+                trackingFile.pending.clear();
+                trackingFile.props = null;
+            }
+
+            touchfile.delete();
+        }
+    }
+
+    private TrackingFile getTrackingFile( File touchfile )
+    {
+        File key = touchfile.getAbsoluteFile();
+
+        TrackingFile trackingFile = trackingFiles.get( key );
+        if ( trackingFile == null )
+        {
+            if ( trackingFiles.size() >= MAX_TRACKING_FILES )
+            {
+                // forget the files without pending changes, they are simply read again when needed
+                for ( Iterator<TrackingFile> it = trackingFiles.values().iterator(); it.hasNext(); )
+                {
+                    TrackingFile tracked = it.next();
+                    synchronized ( tracked )
+                    {
+                        if ( tracked.pending.isEmpty() )
+                        {
+                            it.remove();
+                        }
+                    }
+                }
+            }
+
+            trackingFile = new TrackingFile( key );
+            TrackingFile existing = trackingFiles.putIfAbsent( key, trackingFile );
+            if ( existing != null )
+            {
+                trackingFile = existing;
+            }
+        }
+        return trackingFile;
+    }
+
+    private static void apply( Properties props, Map<String, String> changes )
+    {
+        for ( Map.Entry<String, String> change : changes.entrySet() )
+        {
+            if ( change.getValue() != null )
+            {
+                props.setProperty( change.getKey(), change.getValue() );
+            }
+            else
+            {
+                props.remove( change.getKey() );
+            }
+        }
+    }
+
     Date readLastUpdated( File touchfile, String key )
     {
         getLogger().debug( "Searching for " + key + " in resolution tracking file." );
@@ -340,7 +537,38 @@ private String getError( File touchFile, String key )
         return null;
     }
 
+    /**
+     * Gets the contents of the specified tracking file, including changes not yet written. The file is only parsed
+     * again when its size or modification time changed since it was last read, e.g. by another process.
+     */
     private Properties read( File touchfile )
+    {
+        TrackingFile trackingFile = getTrackingFile( touchfile );
+
+        synchronized ( trackingFile )
+        {
+            if ( trackingFile.isCurrent() )
+            {
+                return trackingFile.props;
+            }
+        }
+
+        long lastModified = touchfile.lastModified();
+        long length = touchfile.length();
+
+        Properties props = load( touchfile );
+
+        synchronized ( trackingFile )
+        {
+            if ( !trackingFile.isCurrent() )
+            {
+                trackingFile.update( ( props != null ) ? props : new Properties(), lastModified, length );
+            }
+            return trackingFile.props;
+        }
+    }
+
+    private Properties load( File touchfile )
     {
         if ( !touchfile.canRead() )
         {
@@ -425,4 +653,59 @@ File getTouchfile( RepositoryMetadata metadata, File file )
         return new File( file.getParent(), TOUCHFILE_NAME );
     }
 
+    /**
+     * The in-memory view of a resolution tracking file.
+     */
+    static final class TrackingFile
+    {
+
+        final File file;
+
+        /**
+         * The changes not yet written, a {@code null} value denotes a removed key.
+         */
+        final Map<String, String> pending = new LinkedHashMap<>();
+
+        Properties props;
+
+        long lastModified;
+
+        long length;
+
+        TrackingFile( File file )
+        {
+            this.file = file;
+        }
+
+        boolean isCurrent()
+        {
+            return props != null && file.lastModified() == lastModified && file.length() == length;
+        }
+
+        void update( Properties props, long lastModified, long length )
+        {
+            apply( props, pending );
+            this.props = props;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        void set( String key, String value )
+        {
+            pending.put( key, value );
+            if ( props != null )
+            {
+                if ( value != null )
+                {
+                    props.setProperty( key, value );
+                }
+                else
+                {
+                    props.remove( key );
+                }
+            }
+        }
+
+    }
+
 }
@@ -19,15 +19,35 @@
  * under the License.
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.metadata.ArtifactMetadata;
@@ -36,14 +56,16 @@
 import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.wagon.ConnectionException;
 import org.apache.maven.wagon.ResourceDoesNotExistException;
+import org.apache.maven.wagon.StreamingWagon;
 import org.apache.maven.wagon.TransferFailedException;
 import org.apache.maven.wagon.UnsupportedProtocolException;
 import org.apache.maven.wagon.Wagon;
 import org.apache.maven.wagon.authentication.AuthenticationException;
 import org.apache.maven.wagon.authentication.AuthenticationInfo;
 import org.apache.maven.wagon.authorization.AuthorizationException;
+import org.apache.maven.wagon.events.TransferEvent;
 import org.apache.maven.wagon.events.TransferListener;
-import org.apache.maven.wagon.observers.ChecksumObserver;
+import org.apache.maven.wagon.observers.AbstractTransferListener;
 import org.apache.maven.wagon.proxy.ProxyInfo;
 import org.apache.maven.wagon.repository.Repository;
 import org.codehaus.plexus.PlexusContainer;
@@ -52,8 +74,10 @@
 import org.codehaus.plexus.component.repository.exception.ComponentLifecycleException;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.FileUtils;
 import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.util.ConfigUtils;
 
 //TODO remove the update check manager
@@ -65,21 +89,34 @@
  */
 @Component( role = WagonManager.class )
 public class DefaultWagonManager
-    implements WagonManager
+    implements WagonManager, Disposable
 {
 
-    private static final String[] CHECKSUM_IDS =
-    {
-        "md5", "sha1"
-    };
+    private static final List<String> DEFAULT_CHECKSUM_ALGORITHMS = Arrays.asList( "SHA-1", "MD5" );
 
     /**
-     * have to match the CHECKSUM_IDS
+     * The comma-separated checksum algorithms, e.g. {@code SHA-512,SHA-1}. Downloads are verified against the first
+     * algorithm whose checksum file exists, uploads get a checksum file for each algorithm. Defaults to
+     * {@code SHA-1,MD5}.
      */
-    private static final String[] CHECKSUM_ALGORITHMS =
-    {
-        "MD5", "SHA-1"
-    };
+    static final String CONFIG_PROP_CHECKSUMS = "maven.wagon.checksums";
+
+    /**
+     * Whether the checksum of a download is fetched with a second connection while the file itself downloads,
+     * defaults to {@code false}.
+     */
+    static final String CONFIG_PROP_CHECKSUMS_CONCURRENT = "maven.wagon.checksums.concurrent";
+
+    /**
+     * The time in milliseconds an idle wagon stays connected for reuse by later transfers from/to the same repository,
+     * defaults to {@code 0} which disconnects wagons after each transfer.
+     */
+    static final String CONFIG_PROP_KEEP_ALIVE = "maven.wagon.pool.keepAlive";
+
+    /**
+     * The maximum number of concurrent connections to a repository, defaults to {@code 0} for no limit.
+     */
+    static final String CONFIG_PROP_MAX_CONNECTIONS = "maven.wagon.pool.maxConnections";
 
     @Requirement
     private Logger logger;
@@ -93,6 +130,12 @@
     @Requirement
     private LegacySupport legacySupport;
 
+    private final Map<List<Object>, Deque<PooledWagon>> idleWagons = new HashMap<>();
+
+    private final ConcurrentMap<List<Object>, Semaphore> connectionLimits = new ConcurrentHashMap<>();
+
+    private ExecutorService checksumExecutor;
+
     //
     // Retriever
     //
@@ -317,6 +360,276 @@ else if ( repository.getProxy() != null )
         }
     }
 
+    private void connectWagon( PooledWagon pooledWagon, ArtifactRepository repository )
+        throws ConnectionException, AuthenticationException
+    {
+        if ( !pooledWagon.connected )
+        {
+            connectWagon( pooledWagon.wagon, repository );
+            pooledWagon.connected = true;
+        }
+    }
+
+    /**
+     * Gets a wagon for the specified repository, preferably an idle wagon that is still connected from a previous
+     * transfer. Blocks while the configured maximum number of connections to the repository is in use.
+     */
+    private PooledWagon acquireWagon( ArtifactRepository repository )
+        throws TransferFailedException
+    {
+        return acquireWagon( repository, true );
+    }
+
+    /**
+     * Gets a wagon for the specified repository. Unless {@code wait} is set, {@code null} is returned instead of
+     * blocking when the maximum number of connections to the repository is in use.
+     */
+    private PooledWagon acquireWagon( ArtifactRepository repository, boolean wait )
+        throws TransferFailedException
+    {
+        List<Object> key = getPoolKey( repository );
+
+        Semaphore connections = getConnectionLimit( key );
+        if ( connections != null && !wait && !connections.tryAcquire() )
+        {
+            return null;
+        }
+        else if ( connections != null && wait )
+        {
+            try
+            {
+                connections.acquire();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new TransferFailedException( "Interrupted while waiting for a connection to "
+                    + repository.getUrl(), e );
+            }
+        }
+
+        PooledWagon pooledWagon = pollIdleWagon( key );
+
+        if ( pooledWagon != null )
+        {
+            // the idle wagon may have been pooled under the limiter of a previous configuration
+            pooledWagon.connections = connections;
+        }
+        else
+        {
+            String protocol = repository.getProtocol();
+
+            try
+            {
+                pooledWagon = new PooledWagon( key, getWagon( protocol ), connections );
+            }
+            catch ( UnsupportedProtocolException e )
+            {
+                if ( connections != null )
+                {
+                    connections.release();
+                }
+                throw new TransferFailedException( "Unsupported Protocol: '" + protocol + "': " + e.getMessage(), e );
+            }
+        }
+
+        return pooledWagon;
+    }
+
+    /**
+     * Returns a wagon after a transfer. Unless the wagon is kept open for reuse, it gets disconnected and released.
+     */
+    private void releaseWagon( PooledWagon pooledWagon, boolean reusable )
+    {
+        try
+        {
+            long keepAlive = getKeepAlive();
+
+            if ( !reusable || !pooledWagon.connected || keepAlive <= 0 )
+            {
+                closeWagon( pooledWagon );
+            }
+            else
+            {
+                pooledWagon.lastUsed = System.currentTimeMillis();
+
+                List<PooledWagon> expired;
+                synchronized ( idleWagons )
+                {
+                    Deque<PooledWagon> wagons = idleWagons.get( pooledWagon.key );
+                    if ( wagons == null )
+                    {
+                        wagons = new ArrayDeque<>();
+                        idleWagons.put( pooledWagon.key, wagons );
+                    }
+                    wagons.push( pooledWagon );
+
+                    expired = removeExpiredWagons( pooledWagon.lastUsed - keepAlive );
+                }
+
+                for ( PooledWagon wagon : expired )
+                {
+                    closeWagon( wagon );
+                }
+            }
+        }
+        finally
+        {
+            if ( pooledWagon.connections != null )
+            {
+                pooledWagon.connections.release();
+            }
+        }
+    }
+
+    private PooledWagon pollIdleWagon( List<Object> key )
+    {
+        long keepAlive = getKeepAlive();
+        if ( keepAlive <= 0 )
+        {
+            return null;
+        }
+
+        PooledWagon pooledWagon = null;
+        List<PooledWagon> expired;
+        synchronized ( idleWagons )
+        {
+            expired = removeExpiredWagons( System.currentTimeMillis() - keepAlive );
+
+            Deque<PooledWagon> wagons = idleWagons.get( key );
+            if ( wagons != null )
+            {
+                pooledWagon = wagons.poll();
+                if ( wagons.isEmpty() )
+                {
+                    idleWagons.remove( key );
+                }
+            }
+        }
+
+        for ( PooledWagon wagon : expired )
+        {
+            closeWagon( wagon );
+        }
+
+        return pooledWagon;
+    }
+
+    /**
+     * Removes the idle wagons that were last used before the specified time, must be called while holding the lock
+     * on the idle wagons.
+     */
+    private List<PooledWagon> removeExpiredWagons( long threshold )
+    {
+        List<PooledWagon> expired = new ArrayList<>();
+        for ( Iterator<Deque<PooledWagon>> it = idleWagons.values().iterator(); it.hasNext(); )
+        {
+            Deque<PooledWagon> wagons = it.next();
+            while ( !wagons.isEmpty() && wagons.peekLast().lastUsed < threshold )
+            {
+                expired.add( wagons.pollLast() );
+            }
+            if ( wagons.isEmpty() )
+            {
+                it.remove();
+            }
+        }
+        return expired;
+    }
+
+    private void closeWagon( PooledWagon pooledWagon )
+    {
+        if ( pooledWagon.connected )
+        {
+            disconnectWagon( pooledWagon.wagon );
+        }
+
+        releaseWagon( pooledWagon.wagon );
+    }
+
+    /**
+     * Gets the limiter for the connections to the repository with the specified pool key. Limiters are kept per
+     * configured maximum, so a changed configuration (e.g. by the next session of an embedded Maven) takes effect while
+     * wagons still hold permits of the previous limiter.
+     */
+    Semaphore getConnectionLimit( List<Object> key )
+    {
+        RepositorySystemSession session = legacySupport.getRepositorySession();
+        int maxConnections =
+            ( session != null ) ? ConfigUtils.getInteger( session, 0, CONFIG_PROP_MAX_CONNECTIONS ) : 0;
+        if ( maxConnections <= 0 )
+        {
+            return null;
+        }
+
+        List<Object> limitKey = Arrays.<Object>asList( key, maxConnections );
+        Semaphore connections = connectionLimits.get( limitKey );
+        if ( connections == null )
+        {
+            connections = new Semaphore( maxConnections );
+            Semaphore existing = connectionLimits.putIfAbsent( limitKey, connections );
+            if ( existing != null )
+            {
+                connections = existing;
+            }
+        }
+        return connections;
+    }
+
+    private long getKeepAlive()
+    {
+        RepositorySystemSession session = legacySupport.getRepositorySession();
+        return ( session != null ) ? ConfigUtils.getLong( session, 0, CONFIG_PROP_KEEP_ALIVE ) : 0;
+    }
+
+    private static List<Object> getPoolKey( ArtifactRepository repository )
+    {
+        List<Object> key = new ArrayList<>( 8 );
+        key.add( repository.getId() );
+        key.add( repository.getUrl() );
+        if ( repository.getAuthentication() != null )
+        {
+            key.add( repository.getAuthentication().getUsername() );
+            key.add( repository.getAuthentication().getPassword() );
+        }
+        if ( repository.getProxy() != null )
+        {
+            key.add( repository.getProxy().getHost() );
+            key.add( repository.getProxy().getPort() );
+            key.add( repository.getProxy().getUserName() );
+            key.add( repository.getProxy().getPassword() );
+        }
+        return key;
+    }
+
+    @Override
+    public void dispose()
+    {
+        synchronized ( this )
+        {
+            if ( checksumExecutor != null )
+            {
+                checksumExecutor.shutdownNow();
+                checksumExecutor = null;
+            }
+        }
+
+        List<PooledWagon> wagons = new ArrayList<>();
+        synchronized ( idleWagons )
+        {
+            for ( Deque<PooledWagon> idle : idleWagons.values() )
+            {
+                wagons.addAll( idle );
+            }
+            idleWagons.clear();
+        }
+
+        for ( PooledWagon wagon : wagons )
+        {
+            closeWagon( wagon );
+        }
+    }
+
     private AuthenticationInfo authenticationInfo( ArtifactRepository repository )
     {
         AuthenticationInfo ai = new AuthenticationInfo();
@@ -343,18 +656,9 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                                TransferListener downloadMonitor, String checksumPolicy, boolean force )
         throws TransferFailedException, ResourceDoesNotExistException
     {
-        String protocol = repository.getProtocol();
+        PooledWagon pooledWagon = acquireWagon( repository );
 
-        Wagon wagon;
-
-        try
-        {
-            wagon = getWagon( protocol );
-        }
-        catch ( UnsupportedProtocolException e )
-        {
-            throw new TransferFailedException( "Unsupported Protocol: '" + protocol + "': " + e.getMessage(), e );
-        }
+        Wagon wagon = pooledWagon.wagon;
 
         if ( downloadMonitor != null )
         {
@@ -367,9 +671,13 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
 
         boolean downloaded = false;
 
+        boolean reusable = false;
+
+        List<String> algorithms = getChecksumAlgorithms();
+
         try
         {
-            connectWagon( wagon, repository );
+            connectWagon( pooledWagon, repository );
 
             boolean firstRun = true;
             boolean retry = true;
@@ -379,15 +687,11 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
             // only way the retry flag can be set is if ( firstRun == true ).
             while ( firstRun || retry )
             {
-                ChecksumObserver md5ChecksumObserver = null;
-                ChecksumObserver sha1ChecksumObserver = null;
+                ChecksumsObserver checksumsObserver = newChecksumsObserver( algorithms );
+                Future<ExpectedChecksum> expectedChecksum = null;
                 try
                 {
-                    // TODO configure on repository
-                    int i = 0;
-
-                    md5ChecksumObserver = addChecksumObserver( wagon, CHECKSUM_ALGORITHMS[i++] );
-                    sha1ChecksumObserver = addChecksumObserver( wagon, CHECKSUM_ALGORITHMS[i++] );
+                    wagon.addTransferListener( checksumsObserver );
 
                     // reset the retry flag.
                     retry = false;
@@ -415,14 +719,23 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                     }
                     else
                     {
+                        if ( firstRun )
+                        {
+                            expectedChecksum = fetchChecksumConcurrently( repository, wagon, remotePath, algorithms );
+                        }
+
                         wagon.get( remotePath, temp );
                         downloaded = true;
                     }
                 }
                 finally
                 {
-                    wagon.removeTransferListener( md5ChecksumObserver );
-                    wagon.removeTransferListener( sha1ChecksumObserver );
+                    wagon.removeTransferListener( checksumsObserver );
+
+                    if ( !downloaded && expectedChecksum != null )
+                    {
+                        expectedChecksum.cancel( true );
+                    }
                 }
 
                 if ( downloaded )
@@ -433,10 +746,10 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                         wagon.removeTransferListener( downloadMonitor );
                     }
 
-                    // try to verify the SHA-1 checksum for this file.
                     try
                     {
-                        verifyChecksum( sha1ChecksumObserver, destination, temp, remotePath, ".sha1", wagon );
+                        verifyChecksum( checksumsObserver, expectedChecksum, wagon, destination, remotePath,
+                                        algorithms );
                     }
                     catch ( ChecksumFailedException e )
                     {
@@ -454,35 +767,10 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                             handleChecksumFailure( checksumPolicy, e.getMessage(), e.getCause() );
                         }
                     }
-                    catch ( ResourceDoesNotExistException sha1TryException )
+                    catch ( ResourceDoesNotExistException e )
                     {
-                        logger.debug( "SHA1 not found, trying MD5: " + sha1TryException.getMessage() );
-
-                        // if this IS NOT a ChecksumFailedException, it was a problem with transfer/read of the checksum
-                        // file...we'll try again with the MD5 checksum.
-                        try
-                        {
-                            verifyChecksum( md5ChecksumObserver, destination, temp, remotePath, ".md5", wagon );
-                        }
-                        catch ( ChecksumFailedException e )
-                        {
-                            // if we also fail to verify based on the MD5 checksum, and the checksum transfer/read
-                            // succeeded, then we need to determine whether to retry or handle it as a failure.
-                            if ( firstRun )
-                            {
-                                retry = true;
-                            }
-                            else
-                            {
-                                handleChecksumFailure( checksumPolicy, e.getMessage(), e.getCause() );
-                            }
-                        }
-                        catch ( ResourceDoesNotExistException md5TryException )
-                        {
-                            // this was a failed transfer, and we don't want to retry.
-                            handleChecksumFailure( checksumPolicy, "Error retrieving checksum file for " + remotePath,
-                                                   md5TryException );
-                        }
+                        // none of the checksum files exists, this was a failed transfer and we don't want to retry.
+                        handleChecksumFailure( checksumPolicy, "Error retrieving checksum file for " + remotePath, e );
                     }
 
                     // reinstate the download monitor...
@@ -495,6 +783,14 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                 // unset the firstRun flag, so we don't get caught in an infinite loop...
                 firstRun = false;
             }
+
+            reusable = true;
+        }
+        catch ( ResourceDoesNotExistException e )
+        {
+            // a missing resource does not affect the connection
+            reusable = true;
+            throw e;
         }
         catch ( ConnectionException e )
         {
@@ -516,9 +812,7 @@ public void getRemoteFile( ArtifactRepository repository, File destination, Stri
                 wagon.removeTransferListener( downloadMonitor );
             }
 
-            disconnectWagon( wagon );
-
-            releaseWagon( protocol, wagon );
+            releaseWagon( pooledWagon, reusable );
         }
 
         if ( downloaded )
@@ -578,40 +872,33 @@ public void putRemoteFile( ArtifactRepository repository, File source, String re
                                TransferListener downloadMonitor )
         throws TransferFailedException
     {
-        String protocol = repository.getProtocol();
+        PooledWagon pooledWagon = acquireWagon( repository );
 
-        Wagon wagon;
-        try
-        {
-            wagon = getWagon( protocol );
-        }
-        catch ( UnsupportedProtocolException e )
-        {
-            throw new TransferFailedException( "Unsupported Protocol: '" + protocol + "': " + e.getMessage(), e );
-        }
+        Wagon wagon = pooledWagon.wagon;
 
         if ( downloadMonitor != null )
         {
             wagon.addTransferListener( downloadMonitor );
         }
 
-        Map<String, ChecksumObserver> checksums = new HashMap<>( 2 );
+        List<String> algorithms = getChecksumAlgorithms();
 
-        Map<String, String> sums = new HashMap<>( 2 );
+        ChecksumsObserver checksumsObserver = null;
 
-        // TODO configure these on the repository
-        for ( int i = 0; i < CHECKSUM_IDS.length; i++ )
-        {
-            checksums.put( CHECKSUM_IDS[i], addChecksumObserver( wagon, CHECKSUM_ALGORITHMS[i] ) );
-        }
+        Map<String, String> sums = new LinkedHashMap<>( 4 );
 
         List<File> temporaryFiles = new ArrayList<>();
 
+        boolean reusable = false;
+
         try
         {
+            checksumsObserver = newChecksumsObserver( algorithms );
+            wagon.addTransferListener( checksumsObserver );
+
             try
             {
-                connectWagon( wagon, repository );
+                connectWagon( pooledWagon, repository );
 
                 wagon.put( source, remotePath );
             }
@@ -624,23 +911,24 @@ public void putRemoteFile( ArtifactRepository repository, File source, String re
             }
 
             // Pre-store the checksums as any future puts will overwrite them
-            for ( String extension : checksums.keySet() )
+            for ( String algorithm : algorithms )
             {
-                ChecksumObserver observer = checksums.get( extension );
-                sums.put( extension, observer.getActualChecksum() );
+                sums.put( getChecksumExtension( algorithm ), checksumsObserver.getActualChecksum( algorithm ) );
             }
 
             // We do this in here so we can checksum the artifact metadata too, otherwise it could be metadata itself
-            for ( String extension : checksums.keySet() )
+            for ( Map.Entry<String, String> sum : sums.entrySet() )
             {
                 // TODO shouldn't need a file intermediatary - improve wagon to take a stream
                 File temp = File.createTempFile( "maven-artifact", null );
                 temp.deleteOnExit();
-                FileUtils.fileWrite( temp.getAbsolutePath(), "UTF-8", sums.get( extension ) );
+                FileUtils.fileWrite( temp.getAbsolutePath(), "UTF-8", sum.getValue() );
 
                 temporaryFiles.add( temp );
-                wagon.put( temp, remotePath + "." + extension );
+                wagon.put( temp, remotePath + "." + sum.getKey() );
             }
+
+            reusable = true;
         }
         catch ( ConnectionException e )
         {
@@ -667,19 +955,13 @@ public void putRemoteFile( ArtifactRepository repository, File source, String re
             // MNG-4543
             cleanupTemporaryFiles( temporaryFiles );
 
-            // Remove every checksum listener
-            for ( String id : CHECKSUM_IDS )
+            // Remove the checksum listener
+            if ( checksumsObserver != null )
             {
-                TransferListener checksumListener = checksums.get( id );
-                if ( checksumListener != null )
-                {
-                    wagon.removeTransferListener( checksumListener );
-                }
+                wagon.removeTransferListener( checksumsObserver );
             }
 
-            disconnectWagon( wagon );
-
-            releaseWagon( protocol, wagon );
+            releaseWagon( pooledWagon, reusable );
         }
     }
 
@@ -697,21 +979,49 @@ private void cleanupTemporaryFiles( List<File> files )
 
     }
 
-    private ChecksumObserver addChecksumObserver( Wagon wagon, String algorithm )
+    private ChecksumsObserver newChecksumsObserver( List<String> algorithms )
         throws TransferFailedException
     {
         try
         {
-            ChecksumObserver checksumObserver = new ChecksumObserver( algorithm );
-            wagon.addTransferListener( checksumObserver );
-            return checksumObserver;
+            return new ChecksumsObserver( algorithms );
         }
         catch ( NoSuchAlgorithmException e )
         {
-            throw new TransferFailedException( "Unable to add checksum for unsupported algorithm " + algorithm, e );
+            throw new TransferFailedException( "Unable to add checksum for unsupported algorithm: " + e.getMessage(),
+                                               e );
         }
     }
 
+    private List<String> getChecksumAlgorithms()
+    {
+        RepositorySystemSession session = legacySupport.getRepositorySession();
+        String value = ( session != null ) ? ConfigUtils.getString( session, null, CONFIG_PROP_CHECKSUMS ) : null;
+
+        List<String> algorithms = new ArrayList<>();
+        if ( value != null )
+        {
+            for ( String algorithm : value.split( "," ) )
+            {
+                algorithm = algorithm.trim().toUpperCase( Locale.ENGLISH );
+                if ( algorithm.length() > 0 && !algorithms.contains( algorithm ) )
+                {
+                    algorithms.add( algorithm );
+                }
+            }
+        }
+
+        return algorithms.isEmpty() ? DEFAULT_CHECKSUM_ALGORITHMS : algorithms;
+    }
+
+    /**
+     * Gets the extension of the checksum files for the specified algorithm, e.g. {@code sha1} for {@code SHA-1}.
+     */
+    static String getChecksumExtension( String algorithm )
+    {
+        return algorithm.replace( "-", "" ).toLowerCase( Locale.ENGLISH );
+    }
+
     private void handleChecksumFailure( String checksumPolicy, String message, Throwable cause )
         throws ChecksumFailedException
     {
@@ -727,65 +1037,223 @@ else if ( !ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals( checksumPolic
         // otherwise it is ignore
     }
 
-    private void verifyChecksum( ChecksumObserver checksumObserver, File destination, File tempDestination,
-                                 String remotePath, String checksumFileExtension, Wagon wagon )
+    private void verifyChecksum( ChecksumsObserver checksumsObserver, Future<ExpectedChecksum> prefetched,
+                                 Wagon wagon, File destination, String remotePath, List<String> algorithms )
         throws ResourceDoesNotExistException, TransferFailedException, AuthorizationException
     {
-        try
+        ExpectedChecksum expected = null;
+
+        if ( prefetched != null )
         {
-            // grab it first, because it's about to change...
-            String actualChecksum = checksumObserver.getActualChecksum();
+            expected = getPrefetchedChecksum( prefetched, remotePath );
+        }
 
-            File tempChecksumFile = new File( tempDestination + checksumFileExtension + ".tmp" );
-            tempChecksumFile.deleteOnExit();
-            wagon.get( remotePath + checksumFileExtension, tempChecksumFile );
+        if ( expected == null )
+        {
+            expected = fetchChecksum( wagon, remotePath, algorithms );
+        }
 
-            String expectedChecksum = FileUtils.fileRead( tempChecksumFile, "UTF-8" );
+        String actualChecksum = checksumsObserver.getActualChecksum( expected.algorithm );
 
-            // remove whitespaces at the end
-            expectedChecksum = expectedChecksum.trim();
+        if ( expected.checksum.equalsIgnoreCase( actualChecksum ) )
+        {
+            File checksumFile = new File( destination + "." + getChecksumExtension( expected.algorithm ) );
+            try
+            {
+                Files.write( checksumFile.toPath(), expected.content );
+            }
+            catch ( IOException e )
+            {
+                throw new TransferFailedException( "Error writing checksum file " + checksumFile + ": "
+                    + e.getMessage(), e );
+            }
+        }
+        else
+        {
+            throw new ChecksumFailedException( "Checksum failed on download: local = '" + actualChecksum
+                                                   + "'; remote = '" + expected.checksum + "'" );
 
-            // check for 'ALGO (name) = CHECKSUM' like used by openssl
-            if ( expectedChecksum.regionMatches( true, 0, "MD", 0, 2 )
-                     || expectedChecksum.regionMatches( true, 0, "SHA", 0, 3 ) )
+        }
+    }
+
+    /**
+     * Waits for the checksum fetched alongside the main file. Returns {@code null} if the concurrent fetch failed
+     * for other reasons than missing checksum files, the checksum is then fetched again by the caller.
+     */
+    private ExpectedChecksum getPrefetchedChecksum( Future<ExpectedChecksum> prefetched, String remotePath )
+        throws ResourceDoesNotExistException
+    {
+        try
+        {
+            return prefetched.get();
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ResourceDoesNotExistException )
             {
-                int lastSpacePos = expectedChecksum.lastIndexOf( ' ' );
-                expectedChecksum = expectedChecksum.substring( lastSpacePos + 1 );
+                throw (ResourceDoesNotExistException) e.getCause();
             }
-            else
+            logger.debug( "Could not fetch checksum for " + remotePath + " concurrently, retrying: "
+                + e.getCause() );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            prefetched.cancel( true );
+        }
+        return null;
+    }
+
+    /**
+     * Fetches the checksum for the specified resource, trying the algorithms in order of preference.
+     *
+     * @throws ResourceDoesNotExistException If no checksum file exists for any of the algorithms.
+     */
+    private ExpectedChecksum fetchChecksum( Wagon wagon, String remotePath, List<String> algorithms )
+        throws ResourceDoesNotExistException, TransferFailedException, AuthorizationException
+    {
+        ResourceDoesNotExistException missing = null;
+
+        for ( String algorithm : algorithms )
+        {
+            String resource = remotePath + "." + getChecksumExtension( algorithm );
+            try
             {
-                // remove everything after the first space (if available)
-                int spacePos = expectedChecksum.indexOf( ' ' );
+                return new ExpectedChecksum( algorithm, getRemoteContent( wagon, resource ) );
+            }
+            catch ( ResourceDoesNotExistException e )
+            {
+                logger.debug( algorithm + " checksum not found: " + e.getMessage() );
+                missing = e;
+            }
+        }
 
-                if ( spacePos != -1 )
-                {
-                    expectedChecksum = expectedChecksum.substring( 0, spacePos );
-                }
+        throw missing;
+    }
+
+    /**
+     * Gets the content of the specified (small) resource into memory.
+     */
+    private byte[] getRemoteContent( Wagon wagon, String resource )
+        throws ResourceDoesNotExistException, TransferFailedException, AuthorizationException
+    {
+        if ( wagon instanceof StreamingWagon )
+        {
+            ByteArrayOutputStream content = new ByteArrayOutputStream( 128 );
+            ( (StreamingWagon) wagon ).getToStream( resource, content );
+            return content.toByteArray();
+        }
+
+        // the wagon can only download into files
+        File temp;
+        try
+        {
+            temp = File.createTempFile( "maven-checksum", null );
+        }
+        catch ( IOException e )
+        {
+            throw new TransferFailedException( "Error creating temporary file for checksum: " + e.getMessage(), e );
+        }
+        try
+        {
+            wagon.get( resource, temp );
+            return Files.readAllBytes( temp.toPath() );
+        }
+        catch ( IOException e )
+        {
+            throw new ChecksumFailedException( "Invalid checksum file", e );
+        }
+        finally
+        {
+            if ( !temp.delete() )
+            {
+                temp.deleteOnExit();
             }
-            if ( expectedChecksum.equalsIgnoreCase( actualChecksum ) )
+        }
+    }
+
+    /**
+     * Starts fetching the checksum of the specified resource with a second connection while the main connection
+     * downloads the resource itself. Returns {@code null} if disabled or no second connection is available.
+     */
+    private Future<ExpectedChecksum> fetchChecksumConcurrently( final ArtifactRepository repository, Wagon wagon,
+                                                                final String remotePath,
+                                                                final List<String> algorithms )
+    {
+        RepositorySystemSession session = legacySupport.getRepositorySession();
+        if ( session == null || !ConfigUtils.getBoolean( session, false, CONFIG_PROP_CHECKSUMS_CONCURRENT ) )
+        {
+            return null;
+        }
+
+        final PooledWagon checksumWagon;
+        try
+        {
+            checksumWagon = acquireWagon( repository, false );
+        }
+        catch ( TransferFailedException e )
+        {
+            return null;
+        }
+
+        if ( checksumWagon == null )
+        {
+            return null;
+        }
+        if ( checksumWagon.wagon == wagon )
+        {
+            // a singleton wagon cannot perform two transfers at once
+            releaseWagon( checksumWagon, true );
+            return null;
+        }
+
+        return getChecksumExecutor().submit( new Callable<ExpectedChecksum>()
+        {
+            public ExpectedChecksum call()
+                throws Exception
             {
-                File checksumFile = new File( destination + checksumFileExtension );
-                if ( checksumFile.exists() )
+                boolean reusable = false;
+                try
                 {
-                    checksumFile.delete(); // ignore if failed as we will overwrite
+                    connectWagon( checksumWagon, repository );
+                    ExpectedChecksum checksum;
+                    try
+                    {
+                        checksum = fetchChecksum( checksumWagon.wagon, remotePath, algorithms );
+                    }
+                    catch ( ResourceDoesNotExistException e )
+                    {
+                        reusable = true;
+                        throw e;
+                    }
+                    reusable = true;
+                    return checksum;
                 }
-                FileUtils.copyFile( tempChecksumFile, checksumFile );
-                if ( !tempChecksumFile.delete() )
+                finally
                 {
-                    tempChecksumFile.deleteOnExit();
+                    releaseWagon( checksumWagon, reusable );
                 }
             }
-            else
-            {
-                throw new ChecksumFailedException( "Checksum failed on download: local = '" + actualChecksum
-                                                       + "'; remote = '" + expectedChecksum + "'" );
+        } );
+    }
 
-            }
-        }
-        catch ( IOException e )
+    private synchronized ExecutorService getChecksumExecutor()
+    {
+        if ( checksumExecutor == null )
         {
-            throw new ChecksumFailedException( "Invalid checksum file", e );
+            checksumExecutor = Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                private final AtomicInteger id = new AtomicInteger();
+
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "Checksum " + id.getAndIncrement() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
         }
+        return checksumExecutor;
     }
 
     private void disconnectWagon( Wagon wagon )
@@ -800,7 +1268,7 @@ private void disconnectWagon( Wagon wagon )
         }
     }
 
-    private void releaseWagon( String protocol, Wagon wagon )
+    private void releaseWagon( Wagon wagon )
     {
         try
         {
@@ -848,4 +1316,154 @@ public Wagon getWagon( String protocol )
         return wagon;
     }
 
+    /**
+     * A wagon along with its connection state and the repository it is connected to.
+     */
+    static final class PooledWagon
+    {
+
+        final List<Object> key;
+
+        final Wagon wagon;
+
+        /**
+         * The limiter the wagon took its permit from, set on every checkout.
+         */
+        Semaphore connections;
+
+        boolean connected;
+
+        long lastUsed;
+
+        PooledWagon( List<Object> key, Wagon wagon, Semaphore connections )
+        {
+            this.key = key;
+            this.wagon = wagon;
+            this.connections = connections;
+        }
+
+    }
+
+    /**
+     * Calculates the checksums of a transfer for several algorithms in a single pass.
+     */
+    static final class ChecksumsObserver
+        extends AbstractTransferListener
+    {
+
+        private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+        private final Map<String, String> checksums = new HashMap<>();
+
+        ChecksumsObserver( List<String> algorithms )
+            throws NoSuchAlgorithmException
+        {
+            for ( String algorithm : algorithms )
+            {
+                digests.put( algorithm, MessageDigest.getInstance( algorithm ) );
+            }
+        }
+
+        @Override
+        public void transferStarted( TransferEvent transferEvent )
+        {
+            reset();
+        }
+
+        @Override
+        public void transferProgress( TransferEvent transferEvent, byte[] buffer, int length )
+        {
+            for ( MessageDigest digest : digests.values() )
+            {
+                digest.update( buffer, 0, length );
+            }
+        }
+
+        @Override
+        public void transferCompleted( TransferEvent transferEvent )
+        {
+            for ( Map.Entry<String, MessageDigest> digest : digests.entrySet() )
+            {
+                checksums.put( digest.getKey(), encode( digest.getValue().digest() ) );
+            }
+        }
+
+        @Override
+        public void transferError( TransferEvent transferEvent )
+        {
+            reset();
+        }
+
+        private void reset()
+        {
+            checksums.clear();
+            for ( MessageDigest digest : digests.values() )
+            {
+                digest.reset();
+            }
+        }
+
+        String getActualChecksum( String algorithm )
+        {
+            return checksums.get( algorithm );
+        }
+
+        private static String encode( byte[] bytes )
+        {
+            StringBuilder buffer = new StringBuilder( bytes.length * 2 );
+            for ( byte b : bytes )
+            {
+                buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+                buffer.append( Character.forDigit( b & 0x0F, 16 ) );
+            }
+            return buffer.toString();
+        }
+
+    }
+
+    /**
+     * The checksum of a resource as published by the repository.
+     */
+    static final class ExpectedChecksum
+    {
+
+        final String algorithm;
+
+        final byte[] content;
+
+        final String checksum;
+
+        ExpectedChecksum( String algorithm, byte[] content )
+        {
+            this.algorithm = algorithm;
+            this.content = content;
+            this.checksum = parse( new String( content, StandardCharsets.UTF_8 ) );
+        }
+
+        private static String parse( String checksum )
+        {
+            // remove whitespaces at the end
+            checksum = checksum.trim();
+
+            // check for 'ALGO (name) = CHECKSUM' like used by openssl
+            if ( checksum.regionMatches( true, 0, "MD", 0, 2 ) || checksum.regionMatches( true, 0, "SHA", 0, 3 ) )
+            {
+                int lastSpacePos = checksum.lastIndexOf( ' ' );
+                checksum = checksum.substring( lastSpacePos + 1 );
+            }
+            else
+            {
+                // remove everything after the first space (if available)
+                int spacePos = checksum.indexOf( ' ' );
+
+                if ( spacePos != -1 )
+                {
+                    checksum = checksum.substring( 0, spacePos );
+                }
+            }
+            return checksum;
+        }
+
+    }
+
 }
@@ -21,14 +21,20 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.metadata.ResolutionGroup;
 import org.apache.maven.artifact.repository.ArtifactRepository;
@@ -110,6 +116,27 @@ public ArtifactResolutionResult collect( Set<Artifact> artifacts, Artifact origi
                                              ArtifactMetadataSource source, ArtifactFilter filter,
                                              List<ResolutionListener> listeners,
                                              List<ConflictResolver> conflictResolvers )
+    {
+        return collect( artifacts, originatingArtifact, managedVersions, repositoryRequest, source, filter, listeners,
+                        conflictResolvers, null );
+    }
+
+    /**
+     * Collects the dependencies like the other {@code collect()} methods but retrieves the metadata of the children
+     * of a node concurrently while the depth-first walk proceeds. The walk still makes all version, management and
+     * conflict decisions in the usual order, a prefetched result is only used when it was retrieved for exactly the
+     * artifact state the walk requests, otherwise the metadata is retrieved again.
+     *
+     * @param executor The executor used to retrieve the metadata, may be {@code null} to collect sequentially.
+     * @since 3.6.0
+     */
+    @SuppressWarnings( "checkstyle:parameternumber" )
+    public ArtifactResolutionResult collect( Set<Artifact> artifacts, Artifact originatingArtifact,
+                                             Map<String, Artifact> managedVersions,
+                                             ArtifactResolutionRequest repositoryRequest,
+                                             ArtifactMetadataSource source, ArtifactFilter filter,
+                                             List<ResolutionListener> listeners,
+                                             List<ConflictResolver> conflictResolvers, Executor executor )
     {
         ArtifactResolutionResult result = new ArtifactResolutionResult();
 
@@ -143,10 +170,12 @@ public ArtifactResolutionResult collect( Set<Artifact> artifacts, Artifact origi
 
         ManagedVersionMap versionMap = getManagedVersionsMap( originatingArtifact, managedVersions );
 
+        MetadataPrefetcher prefetcher = ( executor != null ) ? new MetadataPrefetcher( source, executor ) : null;
+
         try
         {
             recurse( result, root, resolvedArtifacts, versionMap, repositoryRequest, source, filter, listeners,
-                     conflictResolvers );
+                     conflictResolvers, prefetcher );
         }
         catch ( CyclicDependencyException e )
         {
@@ -163,6 +192,13 @@ public ArtifactResolutionResult collect( Set<Artifact> artifacts, Artifact origi
             logger.debug( "While recursing: " + e.getMessage(), e );
             result.addErrorArtifactException( e );
         }
+        finally
+        {
+            if ( prefetcher != null )
+            {
+                prefetcher.cancel();
+            }
+        }
 
         Set<ResolutionNode> set = new LinkedHashSet<>();
 
@@ -245,7 +281,8 @@ private ManagedVersionMap getManagedVersionsMap( Artifact originatingArtifact,
     private void recurse( ArtifactResolutionResult result, ResolutionNode node,
                           Map<Object, List<ResolutionNode>> resolvedArtifacts, ManagedVersionMap managedVersions,
                           ArtifactResolutionRequest request, ArtifactMetadataSource source, ArtifactFilter filter,
-                          List<ResolutionListener> listeners, List<ConflictResolver> conflictResolvers )
+                          List<ResolutionListener> listeners, List<ConflictResolver> conflictResolvers,
+                          MetadataPrefetcher prefetcher )
         throws ArtifactResolutionException
     {
         fireEvent( ResolutionListener.TEST_ARTIFACT, listeners, node );
@@ -442,6 +479,11 @@ private void recurse( ArtifactResolutionResult result, ResolutionNode node,
 
             Artifact parentArtifact = node.getArtifact();
 
+            if ( prefetcher != null )
+            {
+                prefetcher.prefetch( node, request, managedVersions );
+            }
+
             for ( Iterator<ResolutionNode> i = node.getChildrenIterator(); i.hasNext(); )
             {
                 ResolutionNode child = i.next();
@@ -548,7 +590,14 @@ private void recurse( ArtifactResolutionResult result, ResolutionNode node,
                                     fireEvent( ResolutionListener.SELECT_VERSION_FROM_RANGE, listeners, child );
                                 }
 
-                                rGroup = source.retrieve( metadataRequest );
+                                if ( prefetcher != null )
+                                {
+                                    rGroup = prefetcher.retrieve( child, metadataRequest );
+                                }
+                                else
+                                {
+                                    rGroup = source.retrieve( metadataRequest );
+                                }
 
                                 if ( rGroup == null )
                                 {
@@ -603,7 +652,7 @@ private void recurse( ArtifactResolutionResult result, ResolutionNode node,
                         subRequest.setMirrors( request.getMirrors() );
                         subRequest.setProxies( request.getProxies() );
                         recurse( result, child, resolvedArtifacts, managedVersions, subRequest, source, filter,
-                                 listeners, conflictResolvers );
+                                 listeners, conflictResolvers, prefetcher );
 
                     }
                 }
@@ -815,4 +864,247 @@ public ArtifactResolutionResult collect( Set<Artifact> artifacts, Artifact origi
                         listeners );
     }
 
+    /**
+     * Retrieves the metadata of the children of a node ahead of the depth-first walk. The prefetch works on copies of
+     * the child artifacts with the expected dependency management applied, children whose version is only known after
+     * range selection are left to the walk.
+     */
+    static class MetadataPrefetcher
+    {
+
+        private final ArtifactMetadataSource source;
+
+        private final Executor executor;
+
+        private final ClassLoader classLoader;
+
+        private final Map<ResolutionNode, Prefetch> prefetches = new IdentityHashMap<>();
+
+        MetadataPrefetcher( ArtifactMetadataSource source, Executor executor )
+        {
+            this.source = source;
+            this.executor = executor;
+            this.classLoader = Thread.currentThread().getContextClassLoader();
+        }
+
+        public void prefetch( ResolutionNode node, ArtifactResolutionRequest request,
+                              ManagedVersionMap managedVersions )
+        {
+            for ( Iterator<ResolutionNode> i = node.getChildrenIterator(); i.hasNext(); )
+            {
+                ResolutionNode child = i.next();
+
+                if ( child.isResolved() || ( child.getArtifact().isOptional() && !child.isChildOfRootNode() )
+                    || prefetches.containsKey( child ) )
+                {
+                    continue;
+                }
+
+                Artifact artifact = newManagedArtifact( child, managedVersions );
+
+                if ( artifact != null )
+                {
+                    MetadataResolutionRequest metadataRequest = new DefaultMetadataResolutionRequest( request );
+                    metadataRequest.setArtifact( artifact );
+                    metadataRequest.setRemoteRepositories( child.getRemoteRepositories() );
+
+                    Prefetch prefetch = new Prefetch( metadataRequest, child.getRemoteRepositories() );
+                    prefetches.put( child, prefetch );
+                    executor.execute( prefetch );
+                }
+            }
+        }
+
+        /**
+         * Mirrors {@link DefaultLegacyArtifactCollector#manageArtifact} and the exclusion handling of the walk on a
+         * copy of the child artifact.
+         */
+        private Artifact newManagedArtifact( ResolutionNode child, ManagedVersionMap managedVersions )
+        {
+            Artifact original = child.getArtifact();
+            Artifact managed = managedVersions.get( child.getKey() );
+
+            String version = original.getVersion();
+            String scope = original.getScope();
+            if ( managed != null )
+            {
+                if ( managed.getVersion() != null && ( !child.isChildOfRootNode() || version == null ) )
+                {
+                    version = managed.getVersion();
+                }
+                if ( managed.getScope() != null && ( !child.isChildOfRootNode() || scope == null ) )
+                {
+                    scope = managed.getScope();
+                }
+            }
+
+            if ( version == null || Artifact.SCOPE_SYSTEM.equals( scope ) )
+            {
+                return null;
+            }
+
+            Artifact artifact = ArtifactUtils.copyArtifact( original );
+            artifact.setVersion( version );
+            artifact.setScope( scope );
+
+            ArtifactFilter managedExclusionFilter = ( managed != null ) ? managed.getDependencyFilter() : null;
+            if ( managedExclusionFilter != null )
+            {
+                if ( artifact.getDependencyFilter() != null )
+                {
+                    AndArtifactFilter aaf = new AndArtifactFilter();
+                    aaf.add( artifact.getDependencyFilter() );
+                    aaf.add( managedExclusionFilter );
+                    artifact.setDependencyFilter( aaf );
+                }
+                else
+                {
+                    artifact.setDependencyFilter( managedExclusionFilter );
+                }
+            }
+
+            return artifact;
+        }
+
+        /**
+         * Gets the metadata of the specified child, either from its prefetch or by retrieving it now.
+         */
+        public ResolutionGroup retrieve( ResolutionNode child, MetadataResolutionRequest request )
+            throws ArtifactMetadataRetrievalException
+        {
+            Prefetch prefetch = prefetches.remove( child );
+
+            if ( prefetch != null )
+            {
+                if ( prefetch.matches( child.getRemoteRepositories(), request ) )
+                {
+                    ResolutionGroup group = prefetch.await( request.getArtifact() );
+                    if ( group != null )
+                    {
+                        return group;
+                    }
+                }
+                else
+                {
+                    prefetch.cancel( false );
+                }
+            }
+
+            return source.retrieve( request );
+        }
+
+        public void cancel()
+        {
+            for ( Prefetch prefetch : prefetches.values() )
+            {
+                prefetch.cancel( false );
+            }
+            prefetches.clear();
+        }
+
+        class Prefetch
+            extends FutureTask<ResolutionGroup>
+        {
+
+            private final List<ArtifactRepository> remoteRepositories;
+
+            private final Artifact artifact;
+
+            private final String groupId;
+
+            private final String artifactId;
+
+            private final String version;
+
+            private final String downloadUrl;
+
+            Prefetch( final MetadataResolutionRequest request, List<ArtifactRepository> remoteRepositories )
+            {
+                super( new Callable<ResolutionGroup>()
+                {
+                    public ResolutionGroup call()
+                        throws Exception
+                    {
+                        ClassLoader old = Thread.currentThread().getContextClassLoader();
+                        try
+                        {
+                            Thread.currentThread().setContextClassLoader( classLoader );
+                            return source.retrieve( request );
+                        }
+                        finally
+                        {
+                            Thread.currentThread().setContextClassLoader( old );
+                        }
+                    }
+                } );
+                this.remoteRepositories = remoteRepositories;
+                this.artifact = request.getArtifact();
+                this.groupId = artifact.getGroupId();
+                this.artifactId = artifact.getArtifactId();
+                this.version = artifact.getVersion();
+                this.downloadUrl = artifact.getDownloadUrl();
+            }
+
+            /**
+             * Tells whether the prefetch was done for the specified request. The repositories are those of the node
+             * rather than of the requests, as the requests substitute a fresh list for missing repositories.
+             */
+            boolean matches( List<ArtifactRepository> repositories, MetadataResolutionRequest actual )
+            {
+                Artifact a = actual.getArtifact();
+                return remoteRepositories == repositories
+                    && eq( groupId, a.getGroupId() ) && eq( artifactId, a.getArtifactId() )
+                    && eq( version, a.getVersion() ) && eq( artifact.getType(), a.getType() )
+                    && eq( artifact.getClassifier(), a.getClassifier() ) && eq( artifact.getScope(), a.getScope() )
+                    && eq( artifact.getDependencyFilter(), a.getDependencyFilter() )
+                    && artifact.isOptional() == a.isOptional();
+            }
+
+            /**
+             * Waits for the prefetched metadata, running the retrieval in the calling thread if no worker picked it up
+             * yet. Returns {@code null} if the metadata needs to be retrieved again, i.e. if the retrieval failed or
+             * relocated the artifact.
+             */
+            ResolutionGroup await( Artifact target )
+            {
+                run();
+
+                ResolutionGroup group;
+                try
+                {
+                    group = get();
+                }
+                catch ( ExecutionException e )
+                {
+                    return null;
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+
+                if ( group == null || group.getRelocatedArtifact() != null || !eq( groupId, artifact.getGroupId() )
+                    || !eq( artifactId, artifact.getArtifactId() ) || !eq( version, artifact.getVersion() ) )
+                {
+                    return null;
+                }
+
+                if ( !eq( downloadUrl, artifact.getDownloadUrl() ) )
+                {
+                    target.setDownloadUrl( artifact.getDownloadUrl() );
+                }
+
+                return group;
+            }
+
+        }
+
+        private static boolean eq( Object o1, Object o2 )
+        {
+            return ( o1 != null ) ? o1.equals( o2 ) : o2 == null;
+        }
+
+    }
+
 }
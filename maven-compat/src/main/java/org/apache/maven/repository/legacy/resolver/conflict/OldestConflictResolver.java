@@ -47,8 +47,8 @@ public ResolutionNode resolveConflict( ResolutionNode node1, ResolutionNode node
     {
         try
         {
-            ArtifactVersion version1 = node1.getArtifact().getSelectedVersion();
-            ArtifactVersion version2 = node2.getArtifact().getSelectedVersion();
+            ArtifactVersion version1 = node1.getSelectedVersion();
+            ArtifactVersion version2 = node2.getSelectedVersion();
 
             return version1.compareTo( version2 ) <= 0 ? node1 : node2;
         }
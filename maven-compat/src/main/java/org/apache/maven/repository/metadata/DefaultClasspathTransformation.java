@@ -19,10 +19,8 @@
  * under the License.
  */
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
 
 import org.apache.maven.artifact.ArtifactScopeEnum;
 import org.codehaus.plexus.component.annotations.Component;
@@ -69,9 +67,12 @@ public ClasspathContainer transform( MetadataGraph dirtyGraph, ArtifactScopeEnum
             else
             {
                 ClasspathGraphVisitor v = new ClasspathGraphVisitor( cleanGraph, cpc );
-                MetadataGraphVertex entry = cleanGraph.getEntry();
+                int entry = cleanGraph.getVertexId( cleanGraph.getEntry() );
                 // entry point
-                v.visit( entry );
+                if ( entry >= 0 )
+                {
+                    v.visit( entry );
+                }
             }
 
             return cpc;
@@ -93,7 +94,7 @@ public ClasspathContainer transform( MetadataGraph dirtyGraph, ArtifactScopeEnum
 
         ClasspathContainer cpc;
 
-        List<MetadataGraphVertex> visited;
+        boolean[] visited;
 
         // -----------------------------------------------------------------------
         protected ClasspathGraphVisitor( MetadataGraph cleanGraph, ClasspathContainer cpc )
@@ -101,18 +102,19 @@ protected ClasspathGraphVisitor( MetadataGraph cleanGraph, ClasspathContainer cp
             this.cpc = cpc;
             this.graph = cleanGraph;
 
-            visited = new ArrayList<>( cleanGraph.getVertices().size() );
+            visited = new boolean[cleanGraph.getVertexCount()];
         }
 
         // -----------------------------------------------------------------------
-        protected void visit( MetadataGraphVertex node ) // , String version, String artifactUri )
+        protected void visit( int node ) // , String version, String artifactUri )
         {
-            ArtifactMetadata md = node.getMd();
-            if ( visited.contains( node ) )
+            ArtifactMetadata md = graph.getVertex( node ).getMd();
+            if ( visited[node] )
             {
                 return;
             }
 
+            visited[node] = true;
             cpc.add( md );
 //
 //            TreeSet<MetadataGraphEdge> deps = new TreeSet<MetadataGraphEdge>(
@@ -135,11 +137,15 @@ protected void visit( MetadataGraphVertex node ) // , String version, String art
 //                        }
 //                    );
 
-            List<MetadataGraphEdge> exits = graph.getExcidentEdges( node );
+            int exitCount = graph.getExcidentEdgeCount( node );
 
-            if ( exits != null && exits.size() > 0 )
+            if ( exitCount > 0 )
             {
-                MetadataGraphEdge[] sortedExits = exits.toArray( new MetadataGraphEdge[exits.size()] );
+                MetadataGraphEdge[] sortedExits = new MetadataGraphEdge[exitCount];
+                for ( int i = 0; i < exitCount; i++ )
+                {
+                    sortedExits[i] = graph.getExcidentEdge( node, i );
+                }
                 Arrays.sort( sortedExits
                         ,
                         new Comparator<MetadataGraphEdge>()
@@ -167,7 +173,11 @@ public int compare( MetadataGraphEdge e1
                     MetadataGraphVertex targetNode = e.getTarget();
                     targetNode.getMd().setArtifactScope( e.getScope() );
                     targetNode.getMd().setWhy( e.getSource().getMd().toString() );
-                    visit( targetNode );
+                    int target = graph.getVertexId( targetNode );
+                    if ( target >= 0 )
+                    {
+                        visit( target );
+                    }
                 }
             }
 
@@ -21,7 +21,6 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeSet;
 
 import org.apache.maven.artifact.ArtifactScopeEnum;
 import org.codehaus.plexus.component.annotations.Component;
@@ -73,19 +72,19 @@ public MetadataGraph resolveConflicts( MetadataGraph graph, ArtifactScopeEnum sc
             return null; // no edges - nothing to worry about
         }
 
-        final TreeSet<MetadataGraphVertex> vertices = graph.getVertices();
+        final int vertexCount = graph.getVertexCount();
 
         try
         {
             // edge case - single vertex graph
-            if ( vertices.size() == 1 )
+            if ( vertexCount == 1 )
             {
                 return new MetadataGraph( entry );
             }
 
             final ArtifactScopeEnum requestedScope = ArtifactScopeEnum.checkScope( scope );
 
-            MetadataGraph res = new MetadataGraph( vertices.size() );
+            MetadataGraph res = new MetadataGraph( vertexCount );
             res.setVersionedVertices( false );
             res.setScopedVertices( false );
 
@@ -94,10 +93,10 @@ public MetadataGraph resolveConflicts( MetadataGraph graph, ArtifactScopeEnum sc
 
             res.setScope( requestedScope );
 
-            for ( MetadataGraphVertex v : vertices )
+            for ( int id = 0; id < vertexCount; id++ )
             {
-                final List<MetadataGraphEdge> ins = graph.getIncidentEdges( v );
-                final MetadataGraphEdge edge = cleanEdges( v, ins, requestedScope );
+                final MetadataGraphVertex v = graph.getVertex( id );
+                final MetadataGraphEdge edge = cleanEdges( graph, id, requestedScope );
 
                 if ( edge == null )
                 { // no edges - don't need this vertex any more
@@ -153,17 +152,22 @@ private MetadataGraph findLinkedSubgraph( MetadataGraph g )
             return g;
         }
 
-        List<MetadataGraphVertex> visited = new ArrayList<>( g.getVertices().size() );
-        visit( g.getEntry(), visited, g );
+        int vertexCount = g.getVertexCount();
+        boolean[] visited = new boolean[vertexCount];
+        int entryId = g.getVertexId( g.getEntry() );
+        if ( entryId >= 0 )
+        {
+            visit( entryId, visited, g );
+        }
 
-        List<MetadataGraphVertex> dropList = new ArrayList<>( g.getVertices().size() );
+        List<MetadataGraphVertex> dropList = new ArrayList<>( vertexCount );
 
         // collect drop list
-        for ( MetadataGraphVertex v : g.getVertices() )
+        for ( int id = 0; id < vertexCount; id++ )
         {
-            if ( !visited.contains( v ) )
+            if ( !visited[id] )
             {
-                dropList.add( v );
+                dropList.add( g.getVertex( id ) );
             }
         }
 
@@ -173,48 +177,46 @@ private MetadataGraph findLinkedSubgraph( MetadataGraph g )
         }
 
         // now - drop vertices
-        TreeSet<MetadataGraphVertex> vertices = g.getVertices();
         for ( MetadataGraphVertex v : dropList )
         {
-            vertices.remove( v );
+            g.removeVertex( v );
         }
 
         return g;
     }
 
     // -------------------------------------------------------------------------------------
-    private void visit( MetadataGraphVertex from, List<MetadataGraphVertex> visited, MetadataGraph graph )
+    private void visit( int from, boolean[] visited, MetadataGraph graph )
     {
-        if ( visited.contains( from ) )
+        if ( visited[from] )
         {
             return;
         }
 
-        visited.add( from );
+        visited[from] = true;
 
-        List<MetadataGraphEdge> exitList = graph.getExcidentEdges( from );
-        // String s = "|---> "+from.getMd().toString()+" - "+(exitList == null ? -1 : exitList.size()) + " exit links";
-        if ( exitList != null && exitList.size() > 0 )
+        for ( int i = 0, n = graph.getExcidentEdgeCount( from ); i < n; i++ )
         {
-            for ( MetadataGraphEdge e : graph.getExcidentEdges( from ) )
+            int to = graph.getExcidentTargetId( from, i );
+            if ( to >= 0 )
             {
-                visit( e.getTarget(), visited, graph );
+                visit( to, visited, graph );
             }
         }
     }
 
     // -------------------------------------------------------------------------------------
-    private MetadataGraphEdge cleanEdges( MetadataGraphVertex v, List<MetadataGraphEdge> edges,
-                                          ArtifactScopeEnum scope )
+    private MetadataGraphEdge cleanEdges( MetadataGraph graph, int id, ArtifactScopeEnum scope )
     {
-        if ( edges == null || edges.isEmpty() )
+        int count = graph.getIncidentEdgeCount( id );
+        if ( count == 0 )
         {
             return null;
         }
 
-        if ( edges.size() == 1 )
+        if ( count == 1 )
         {
-            MetadataGraphEdge e = edges.get( 0 );
+            MetadataGraphEdge e = graph.getIncidentEdge( id, 0 );
             if ( scope.encloses( e.getScope() ) )
             {
                 return e;
@@ -225,8 +227,9 @@ private MetadataGraphEdge cleanEdges( MetadataGraphVertex v, List<MetadataGraphE
 
         MetadataGraphEdge res = null;
 
-        for ( MetadataGraphEdge e : edges )
+        for ( int i = 0; i < count; i++ )
         {
+            MetadataGraphEdge e = graph.getIncidentEdge( id, i );
             if ( !scope.encloses( e.getScope() ) )
             {
                 continue;
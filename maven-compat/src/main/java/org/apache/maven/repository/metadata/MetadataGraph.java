@@ -21,6 +21,7 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
@@ -61,6 +62,12 @@
      */
     ArtifactScopeEnum scope;
 
+    /**
+     * int-indexed view of the graph, built on first use of the int-indexed accessors and dropped on every change made
+     * through the methods of the graph
+     */
+    private Index index;
+
     //------------------------------------------------------------------------
     /**
      * init graph
@@ -88,6 +95,7 @@ public MetadataGraph( MetadataGraphVertex entry )
 
         vertices.add( entry );
         this.entry = entry;
+        index = null;
     }
     //------------------------------------------------------------------------
     /**
@@ -141,6 +149,7 @@ private void processTreeNodes( MetadataGraphVertex parentVertex, MetadataTreeNod
         if ( !vertices.contains( vertex ) )
         {
             vertices.add( vertex );
+            index = null;
         }
 
         if ( parentVertex != null ) // then create the edge
@@ -179,12 +188,11 @@ public MetadataGraphVertex findVertex( ArtifactMetadata md )
         v.setCompareVersion( versionedVertices );
         v.setCompareScope( scopedVertices );
 
-        for ( MetadataGraphVertex gv : vertices )
+        // the vertices are sorted by the same comparison equals() relies on
+        MetadataGraphVertex gv = vertices.ceiling( v );
+        if ( gv != null && gv.equals( v ) )
         {
-            if ( gv.equals( v ) )
-            {
-                return gv;
-            }
+            return gv;
         }
 
         return null;
@@ -211,6 +219,7 @@ public MetadataGraphVertex addVertex( ArtifactMetadata md )
         v.setCompareScope( scopedVertices );
 
         vertices.add( v );
+        index = null;
         return v;
     }
     //------------------------------------------------------------------------
@@ -295,7 +304,40 @@ private static void checkEdge( MetadataGraphEdge e )
     //------------------------------------------------------------------------
     public List<MetadataGraphEdge> getEdgesBetween( MetadataGraphVertex vFrom, MetadataGraphVertex vTo )
     {
-        List<MetadataGraphEdge> edges = getIncidentEdges( vTo );
+        // don't build the index just for this, graphs under construction interleave this with changes
+        Index idx = currentIndex();
+        if ( idx == null )
+        {
+            return getEdgesBetween( getIncidentEdges( vTo ), vFrom );
+        }
+
+        int to = idx.getId( this, vTo );
+        int from = idx.getId( this, vFrom );
+        if ( to < 0 || from < 0 )
+        {
+            return getEdgesBetween( getIncidentEdges( vTo ), vFrom );
+        }
+
+        if ( idx.inOffsets[to] == idx.inOffsets[to + 1] )
+        {
+            return null;
+        }
+
+        List<MetadataGraphEdge> res = new ArrayList<>( idx.inOffsets[to + 1] - idx.inOffsets[to] );
+
+        for ( int i = idx.inOffsets[to]; i < idx.inOffsets[to + 1]; i++ )
+        {
+            if ( idx.inSources[i] == from )
+            {
+                res.add( idx.inEdges[i] );
+            }
+        }
+
+        return res;
+    }
+
+    private static List<MetadataGraphEdge> getEdgesBetween( List<MetadataGraphEdge> edges, MetadataGraphVertex vFrom )
+    {
         if ( edges == null || edges.isEmpty() )
         {
             return null;
@@ -327,6 +369,7 @@ public MetadataGraph addEdge( MetadataGraphVertex vFrom, MetadataGraphVertex vTo
 
         e.setSource( vFrom );
         e.setTarget( vTo );
+        index = null;
 
         vFrom.setCompareVersion( versionedVertices );
         vFrom.setCompareScope( scopedVertices );
@@ -375,6 +418,8 @@ public MetadataGraph removeVertex( MetadataGraphVertex v )
             excidentEdges.remove( v );
         }
 
+        index = null;
+
         return this;
 
     }
@@ -411,23 +456,131 @@ public void setEntry( MetadataGraphVertex entry )
         this.entry = entry;
     }
 
+    /**
+     * @return the live vertices, change the graph through its methods rather than through this collection so that
+     *         the int-indexed view is kept up to date
+     */
     public TreeSet<MetadataGraphVertex> getVertices()
     {
         return vertices;
     }
 
+    /**
+     * @return the live incident edges of the vertex, change the graph through its methods rather than through this
+     *         collection so that the int-indexed view is kept up to date
+     */
     public List<MetadataGraphEdge> getIncidentEdges( MetadataGraphVertex vertex )
     {
         checkEdges();
         return incidentEdges.get( vertex );
     }
 
+    /**
+     * @return the live excident edges of the vertex, change the graph through its methods rather than through this
+     *         collection so that the int-indexed view is kept up to date
+     */
     public List<MetadataGraphEdge> getExcidentEdges( MetadataGraphVertex vertex )
     {
         checkEdges();
         return excidentEdges.get( vertex );
     }
 
+    //------------------------------------------------------------------------
+    // int-indexed view: vertex ids run from 0 to getVertexCount() - 1 in the order of getVertices(), the edges of
+    // a vertex are addressed by their position in its incident/excident edge list. The view is meant for bulk
+    // traversals, building it costs O(V+E). Ids are only valid until the graph is changed. Changes made through
+    // the graph methods are tracked, but changes made directly to the collections returned by getVertices(),
+    // getIncidentEdges() or getExcidentEdges() are not detected unless they alter the number of vertices.
+    //------------------------------------------------------------------------
+    public int getVertexCount()
+    {
+        return index().vertices.length;
+    }
+
+    /**
+     * @return the id of the graph vertex equal to the given one, or {@code -1} if there is none
+     */
+    public int getVertexId( MetadataGraphVertex vertex )
+    {
+        return index().getId( this, vertex );
+    }
+
+    public MetadataGraphVertex getVertex( int id )
+    {
+        return index().vertices[id];
+    }
+
+    public int getIncidentEdgeCount( int id )
+    {
+        Index idx = index();
+        return idx.inOffsets[id + 1] - idx.inOffsets[id];
+    }
+
+    public MetadataGraphEdge getIncidentEdge( int id, int n )
+    {
+        Index idx = index();
+        return idx.inEdges[idx.inOffsets[id] + n];
+    }
+
+    /**
+     * @return the id of the source of the n-th incident edge of the vertex, or {@code -1} if the source is not a
+     *         vertex of this graph
+     */
+    public int getIncidentSourceId( int id, int n )
+    {
+        Index idx = index();
+        return idx.inSources[idx.inOffsets[id] + n];
+    }
+
+    public int getExcidentEdgeCount( int id )
+    {
+        Index idx = index();
+        return idx.outOffsets[id + 1] - idx.outOffsets[id];
+    }
+
+    public MetadataGraphEdge getExcidentEdge( int id, int n )
+    {
+        Index idx = index();
+        return idx.outEdges[idx.outOffsets[id] + n];
+    }
+
+    /**
+     * @return the id of the target of the n-th excident edge of the vertex, or {@code -1} if the target is not a
+     *         vertex of this graph
+     */
+    public int getExcidentTargetId( int id, int n )
+    {
+        Index idx = index();
+        return idx.outTargets[idx.outOffsets[id] + n];
+    }
+
+    private Index index()
+    {
+        Index idx = currentIndex();
+        if ( idx == null )
+        {
+            checkVertices();
+            checkEdges();
+            idx = new Index( this );
+            index = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * @return the index if one is built and still matches the graph, {@code null} otherwise
+     */
+    private Index currentIndex()
+    {
+        // the size check also catches vertices added to or removed from getVertices() directly
+        if ( index == null || vertices == null || index.vertices.length != vertices.size() )
+        {
+            return null;
+        }
+        return index;
+    }
+
+    //------------------------------------------------------------------------
     public boolean isVersionedVertices()
     {
         return versionedVertices;
@@ -519,6 +672,97 @@ public String toString()
         return sb.toString();
     }
 
+    //------------------------------------------------------------------------
+    /**
+     * compact adjacency of the graph: the incident edges of vertex i are inEdges[inOffsets[i]] up to
+     * inEdges[inOffsets[i + 1] - 1], inSources holds the matching source vertex ids; same for the excident edges.
+     */
+    private static final class Index
+    {
+        final MetadataGraphVertex[] vertices;
+
+        final Map<MetadataGraphVertex, Integer> ids;
+
+        final int[] inOffsets;
+        final MetadataGraphEdge[] inEdges;
+        final int[] inSources;
+
+        final int[] outOffsets;
+        final MetadataGraphEdge[] outEdges;
+        final int[] outTargets;
+
+        Index( MetadataGraph graph )
+        {
+            vertices = graph.vertices.toArray( new MetadataGraphVertex[graph.vertices.size()] );
+
+            ids = new IdentityHashMap<>( vertices.length );
+            for ( int i = 0; i < vertices.length; i++ )
+            {
+                ids.put( vertices[i], i );
+            }
+
+            inOffsets = new int[vertices.length + 1];
+            inEdges = flatten( graph.incidentEdges, inOffsets );
+            inSources = new int[inEdges.length];
+            for ( int i = 0; i < inEdges.length; i++ )
+            {
+                inSources[i] = resolve( graph, inEdges[i].getSource() );
+            }
+
+            outOffsets = new int[vertices.length + 1];
+            outEdges = flatten( graph.excidentEdges, outOffsets );
+            outTargets = new int[outEdges.length];
+            for ( int i = 0; i < outEdges.length; i++ )
+            {
+                outTargets[i] = resolve( graph, outEdges[i].getTarget() );
+            }
+        }
+
+        private MetadataGraphEdge[] flatten( Map<MetadataGraphVertex, List<MetadataGraphEdge>> edges, int[] offsets )
+        {
+            List<MetadataGraphEdge> flat = new ArrayList<>();
+            for ( int i = 0; i < vertices.length; i++ )
+            {
+                offsets[i] = flat.size();
+                List<MetadataGraphEdge> list = edges.get( vertices[i] );
+                if ( list != null )
+                {
+                    flat.addAll( list );
+                }
+            }
+            offsets[vertices.length] = flat.size();
+            return flat.toArray( new MetadataGraphEdge[flat.size()] );
+        }
+
+        /**
+         * like getId(), but remembers equal vertex instances so edges sharing them are resolved by identity
+         */
+        private int resolve( MetadataGraph graph, MetadataGraphVertex vertex )
+        {
+            int id = getId( graph, vertex );
+            if ( id >= 0 )
+            {
+                ids.put( vertex, id );
+            }
+            return id;
+        }
+
+        int getId( MetadataGraph graph, MetadataGraphVertex vertex )
+        {
+            if ( vertex == null )
+            {
+                return -1;
+            }
+
+            Integer id = ids.get( vertex );
+            if ( id == null )
+            {
+                id = ids.get( graph.findVertex( vertex.getMd() ) );
+            }
+            return id != null ? id : -1;
+        }
+    }
+
     //------------------------------------------------------------------------
     //------------------------------------------------------------------------
 }
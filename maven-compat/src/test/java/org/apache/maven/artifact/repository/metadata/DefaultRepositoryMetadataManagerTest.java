@@ -0,0 +1,104 @@
+package org.apache.maven.artifact.repository.metadata;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+
+import org.apache.maven.artifact.AbstractArtifactComponentTestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultRepositoryRequest;
+import org.apache.maven.artifact.repository.RepositoryRequest;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DefaultRepositoryMetadataManagerTest
+    extends AbstractArtifactComponentTestCase
+{
+
+    private RepositoryMetadataManager metadataManager;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        metadataManager = lookup( RepositoryMetadataManager.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        metadataManager = null;
+        super.tearDown();
+    }
+
+    protected String component()
+    {
+        return "metadata-manager";
+    }
+
+    public void testMergedMetadataReusedUntilFileChanges()
+        throws Exception
+    {
+        ArtifactRepository localRepository = localRepository();
+        ArtifactRepository remoteRepository = remoteRepository();
+        Artifact artifact = createArtifact( "merged", Artifact.LATEST_VERSION );
+
+        File file = new File( localRepository.getBasedir(), localRepository.pathOfLocalRepositoryMetadata(
+            new ArtifactRepositoryMetadata( artifact ), remoteRepository ) );
+        writeMetadata( file, "1.0" );
+        long lastModified = file.lastModified();
+
+        RepositoryRequest request = new DefaultRepositoryRequest();
+        request.setLocalRepository( localRepository );
+        request.setRemoteRepositories( Collections.singletonList( remoteRepository ) );
+        request.setOffline( true );
+
+        RepositoryMetadata metadata = resolve( artifact, request );
+        assertEquals( "1.0", metadata.getMetadata().getVersioning().getLatest() );
+        metadata.getMetadata().getVersioning().setLatest( "modified" );
+
+        // same length and modification time, so the file is not read again
+        writeMetadata( file, "1.1" );
+        file.setLastModified( lastModified );
+        metadata = resolve( artifact, request );
+        assertEquals( "1.0", metadata.getMetadata().getVersioning().getLatest() );
+
+        file.setLastModified( lastModified - 10000 );
+        metadata = resolve( artifact, request );
+        assertEquals( "1.1", metadata.getMetadata().getVersioning().getLatest() );
+    }
+
+    private RepositoryMetadata resolve( Artifact artifact, RepositoryRequest request )
+        throws Exception
+    {
+        RepositoryMetadata metadata = new ArtifactRepositoryMetadata( artifact );
+        metadataManager.resolve( metadata, request );
+        return metadata;
+    }
+
+    private static void writeMetadata( File file, String version )
+        throws Exception
+    {
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file, "UTF-8", "<metadata><groupId>maven</groupId><artifactId>merged</artifactId>"
+            + "<versioning><latest>" + version + "</latest><versions><version>" + version
+            + "</version></versions></versioning></metadata>" );
+    }
+
+}
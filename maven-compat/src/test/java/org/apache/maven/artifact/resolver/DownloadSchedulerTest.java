@@ -0,0 +1,124 @@
+package org.apache.maven.artifact.resolver;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link DownloadScheduler}.
+ */
+public class DownloadSchedulerTest
+    extends TestCase
+{
+
+    public void testConcurrencyCappedPerRepository()
+        throws Exception
+    {
+        DownloadScheduler scheduler = new DownloadScheduler( 4, 1, 100 );
+        try
+        {
+            final AtomicInteger active = new AtomicInteger();
+            final AtomicInteger maxActive = new AtomicInteger();
+            final CountDownLatch done = new CountDownLatch( 6 );
+            for ( int i = 0; i < 6; i++ )
+            {
+                scheduler.execute( ( i % 2 == 0 ) ? "a" : "b", new Runnable()
+                {
+                    public void run()
+                    {
+                        int now = active.incrementAndGet();
+                        synchronized ( maxActive )
+                        {
+                            maxActive.set( Math.max( maxActive.get(), now ) );
+                        }
+                        try
+                        {
+                            Thread.sleep( 20 );
+                        }
+                        catch ( InterruptedException e )
+                        {
+                            // ignore
+                        }
+                        active.decrementAndGet();
+                        done.countDown();
+                    }
+                } );
+            }
+
+            assertTrue( done.await( 10, TimeUnit.SECONDS ) );
+            assertTrue( "too many concurrent downloads: " + maxActive.get(), maxActive.get() <= 2 );
+
+            // the latch opens before the scheduler accounts for the last download
+            DownloadScheduler.Metrics metrics = scheduler.getMetrics();
+            for ( int i = 0; i < 100 && metrics.getCompleted() < 6; i++ )
+            {
+                Thread.sleep( 10 );
+                metrics = scheduler.getMetrics();
+            }
+            assertEquals( 6, metrics.getCompleted() );
+            assertEquals( 0, metrics.getQueued() );
+            assertEquals( 0, metrics.getCallerRuns() );
+            assertTrue( metrics.getAverageLatencyMillis() > 0 );
+        }
+        finally
+        {
+            scheduler.dispose();
+        }
+    }
+
+    public void testFullQueueRunsInSubmittingThread()
+    {
+        DownloadScheduler scheduler = new DownloadScheduler( 2, 0, 0 );
+        try
+        {
+            final Thread submitter = Thread.currentThread();
+            final AtomicInteger inline = new AtomicInteger();
+            for ( int i = 0; i < 3; i++ )
+            {
+                scheduler.execute( "a", new Runnable()
+                {
+                    public void run()
+                    {
+                        if ( Thread.currentThread() == submitter )
+                        {
+                            inline.incrementAndGet();
+                        }
+                    }
+                } );
+            }
+            scheduler.transferred( 1024 );
+
+            assertEquals( 3, inline.get() );
+            DownloadScheduler.Metrics metrics = scheduler.getMetrics();
+            assertEquals( 3, metrics.getCallerRuns() );
+            assertEquals( 3, metrics.getCompleted() );
+            assertEquals( 1024, metrics.getBytes() );
+        }
+        finally
+        {
+            scheduler.dispose();
+        }
+    }
+
+}
@@ -27,9 +27,11 @@
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.metadata.ArtifactRepositoryMetadata;
 import org.apache.maven.artifact.repository.metadata.RepositoryMetadata;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.repository.legacy.DefaultUpdateCheckManager;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 
 public class DefaultUpdateCheckManagerTest
     extends AbstractArtifactComponentTestCase
@@ -108,6 +110,43 @@ public void testMissingArtifact()
                                                            updateCheckManager.getRepositoryKey( remoteRepository ) ) );
     }
 
+    public void testWriteBehindCoalescesUpdates()
+        throws Exception
+    {
+        DefaultRepositorySystemSession repoSession =
+            (DefaultRepositorySystemSession) lookup( LegacySupport.class ).getRepositorySession();
+        repoSession.setConfigProperty( DefaultUpdateCheckManager.CONFIG_PROP_WRITE_BEHIND, 60000 );
+        DefaultUpdateCheckManager manager = (DefaultUpdateCheckManager) lookup( UpdateCheckManager.class );
+
+        ArtifactRepository remoteRepository = remoteRepository();
+        ArtifactRepository badRemoteRepository = badRemoteRepository();
+
+        ArtifactRepository localRepository = localRepository();
+
+        Artifact a = createArtifact( "a", "0.0.2-SNAPSHOT" );
+        File file = new File( localRepository.getBasedir(),
+                              localRepository.pathOf( a ) );
+        file.delete();
+        a.setFile( file );
+
+        File touchFile = manager.getTouchfile( a );
+        touchFile.delete();
+
+        manager.touch( a, remoteRepository, null );
+        manager.touch( a, badRemoteRepository, "failed" );
+
+        assertFalse( touchFile.exists() );
+        assertFalse( manager.isUpdateRequired( a, remoteRepository ) );
+        assertEquals( "failed", manager.getError( a, badRemoteRepository ) );
+
+        manager.flush();
+
+        assertTrue( touchFile.exists() );
+        assertNotNull( updateCheckManager.readLastUpdated( touchFile,
+                                                           updateCheckManager.getRepositoryKey( remoteRepository ) ) );
+        assertEquals( "failed", updateCheckManager.getError( a, badRemoteRepository ) );
+    }
+
     public void testPom() throws Exception
     {
         ArtifactRepository remoteRepository = remoteRepository();
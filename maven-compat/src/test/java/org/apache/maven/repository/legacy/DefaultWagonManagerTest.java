@@ -21,8 +21,11 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
@@ -34,17 +37,23 @@
 import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
 import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
 import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.wagon.ResourceDoesNotExistException;
 import org.apache.maven.wagon.TransferFailedException;
 import org.apache.maven.wagon.UnsupportedProtocolException;
 import org.apache.maven.wagon.Wagon;
 import org.apache.maven.wagon.authorization.AuthorizationException;
+import org.apache.maven.wagon.events.SessionEvent;
 import org.apache.maven.wagon.events.TransferEvent;
 import org.apache.maven.wagon.events.TransferListener;
 import org.apache.maven.wagon.observers.AbstractTransferListener;
 import org.apache.maven.wagon.observers.Debug;
 import org.codehaus.plexus.PlexusTestCase;
 import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 
 /**
  * @author <a href="michal.maczka@dimatics.com">Michal Maczka</a>
@@ -376,6 +385,174 @@ public void xtestChecksumVerification()
         }
     }
 
+    public void testIdleWagonReusedAcrossTransfers()
+        throws Exception
+    {
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_KEEP_ALIVE, 60000 );
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 1 );
+        lookup( LegacySupport.class ).setSession( new MavenSession( getContainer(), repoSession,
+                                                                    new DefaultMavenExecutionRequest(),
+                                                                    new DefaultMavenExecutionResult() ) );
+
+        ArtifactRepository repo = createStringRepo();
+
+        StringWagon wagon = (StringWagon) wagonManager.getWagon( "string" );
+        wagon.addExpectedContent( "one", "1" );
+        wagon.addExpectedContent( "two", "2" );
+
+        final int[] sessions = new int[2];
+        wagon.addSessionListener( new Debug()
+        {
+            @Override
+            public void sessionOpened( SessionEvent sessionEvent )
+            {
+                sessions[0]++;
+            }
+
+            @Override
+            public void sessionDisconnected( SessionEvent sessionEvent )
+            {
+                sessions[1]++;
+            }
+        } );
+
+        File dir = getTestFile( "target/test-data/idle-wagon" );
+        FileUtils.deleteDirectory( dir );
+        dir.mkdirs();
+
+        wagonManager.getRemoteFile( repo, new File( dir, "one" ), "one", null,
+                                    ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE, true );
+        wagonManager.getRemoteFile( repo, new File( dir, "two" ), "two", null,
+                                    ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE, true );
+
+        assertEquals( "2", FileUtils.fileRead( new File( dir, "two" ), "UTF-8" ) );
+        assertEquals( 1, sessions[0] );
+        assertEquals( 0, sessions[1] );
+
+        wagonManager.dispose();
+        assertEquals( 1, sessions[1] );
+    }
+
+    public void testConnectionLimitFollowsConfiguration()
+        throws Exception
+    {
+        List<Object> key = Arrays.<Object>asList( "id", "string://url" );
+
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 1 );
+        lookup( LegacySupport.class ).setSession( new MavenSession( getContainer(), repoSession,
+                                                                    new DefaultMavenExecutionRequest(),
+                                                                    new DefaultMavenExecutionResult() ) );
+        assertEquals( 1, wagonManager.getConnectionLimit( key ).availablePermits() );
+
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 3 );
+        assertEquals( 3, wagonManager.getConnectionLimit( key ).availablePermits() );
+
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 0 );
+        assertNull( wagonManager.getConnectionLimit( key ) );
+    }
+
+    public void testIdleWagonReleasesPermitOfCurrentLimit()
+        throws Exception
+    {
+        List<Object> key = Arrays.<Object>asList( "id", "string://url" );
+
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_KEEP_ALIVE, 60000 );
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 1 );
+        lookup( LegacySupport.class ).setSession( new MavenSession( getContainer(), repoSession,
+                                                                    new DefaultMavenExecutionRequest(),
+                                                                    new DefaultMavenExecutionResult() ) );
+
+        ArtifactRepository repo = createStringRepo();
+
+        StringWagon wagon = (StringWagon) wagonManager.getWagon( "string" );
+        wagon.addExpectedContent( "one", "1" );
+        wagon.addExpectedContent( "two", "2" );
+
+        File dir = getTestFile( "target/test-data/idle-wagon-limit" );
+        FileUtils.deleteDirectory( dir );
+        dir.mkdirs();
+
+        wagonManager.getRemoteFile( repo, new File( dir, "one" ), "one", null,
+                                    ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE, true );
+        Semaphore previous = wagonManager.getConnectionLimit( key );
+        assertEquals( 1, previous.availablePermits() );
+
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_MAX_CONNECTIONS, 2 );
+        wagonManager.getRemoteFile( repo, new File( dir, "two" ), "two", null,
+                                    ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE, true );
+
+        assertEquals( "2", FileUtils.fileRead( new File( dir, "two" ), "UTF-8" ) );
+        assertEquals( 1, previous.availablePermits() );
+        assertEquals( 2, wagonManager.getConnectionLimit( key ).availablePermits() );
+
+        wagonManager.dispose();
+    }
+
+    public void testConfiguredChecksumFetchedConcurrently()
+        throws Exception
+    {
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_CHECKSUMS, "SHA-256, SHA-1" );
+        repoSession.setConfigProperty( DefaultWagonManager.CONFIG_PROP_CHECKSUMS_CONCURRENT, true );
+        lookup( LegacySupport.class ).setSession( new MavenSession( getContainer(), repoSession,
+                                                                    new DefaultMavenExecutionRequest(),
+                                                                    new DefaultMavenExecutionResult() ) );
+
+        File remote = getTestFile( "target/test-data/checksums/remote" );
+        FileUtils.deleteDirectory( remote );
+        remote.mkdirs();
+        FileUtils.fileWrite( new File( remote, "file.txt" ), "UTF-8", "expected" );
+        FileUtils.fileWrite( new File( remote, "file.txt.sha256" ), "UTF-8",
+                             "3d4d5c2e4d8ab0b3f4ba9b9fe4c25cf2a9b3a4a1ae9ab6aa0f56eb3b0a3c31bc  file.txt" );
+        FileUtils.fileWrite( new File( remote, "file.txt.sha1" ), "UTF-8",
+                             "e3c5b1ad5b4d7a1b8d54e2e5e6d2f3f6f2d8d8e6" );
+
+        ArtifactRepository repo =
+            artifactRepositoryFactory.createArtifactRepository( "id", "perlookup://localhost" + remote.toURI().getPath(),
+                                                                new DefaultRepositoryLayout(), null, null );
+
+        File local = getTestFile( "target/test-data/checksums/local/file.txt" );
+        FileUtils.deleteDirectory( local.getParentFile() );
+        local.getParentFile().mkdirs();
+
+        try
+        {
+            wagonManager.getRemoteFile( repo, local, "file.txt", null, ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL,
+                                        true );
+            fail( "Checksum verification did not fail" );
+        }
+        catch ( ChecksumFailedException e )
+        {
+            assertFalse( new File( local.getPath() + ".sha256" ).exists() );
+        }
+
+        FileUtils.fileWrite( new File( remote, "file.txt.sha256" ), "UTF-8",
+                             sha256( "expected" ) + "  file.txt" );
+
+        wagonManager.getRemoteFile( repo, local, "file.txt", null, ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL,
+                                    true );
+
+        assertEquals( "expected", FileUtils.fileRead( local, "UTF-8" ) );
+        assertEquals( sha256( "expected" ) + "  file.txt",
+                      FileUtils.fileRead( new File( local.getPath() + ".sha256" ), "UTF-8" ) );
+        assertFalse( new File( local.getPath() + ".sha1" ).exists() );
+    }
+
+    private static String sha256( String content )
+        throws Exception
+    {
+        byte[] digest = MessageDigest.getInstance( "SHA-256" ).digest( content.getBytes( "UTF-8" ) );
+        StringBuilder buffer = new StringBuilder();
+        for ( byte b : digest )
+        {
+            buffer.append( String.format( "%02x", b ) );
+        }
+        return buffer.toString();
+    }
+
     public void testPerLookupInstantiation()
         throws Exception
     {
@@ -26,6 +26,7 @@
 import org.apache.maven.artifact.metadata.ResolutionGroup;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.resolver.ArtifactResolutionRequest;
 import org.apache.maven.artifact.resolver.ArtifactResolutionResult;
 import org.apache.maven.artifact.resolver.CyclicDependencyException;
 import org.apache.maven.artifact.resolver.ResolutionListener;
@@ -49,6 +50,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Test the default artifact collector.
@@ -717,6 +722,100 @@ public void testOverConstrainedVersionException()
         }
     }
 
+    public void testPrefetchingCollectionMatchesSequentialCollection()
+        throws Exception
+    {
+        List<String> expected = collectManagedGraph( null, false );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try
+        {
+            assertEquals( expected, collectManagedGraph( executor, false ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testPrefetchedMetadataIsConsumed()
+        throws Exception
+    {
+        assertPrefetchedMetadataIsConsumed( false );
+    }
+
+    public void testPrefetchedMetadataIsConsumedWithInheritedExclusions()
+        throws Exception
+    {
+        // the managed exclusions of e get combined with the exclusions inherited from a
+        assertPrefetchedMetadataIsConsumed( true );
+    }
+
+    private void assertPrefetchedMetadataIsConsumed( boolean exclusions )
+        throws Exception
+    {
+        List<String> expected = collectManagedGraph( null, exclusions );
+        Map<String, Integer> expectedRetrievals = ( (CountingSource) source ).retrievals;
+
+        // runs each prefetch right away, so any prefetch not used by the walk shows up as an extra retrieval
+        Executor direct = new Executor()
+        {
+            public void execute( Runnable command )
+            {
+                command.run();
+            }
+        };
+        assertEquals( expected, collectManagedGraph( direct, exclusions ) );
+        Map<String, Integer> retrievals = ( (CountingSource) source ).retrievals;
+
+        assertEquals( expectedRetrievals, retrievals );
+        for ( Map.Entry<String, Integer> entry : retrievals.entrySet() )
+        {
+            assertEquals( entry.getKey(), 1, entry.getValue().intValue() );
+        }
+    }
+
+    private List<String> collectManagedGraph( Executor executor, boolean exclusions )
+        throws Exception
+    {
+        source = new CountingSource();
+
+        ArtifactSpec a = createArtifactSpec( "a", "1.0" );
+        ArtifactSpec b = a.addDependency( "b", "1.0" );
+        ArtifactSpec c = a.addDependency( "c", "2.0", Artifact.SCOPE_RUNTIME );
+        a.addDependency( "d", "[1.0,3.0]" );
+        b.addDependency( "c", "1.0" );
+        b.addDependency( "e", "1.0" );
+        c.addDependency( "e", "2.0" );
+        c.addDependency( "f", "1.0", Artifact.SCOPE_TEST );
+        createArtifactSpec( "d", "2.0" ).addDependency( "g", "1.0" );
+        createArtifactSpec( "e", "3.0" ).addDependency( "h", "1.0" );
+        if ( exclusions )
+        {
+            a.artifact.setDependencyFilter( new ExclusionSetFilter( new String[] { "x" } ) );
+        }
+
+        Artifact managedE = createArtifactSpec( "e", "3.0", Artifact.SCOPE_RUNTIME ).artifact;
+        managedE.setDependencyFilter( new ExclusionSetFilter( new String[] { "h" } ) );
+        Map<String, Artifact> managedVersions =
+            Collections.singletonMap( managedE.getDependencyConflictId(), managedE );
+
+        ArtifactResolutionRequest request = new ArtifactResolutionRequest();
+        ArtifactResolutionResult res =
+            ( (DefaultLegacyArtifactCollector) artifactCollector ).collect( Collections.singleton( a.artifact ),
+                                                                            projectArtifact.artifact,
+                                                                            managedVersions, request, source, null,
+                                                                            Collections.<ResolutionListener>emptyList(),
+                                                                            null, executor );
+
+        List<String> ids = new ArrayList<>();
+        for ( Artifact artifact : res.getArtifacts() )
+        {
+            ids.add( artifact.getId() + ':' + artifact.getScope() + ' ' + artifact.getDependencyTrail() );
+        }
+        return ids;
+    }
+
     private Artifact getArtifact( String id, Set artifacts )
     {
         for ( Object artifact : artifacts )
@@ -980,4 +1079,23 @@ public List<ArtifactVersion> retrieveAvailableVersions( MetadataResolutionReques
             return retrieveAvailableVersions( request.getArtifact(), request.getLocalRepository(), request.getRemoteRepositories() );
         }
     }
+
+    private class CountingSource
+        extends Source
+    {
+        private final Map<String, Integer> retrievals = new TreeMap<>();
+
+        @Override
+        public ResolutionGroup retrieve( MetadataResolutionRequest request )
+            throws ArtifactMetadataRetrievalException
+        {
+            String id = request.getArtifact().getId();
+            synchronized ( retrievals )
+            {
+                Integer count = retrievals.get( id );
+                retrievals.put( id, ( count != null ) ? count + 1 : 1 );
+            }
+            return super.retrieve( request );
+        }
+    }
 }
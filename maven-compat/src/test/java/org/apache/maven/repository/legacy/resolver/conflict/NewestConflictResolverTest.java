@@ -20,6 +20,7 @@
  */
 
 import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.artifact.versioning.VersionRange;
 
 /**
  * Tests <code>NewestConflictResolver</code>.
@@ -101,4 +102,23 @@ public void testEqualReversed()
 
         assertResolveConflict( a2n, a2n, a1n );
     }
+
+    /**
+     * Tests that <code>a:3.0</code> wins in the scenario:
+     * <pre>
+     * a:1.0 (changed to a:3.0 after a first resolution)
+     * a:2.0
+     * </pre>
+     */
+    public void testVersionRangeChange()
+    {
+        ResolutionNode a1n = createResolutionNode( a1 );
+        ResolutionNode a2n = createResolutionNode( a2 );
+
+        assertResolveConflict( a2n, a1n, a2n );
+
+        a1.setVersionRange( VersionRange.createFromVersion( "3.0" ) );
+
+        assertResolveConflict( a1n, a1n, a2n );
+    }
 }
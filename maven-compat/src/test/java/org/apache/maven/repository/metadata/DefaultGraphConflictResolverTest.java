@@ -149,5 +149,33 @@ public void testTestResolution()
     	assertEquals( "wrong edge v3-v4 in the resulting graph after resolver", "1.2", res.getIncidentEdges(v4).get(0).getVersion() );
     }
     //------------------------------------------------------------------------------------------
+    public void testIndexedView()
+    throws Exception
+    {
+    	assertEquals( "wrong # of indexed vertices", 4, graph.getVertexCount() );
+
+    	int id1 = graph.getVertexId( v1 );
+    	int id3 = graph.getVertexId( v3 );
+    	assertSame( "wrong vertex for id", v3, graph.getVertex( id3 ) );
+    	assertEquals( "equal vertex should map to the same id", id3,
+    	              graph.getVertexId( new MetadataGraphVertex( new ArtifactMetadata( "g", "a3", "1.0" ) ) ) );
+    	assertEquals( "unknown vertex should have no id", -1,
+    	              graph.getVertexId( new MetadataGraphVertex( new ArtifactMetadata( "g", "a5", "1.0" ) ) ) );
+
+    	assertEquals( "wrong # of indexed excident edges", graph.getExcidentEdges( v1 ).size(),
+    	              graph.getExcidentEdgeCount( id1 ) );
+    	assertEquals( "wrong # of indexed incident edges", 2, graph.getIncidentEdgeCount( id3 ) );
+    	assertEquals( "wrong indexed edge source", id1, graph.getIncidentSourceId( id3, 1 ) );
+    	assertSame( "wrong indexed edge", graph.getIncidentEdges( v3 ).get( 1 ), graph.getIncidentEdge( id3, 1 ) );
+    	assertEquals( "wrong # of edges v1-v3", 2, graph.getEdgesBetween( v1, v3 ).size() );
+    	assertEquals( "wrong # of edges v2-v3", 0, graph.getEdgesBetween( v2, v3 ).size() );
+
+    	MetadataGraphVertex v5 = graph.addVertex( new ArtifactMetadata( "g", "a5", "1.0" ) );
+    	graph.addEdge( v2, v5, new MetadataGraphEdge( "1.0", true, null, null, 3, 1 ) );
+    	assertEquals( "index not refreshed after change", 5, graph.getVertexCount() );
+    	assertEquals( "wrong indexed edge target", graph.getVertexId( v5 ),
+    	              graph.getExcidentTargetId( graph.getVertexId( v2 ), 0 ) );
+    }
+    //------------------------------------------------------------------------------------------
     //------------------------------------------------------------------------------------------
 }
@@ -40,6 +40,7 @@
 import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.graph.GraphBuilder;
 import org.apache.maven.internal.aether.DefaultRepositorySystemSessionFactory;
+import org.apache.maven.internal.aether.DependencyPrefetcher;
 import org.apache.maven.lifecycle.internal.ExecutionEventCatapult;
 import org.apache.maven.lifecycle.internal.LifecycleStarter;
 import org.apache.maven.model.Prerequisites;
@@ -95,6 +96,9 @@
     @Requirement( hint = GraphBuilder.HINT )
     private GraphBuilder graphBuilder;
 
+    @Requirement
+    private DependencyPrefetcher dependencyPrefetcher;
+
     @Override
     public MavenExecutionResult execute( MavenExecutionRequest request )
     {
@@ -155,7 +159,9 @@ public MavenExecutionResult execute( MavenExecutionRequest request )
     // required after the execution of 9) as the AbstractLifecycleParticipants are free to mutate the MavenProject
     // instances, which may change dependencies which can, in turn, affect the build order.
     //
-    // 11) Execute LifecycleStarter.start()
+    // 11) Start prefetching the external dependencies and build plugins of the projects, if enabled.
+    //
+    // 12) Execute LifecycleStarter.start()
     //
     @SuppressWarnings( "checkstyle:methodlength" )
     private MavenExecutionResult doExecute( MavenExecutionRequest request )
@@ -289,6 +295,7 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
             return addExceptionToResult( result, graphResult.getProblems().iterator().next().getException() );
         }
 
+        DependencyPrefetcher.Prefetch prefetch = null;
         try
         {
             if ( result.hasExceptions() )
@@ -302,6 +309,8 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
 
             validatePrerequisitesForNonMavenPluginProjects( session.getProjects() );
 
+            prefetch = dependencyPrefetcher.start( session );
+
             lifecycleStarter.execute( session );
 
             validateActivatedProfiles( session.getProjects(), request.getActiveProfiles() );
@@ -313,6 +322,11 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
         }
         finally
         {
+            if ( prefetch != null )
+            {
+                prefetch.cancel();
+            }
+
             try
             {
                 afterSessionEnd( session.getProjects(), session );
@@ -28,6 +28,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -63,6 +64,8 @@
 
     private WorkspaceRepository repository;
 
+    private final Map<MavenProject, ProjectArtifactIndex> artifactIndexes = new ConcurrentHashMap<>();
+
     @Inject
     ReactorReader( MavenSession session )
     {
@@ -210,36 +213,14 @@ private boolean hasBeenPackaged( MavenProject project )
      */
     private Artifact findMatchingArtifact( MavenProject project, Artifact requestedArtifact )
     {
-        String requestedRepositoryConflictId = ArtifactIdUtils.toVersionlessId( requestedArtifact );
-
-        Artifact mainArtifact = RepositoryUtils.toArtifact( project.getArtifact() );
-        if ( requestedRepositoryConflictId.equals( ArtifactIdUtils.toVersionlessId( mainArtifact ) ) )
+        ProjectArtifactIndex index = artifactIndexes.get( project );
+        if ( index == null || !index.isCurrent( project ) )
         {
-            return mainArtifact;
-        }
-
-        for ( Artifact attachedArtifact : RepositoryUtils.toArtifacts( project.getAttachedArtifacts() ) )
-        {
-            if ( attachedArtifactComparison( requestedArtifact, attachedArtifact ) )
-            {
-                return attachedArtifact;
-            }
+            index = new ProjectArtifactIndex( project );
+            artifactIndexes.put( project, index );
         }
 
-        return null;
-    }
-
-    private boolean attachedArtifactComparison( Artifact requested, Artifact attached )
-    {
-        //
-        // We are taking as much as we can from the DefaultArtifact.equals(). The requested artifact has no file so
-        // we want to remove that from the comparison.
-        //
-        return requested.getArtifactId().equals( attached.getArtifactId() )
-            && requested.getGroupId().equals( attached.getGroupId() )
-            && requested.getVersion().equals( attached.getVersion() )
-            && requested.getExtension().equals( attached.getExtension() )
-            && requested.getClassifier().equals( attached.getClassifier() );
+        return index.find( requestedArtifact );
     }
 
     /**
@@ -253,4 +234,92 @@ private static boolean isTestArtifact( Artifact artifact )
         return ( "test-jar".equals( artifact.getProperty( "type", "" ) ) )
             || ( "jar".equals( artifact.getExtension() ) && "tests".equals( artifact.getClassifier() ) );
     }
+
+    /**
+     * Index of the main and attached artifacts of a single project, keyed by their (versionless) artifact id. The
+     * indexed artifacts carry the files of the project artifacts, so the index remembers each project artifact and
+     * its file as seen when it was built and is rebuilt once any of them changes, e.g. when the project gets packaged
+     * or attaches further artifacts.
+     */
+    private static final class ProjectArtifactIndex
+    {
+        private final org.apache.maven.artifact.Artifact[] projectArtifacts;
+
+        private final File[] projectArtifactFiles;
+
+        private final Artifact mainArtifact;
+
+        private final String mainArtifactId;
+
+        private final Map<String, Artifact> attachedArtifacts;
+
+        ProjectArtifactIndex( MavenProject project )
+        {
+            List<org.apache.maven.artifact.Artifact> attached = project.getAttachedArtifacts();
+
+            projectArtifacts = new org.apache.maven.artifact.Artifact[attached.size() + 1];
+            projectArtifactFiles = new File[projectArtifacts.length];
+            projectArtifacts[0] = project.getArtifact();
+            for ( int i = 1; i < projectArtifacts.length; i++ )
+            {
+                projectArtifacts[i] = attached.get( i - 1 );
+            }
+            for ( int i = 0; i < projectArtifacts.length; i++ )
+            {
+                projectArtifactFiles[i] = projectArtifacts[i].getFile();
+            }
+
+            mainArtifact = RepositoryUtils.toArtifact( projectArtifacts[0] );
+            mainArtifactId = ArtifactIdUtils.toVersionlessId( mainArtifact );
+
+            attachedArtifacts = new HashMap<>( attached.size() * 2 );
+            for ( Artifact attachedArtifact : RepositoryUtils.toArtifacts( attached ) )
+            {
+                // first one wins, same as a linear scan over the attached artifacts
+                String id = ArtifactIdUtils.toId( attachedArtifact );
+                if ( !attachedArtifacts.containsKey( id ) )
+                {
+                    attachedArtifacts.put( id, attachedArtifact );
+                }
+            }
+        }
+
+        boolean isCurrent( MavenProject project )
+        {
+            List<org.apache.maven.artifact.Artifact> attached = project.getAttachedArtifacts();
+            if ( attached.size() + 1 != projectArtifacts.length || !isCurrent( 0, project.getArtifact() ) )
+            {
+                return false;
+            }
+            for ( int i = 1; i < projectArtifacts.length; i++ )
+            {
+                if ( !isCurrent( i, attached.get( i - 1 ) ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isCurrent( int index, org.apache.maven.artifact.Artifact artifact )
+        {
+            File file = projectArtifactFiles[index];
+            return artifact == projectArtifacts[index]
+                && ( file == null ? artifact.getFile() == null : file.equals( artifact.getFile() ) );
+        }
+
+        Artifact find( Artifact requestedArtifact )
+        {
+            if ( mainArtifactId.equals( ArtifactIdUtils.toVersionlessId( requestedArtifact ) ) )
+            {
+                return mainArtifact;
+            }
+
+            //
+            // We are taking as much as we can from the DefaultArtifact.equals(). The requested artifact has no file so
+            // the attached artifacts are looked up by an id made of their coordinates only.
+            //
+            return attachedArtifacts.get( ArtifactIdUtils.toId( requestedArtifact ) );
+        }
+    }
 }
@@ -20,12 +20,15 @@
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.handler.ArtifactHandler;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
@@ -60,6 +63,27 @@
 public class RepositoryUtils
 {
 
+    /**
+     * The maximum number of entries held by each of the conversion caches, once exceeded a cache is simply cleared.
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private static final ConcurrentMap<List<Object>, RemoteRepository> REPOSITORIES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<List<Object>, ArtifactType> ARTIFACT_TYPES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<List<Object>, ArtifactHandler> ARTIFACT_HANDLERS = new ConcurrentHashMap<>();
+
+    private static <K, V> V intern( ConcurrentMap<K, V> cache, K key, V value )
+    {
+        if ( cache.size() >= MAX_CACHE_SIZE )
+        {
+            cache.clear();
+        }
+        V existing = cache.putIfAbsent( key, value );
+        return ( existing != null ) ? existing : value;
+    }
+
     private static String nullify( String string )
     {
         return ( string == null || string.length() <= 0 ) ? null : string;
@@ -86,7 +110,7 @@ public static org.apache.maven.artifact.Artifact toArtifact( Artifact artifact )
             return null;
         }
 
-        ArtifactHandler handler = newHandler( artifact );
+        ArtifactHandler handler = getHandler( artifact );
 
         /*
          * NOTE: From Artifact.hasClassifier(), an empty string and a null both denote "no classifier". However, some
@@ -198,23 +222,73 @@ public static List<RemoteRepository> toRepos( List<ArtifactRepository> repos )
         return results;
     }
 
+    /**
+     * Converts the specified repository. As the Maven repositories are mutable, the result is looked up by the current
+     * configuration of the repository, i.e. equally configured repositories yield the same (immutable) instance.
+     */
     public static RemoteRepository toRepo( ArtifactRepository repo )
     {
         RemoteRepository result = null;
         if ( repo != null )
         {
-            RemoteRepository.Builder builder =
-                new RemoteRepository.Builder( repo.getId(), getLayout( repo ), repo.getUrl() );
-            builder.setSnapshotPolicy( toPolicy( repo.getSnapshots() ) );
-            builder.setReleasePolicy( toPolicy( repo.getReleases() ) );
-            builder.setAuthentication( toAuthentication( repo.getAuthentication() ) );
-            builder.setProxy( toProxy( repo.getProxy() ) );
-            builder.setMirroredRepositories( toRepos( repo.getMirroredRepositories() ) );
-            result = builder.build();
+            List<Object> key = toRepoKey( repo );
+            result = REPOSITORIES.get( key );
+            if ( result == null )
+            {
+                RemoteRepository.Builder builder =
+                    new RemoteRepository.Builder( repo.getId(), getLayout( repo ), repo.getUrl() );
+                builder.setSnapshotPolicy( toPolicy( repo.getSnapshots() ) );
+                builder.setReleasePolicy( toPolicy( repo.getReleases() ) );
+                builder.setAuthentication( toAuthentication( repo.getAuthentication() ) );
+                builder.setProxy( toProxy( repo.getProxy() ) );
+                builder.setMirroredRepositories( toRepos( repo.getMirroredRepositories() ) );
+                result = intern( REPOSITORIES, key, builder.build() );
+            }
         }
         return result;
     }
 
+    private static List<Object> toRepoKey( ArtifactRepository repo )
+    {
+        List<Object> mirrors = null;
+        if ( repo.getMirroredRepositories() != null )
+        {
+            mirrors = new ArrayList<>( repo.getMirroredRepositories().size() );
+            for ( ArtifactRepository mirror : repo.getMirroredRepositories() )
+            {
+                mirrors.add( toRepoKey( mirror ) );
+            }
+        }
+
+        List<Object> auth = null;
+        if ( repo.getAuthentication() != null )
+        {
+            org.apache.maven.artifact.repository.Authentication a = repo.getAuthentication();
+            auth = Arrays.<Object>asList( a.getUsername(), a.getPassword(), a.getPrivateKey(), a.getPassphrase() );
+        }
+
+        List<Object> proxy = null;
+        if ( repo.getProxy() != null )
+        {
+            org.apache.maven.repository.Proxy p = repo.getProxy();
+            proxy = Arrays.<Object>asList( p.getProtocol(), p.getHost(), p.getPort(), p.getUserName(),
+                                           p.getPassword() );
+        }
+
+        return Arrays.<Object>asList( repo.getId(), getLayout( repo ), repo.getUrl(),
+                                      toPolicyKey( repo.getSnapshots() ), toPolicyKey( repo.getReleases() ), auth,
+                                      proxy, mirrors );
+    }
+
+    private static List<Object> toPolicyKey( ArtifactRepositoryPolicy policy )
+    {
+        if ( policy == null )
+        {
+            return null;
+        }
+        return Arrays.<Object>asList( policy.isEnabled(), policy.getUpdatePolicy(), policy.getChecksumPolicy() );
+    }
+
     public static String getLayout( ArtifactRepository repo )
     {
         try
@@ -288,10 +362,42 @@ public static ArtifactHandler newHandler( Artifact artifact )
         return handler;
     }
 
+    /**
+     * Gets the handler for the specified artifact. Unlike {@link #newHandler(Artifact)}, the handlers are shared
+     * between converted artifacts of the same kind, just like the handlers provided by the
+     * {@link ArtifactHandlerManager}.
+     */
+    private static ArtifactHandler getHandler( Artifact artifact )
+    {
+        String type = artifact.getProperty( ArtifactProperties.TYPE, artifact.getExtension() );
+        String language = artifact.getProperty( ArtifactProperties.LANGUAGE, null );
+        String addedToClasspath = artifact.getProperty( ArtifactProperties.CONSTITUTES_BUILD_PATH, "" );
+        String includesDependencies = artifact.getProperty( ArtifactProperties.INCLUDES_DEPENDENCIES, "" );
+
+        List<Object> key =
+            Arrays.<Object>asList( type, artifact.getExtension(), language, addedToClasspath, includesDependencies );
+        ArtifactHandler result = ARTIFACT_HANDLERS.get( key );
+        if ( result == null )
+        {
+            result = intern( ARTIFACT_HANDLERS, key, newHandler( artifact ) );
+        }
+        return result;
+    }
+
     public static ArtifactType newArtifactType( String id, ArtifactHandler handler )
     {
-        return new DefaultArtifactType( id, handler.getExtension(), handler.getClassifier(), handler.getLanguage(),
-                                        handler.isAddedToClasspath(), handler.isIncludesDependencies() );
+        List<Object> key = Arrays.<Object>asList( id, handler.getExtension(), handler.getClassifier(),
+                                                  handler.getLanguage(), handler.isAddedToClasspath(),
+                                                  handler.isIncludesDependencies() );
+        ArtifactType result = ARTIFACT_TYPES.get( key );
+        if ( result == null )
+        {
+            result = new DefaultArtifactType( id, handler.getExtension(), handler.getClassifier(),
+                                              handler.getLanguage(), handler.isAddedToClasspath(),
+                                              handler.isIncludesDependencies() );
+            result = intern( ARTIFACT_TYPES, key, result );
+        }
+        return result;
     }
 
     public static Dependency toDependency( org.apache.maven.model.Dependency dependency,
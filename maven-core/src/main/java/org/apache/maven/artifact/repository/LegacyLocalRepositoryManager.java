@@ -23,6 +23,8 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.metadata.ArtifactMetadata;
@@ -44,6 +46,7 @@
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not part
@@ -55,6 +58,14 @@
     implements LocalRepositoryManager
 {
 
+    /**
+     * Enables a session-scoped index of the artifacts known to exist in the local repository, defaults to
+     * {@code false}. With the index, repeated lookups of the same artifact (e.g. by several reactor projects) and
+     * lookups of artifacts installed or downloaded during the session do not hit the file system again. Consequently,
+     * an indexed artifact whose file gets deleted during the session is still reported as available.
+     */
+    static final String CONFIG_PROP_INDEX = "maven.repo.local.index";
+
     private final ArtifactRepository delegate;
 
     private final LocalRepository repo;
@@ -146,11 +157,18 @@ public LocalArtifactResult find( RepositorySystemSession session, LocalArtifactR
         String path = getPathForLocalArtifact( request.getArtifact() );
         File file = new File( getRepository().getBasedir(), path );
 
+        Set<String> index = getIndex( session );
+
         LocalArtifactResult result = new LocalArtifactResult( request );
-        if ( file.isFile() )
+        if ( ( index != null && index.contains( path ) ) || file.isFile() )
         {
             result.setFile( file );
             result.setAvailable( true );
+
+            if ( index != null )
+            {
+                index.add( path );
+            }
         }
 
         return result;
@@ -183,7 +201,45 @@ public LocalMetadataResult find( RepositorySystemSession session, LocalMetadataR
 
     public void add( RepositorySystemSession session, LocalArtifactRegistration request )
     {
-        // noop
+        Set<String> index = getIndex( session );
+        if ( index != null )
+        {
+            // registrations may precede the actual file or refer to a failed install, record what really exists
+            String path = getPathForLocalArtifact( request.getArtifact() );
+            if ( new File( getRepository().getBasedir(), path ).isFile() )
+            {
+                index.add( path );
+            }
+        }
+    }
+
+    /**
+     * Gets the paths of the artifacts known to exist in this repository, only existing files are recorded so that
+     * artifacts added by other means are still picked up from the file system.
+     */
+    private Set<String> getIndex( RepositorySystemSession session )
+    {
+        if ( session == null || !ConfigUtils.getBoolean( session, false, CONFIG_PROP_INDEX ) )
+        {
+            return null;
+        }
+
+        Object key = new IndexKey( repo.getBasedir() );
+
+        Object index = session.getData().get( key );
+        if ( index == null )
+        {
+            index = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+            if ( !session.getData().set( key, null, index ) )
+            {
+                // lost the race against a concurrent first lookup, use its index
+                index = session.getData().get( key );
+            }
+        }
+
+        @SuppressWarnings( "unchecked" )
+        Set<String> result = (Set<String>) index;
+        return result;
     }
 
     public void add( RepositorySystemSession session, LocalMetadataRegistration request )
@@ -191,6 +247,30 @@ public void add( RepositorySystemSession session, LocalMetadataRegistration requ
         // noop
     }
 
+    static final class IndexKey
+    {
+
+        private final File basedir;
+
+        IndexKey( File basedir )
+        {
+            this.basedir = basedir;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            return obj instanceof IndexKey && basedir.equals( ( (IndexKey) obj ).basedir );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return basedir.hashCode();
+        }
+
+    }
+
     static class ArtifactMetadataAdapter
         implements ArtifactMetadata
     {
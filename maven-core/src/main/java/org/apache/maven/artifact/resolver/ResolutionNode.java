@@ -30,7 +30,9 @@
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.OverConstrainedVersionException;
+import org.apache.maven.artifact.versioning.VersionRange;
 
 /**
  * ResolutionNode
@@ -53,6 +55,10 @@
 
     private List<Artifact> trail;
 
+    private VersionRange selectedVersionRange;
+
+    private DefaultArtifactVersion selectedVersion;
+
     public ResolutionNode( Artifact artifact, List<ArtifactRepository> remoteRepositories )
     {
         this.artifact = artifact;
@@ -83,6 +89,35 @@ public Object getKey()
         return artifact.getDependencyConflictId();
     }
 
+    /**
+     * Gets the selected version of the artifact in a form that compares without parsing. The result is kept until the
+     * version range of the artifact changes, so conflict resolvers can compare nodes repeatedly at no extra cost.
+     *
+     * @return The selected version or {@code null} if not known.
+     * @throws OverConstrainedVersionException If the version range of the artifact has no valid ranges.
+     * @see Artifact#getSelectedVersion()
+     */
+    public ArtifactVersion getSelectedVersion()
+        throws OverConstrainedVersionException
+    {
+        VersionRange range = artifact.getVersionRange();
+        if ( range == null || range != selectedVersionRange )
+        {
+            ArtifactVersion version = artifact.getSelectedVersion();
+            if ( version == null || version instanceof DefaultArtifactVersion )
+            {
+                selectedVersion = (DefaultArtifactVersion) version;
+            }
+            else
+            {
+                // other implementations get parsed again by each DefaultArtifactVersion.compareTo()
+                selectedVersion = new DefaultArtifactVersion( version.toString() );
+            }
+            selectedVersionRange = range;
+        }
+        return selectedVersion;
+    }
+
     public void addDependencies( Set<Artifact> artifacts, List<ArtifactRepository> remoteRepositories,
                                  ArtifactFilter filter )
         throws CyclicDependencyException, OverConstrainedVersionException
@@ -249,6 +284,7 @@ public String toString()
     public void setArtifact( Artifact artifact )
     {
         this.artifact = artifact;
+        selectedVersionRange = null;
     }
 
 }
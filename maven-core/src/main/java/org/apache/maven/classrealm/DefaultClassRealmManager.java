@@ -73,6 +73,12 @@
      */
     private static final ClassLoader PARENT_CLASSLOADER = ClassWorld.class.getClassLoader();
 
+    /**
+     * Import of the maven api realm that never matches a class or resource name. It keeps the maven api realm among
+     * the import realms (which determine component visibility) of realms that use the indexed imports instead.
+     */
+    private static final String VISIBILITY_IMPORT = "<" + API_REALMID + ">";
+
     private final Logger logger;
 
     private final ClassWorld world;
@@ -84,6 +90,12 @@
 
     private final ClassRealm mavenApiRealm;
 
+    /**
+     * Indexed view of the packages exported by the maven api realm, imported by plugin and extension realms in place of
+     * the maven api realm itself. {@code null} if the maven api realm has classes of its own.
+     */
+    private final IndexedImportsClassLoader mavenApiImports;
+
     /**
      * Patterns of artifacts provided by maven core and exported via maven api realm. These artifacts are filtered from
      * plugin and build extensions realms to avoid presence of duplicate and possibly conflicting classes on classpath.
@@ -101,9 +113,14 @@ public DefaultClassRealmManager( Logger logger, PlexusContainer container,
 
         Map<String, ClassLoader> foreignImports = exports.get().getExportedPackages();
 
+        Map<String, ClassLoader> apiImports = new TreeMap<>();
         this.mavenApiRealm =
             createRealm( API_REALMID, RealmType.Core, null /* parent */, null /* parentImports */,
-                         foreignImports, null /* artifacts */ );
+                         foreignImports, null /* artifacts */, apiImports );
+
+        // the index only covers the exported packages, so it can't stand in for a realm with its own class path
+        this.mavenApiImports =
+            ( mavenApiRealm.getURLs().length == 0 ) ? new IndexedImportsClassLoader( API_REALMID, apiImports ) : null;
 
         this.providedArtifacts = exports.get().getExportedArtifacts();
     }
@@ -156,6 +173,20 @@ public ClassRealm getMavenApiRealm()
      */
     private ClassRealm createRealm( String baseRealmId, RealmType type, ClassLoader parent, List<String> parentImports,
                                     Map<String, ClassLoader> foreignImports, List<Artifact> artifacts )
+    {
+        return createRealm( baseRealmId, type, parent, parentImports, foreignImports, artifacts, null );
+    }
+
+    /**
+     * Creates a new class realm with the specified parent and imports.
+     *
+     * @param wiredImports Receives the foreign imports as wired into the realm after the delegates ran, may be
+     *            {@code null}.
+     * @see #createRealm(String, RealmType, ClassLoader, List, Map, List)
+     */
+    private ClassRealm createRealm( String baseRealmId, RealmType type, ClassLoader parent, List<String> parentImports,
+                                    Map<String, ClassLoader> foreignImports, List<Artifact> artifacts,
+                                    Map<String, ClassLoader> wiredImports )
     {
         Set<String> artifactIds = new LinkedHashSet<>();
 
@@ -203,6 +234,11 @@ private ClassRealm createRealm( String baseRealmId, RealmType type, ClassLoader
 
         callDelegates( classRealm, type, parent, parentImports, foreignImports, constituents );
 
+        if ( wiredImports != null )
+        {
+            wiredImports.putAll( foreignImports );
+        }
+
         wireRealm( classRealm, parentImports, foreignImports );
 
         Set<String> includedIds = populateRealm( classRealm, constituents );
@@ -368,6 +404,13 @@ private void wireRealm( ClassRealm classRealm, List<String> parentImports, Map<S
                 ClassLoader importedRealm = entry.getValue();
                 String imp = entry.getKey();
 
+                if ( importedRealm == mavenApiRealm && mavenApiImports != null )
+                {
+                    // avoid the linear scan of the exported packages and the failed lookups for non-core classes
+                    classRealm.importFrom( mavenApiRealm, VISIBILITY_IMPORT );
+                    importedRealm = mavenApiImports;
+                }
+
                 if ( logger.isDebugEnabled() )
                 {
                     logger.debug( "  Imported: " + imp + " < " + getId( importedRealm ) );
@@ -0,0 +1,250 @@
+package org.apache.maven.classrealm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class loader that serves the packages/types a realm imports from foreign class loaders. The imports are indexed by
+ * name so that a lookup costs a few hash probes instead of a scan over all import entries, and names without a
+ * matching import fail fast without consulting any of the imported class loaders. The matching rules and precedence
+ * are those of the foreign imports of a {@code ClassRealm}: an import is either a class name, a package name that also
+ * covers sub packages, a package name ending with {@code .*} that covers only that package or the empty string that
+ * covers everything, and the longest (lexicographically greatest) matching import wins.
+ *
+ * @since 3.6.0
+ */
+class IndexedImportsClassLoader
+    extends ClassLoader
+{
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
+    private static final int MAX_MISSING_CLASSES = 4096;
+
+    private final String id;
+
+    private final Map<String, ClassLoader> imports;
+
+    private final Map<String, List<String>> importsByPath;
+
+    private final Set<String> missingClasses = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    /**
+     * Creates a new class loader for the specified imports.
+     *
+     * @param id The identifier of the realm whose imports are served, used for diagnostics, must not be {@code null}.
+     * @param imports The imported packages/types and the class loaders to import them from, must not be {@code null}.
+     */
+    IndexedImportsClassLoader( String id, Map<String, ClassLoader> imports )
+    {
+        super( null );
+        this.id = id;
+        this.imports = new HashMap<>( imports );
+        this.importsByPath = new HashMap<>();
+
+        for ( String imp : this.imports.keySet() )
+        {
+            if ( !imp.isEmpty() && !imp.endsWith( ".*" ) )
+            {
+                String path = imp.replace( '.', '/' );
+                List<String> imps = importsByPath.get( path );
+                if ( imps == null )
+                {
+                    imps = new ArrayList<>( 1 );
+                    importsByPath.put( path, imps );
+                }
+                imps.add( imp );
+            }
+        }
+    }
+
+    /**
+     * Gets the class loader to import the specified class or resource from.
+     *
+     * @param name The binary class name or resource name, must not be {@code null}.
+     * @return The class loader to import from or {@code null} if the name is not imported.
+     */
+    ClassLoader getImportClassLoader( String name )
+    {
+        String best = imports.containsKey( "" ) ? "" : null;
+
+        if ( name.indexOf( '/' ) < 0 )
+        {
+            // a binary class name, e.g. java.lang.Object
+
+            best = max( best, name );
+            for ( int i = 1; i < name.length(); i++ )
+            {
+                char c = name.charAt( i );
+                if ( c == '.' || c == '$' )
+                {
+                    best = max( best, name.substring( 0, i ) );
+                }
+            }
+
+            int index = name.lastIndexOf( '.' );
+            best = max( best, ( ( index < 0 ) ? "" : name.substring( 0, index ) ) + ".*" );
+        }
+        else
+        {
+            // a resource name, e.g. java/lang/Object.class
+
+            best = max( best, name );
+            for ( int i = 1; i < name.length(); i++ )
+            {
+                char c = name.charAt( i );
+                if ( c == '/' || c == '$' )
+                {
+                    best = maxOfPath( best, name.substring( 0, i ) );
+                }
+            }
+            if ( name.endsWith( ".class" ) )
+            {
+                best = maxOfPath( best, name.substring( 0, name.length() - 6 ) );
+            }
+
+            int index = name.lastIndexOf( '/' );
+            best = max( best, name.substring( 0, index ).replace( '/', '.' ) + ".*" );
+        }
+
+        return ( best != null ) ? imports.get( best ) : null;
+    }
+
+    private String max( String best, String candidate )
+    {
+        if ( imports.containsKey( candidate ) && ( best == null || candidate.compareTo( best ) > 0 ) )
+        {
+            return candidate;
+        }
+        return best;
+    }
+
+    private String maxOfPath( String best, String path )
+    {
+        List<String> imps = importsByPath.get( path );
+        if ( imps != null )
+        {
+            for ( String imp : imps )
+            {
+                if ( best == null || imp.compareTo( best ) > 0 )
+                {
+                    best = imp;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Override
+    protected Class<?> findClass( String name )
+        throws ClassNotFoundException
+    {
+        ClassLoader importClassLoader = getImportClassLoader( name );
+
+        if ( importClassLoader == null || missingClasses.contains( name ) )
+        {
+            throw new MissingClassException( name );
+        }
+
+        try
+        {
+            return importClassLoader.loadClass( name );
+        }
+        catch ( ClassNotFoundException e )
+        {
+            if ( missingClasses.size() < MAX_MISSING_CLASSES )
+            {
+                missingClasses.add( name );
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected URL findResource( String name )
+    {
+        ClassLoader importClassLoader = getImportClassLoader( name );
+
+        return ( importClassLoader != null ) ? importClassLoader.getResource( name ) : null;
+    }
+
+    @Override
+    protected Enumeration<URL> findResources( String name )
+        throws IOException
+    {
+        ClassLoader importClassLoader = getImportClassLoader( name );
+
+        if ( importClassLoader == null )
+        {
+            return Collections.emptyEnumeration();
+        }
+
+        return importClassLoader.getResources( name );
+    }
+
+    @Override
+    public Enumeration<URL> getResources( String name )
+        throws IOException
+    {
+        // the imported class loaders already include the bootstrap resources
+        return Collections.enumeration( new LinkedHashSet<>( Collections.list( super.getResources( name ) ) ) );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexedImports[" + id + "]";
+    }
+
+    /**
+     * Signals a class that is not imported, without the cost of filling in a stack trace nobody is going to look at.
+     */
+    static final class MissingClassException
+        extends ClassNotFoundException
+    {
+
+        MissingClassException( String name )
+        {
+            super( name );
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace()
+        {
+            return this;
+        }
+
+    }
+
+}
@@ -230,6 +230,8 @@ else if ( request.isUpdateSnapshots() )
         session.setSystemProperties( request.getSystemProperties() );
         session.setConfigProperties( configProps );
 
+        DependencyCollectionCache.install( session );
+
         mavenRepositorySystem.injectMirror( request.getRemoteRepositories(), request.getMirrors() );
         mavenRepositorySystem.injectProxy( session, request.getRemoteRepositories() );
         mavenRepositorySystem.injectAuthentication( session, request.getRemoteRepositories() );
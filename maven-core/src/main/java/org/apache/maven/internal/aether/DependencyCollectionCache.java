@@ -0,0 +1,437 @@
+package org.apache.maven.internal.aether;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.collection.DependencyGraphTransformationContext;
+import org.eclipse.aether.collection.DependencyGraphTransformer;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.ConfigUtils;
+import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoizes the raw (untransformed) dependency subgraphs collected during a session, so that reactor modules sharing
+ * direct dependencies, dependency management, repositories and collection settings do not walk the same transitive
+ * subtrees again. A cached subgraph is copied and then transformed like the repository system would have done for
+ * the requesting module. Whenever a subgraph can not be reused as is, the request falls back to a regular collection.
+ *
+ * @since 3.6.0
+ */
+public final class DependencyCollectionCache
+{
+
+    /**
+     * Enables the cache for the sessions created by {@link DefaultRepositorySystemSessionFactory}, defaults to
+     * {@code false}.
+     */
+    public static final String CONFIG_PROP_ENABLED = "maven.dependencyCollection.cache";
+
+    /**
+     * The root of the single-dependency requests used to collect the subgraph of a direct dependency. It must not
+     * collide with any real artifact as the collector cuts cycles back to the root artifact.
+     */
+    private static final Artifact SUBGRAPH_ROOT =
+        new DefaultArtifact( "org.apache.maven.internal", "dependency-collection-root", "pom", "0" );
+
+    private final ConcurrentMap<Key, DependencyNode> subgraphs = new ConcurrentHashMap<>();
+
+    /**
+     * Collects the dependencies for the specified request, using the cache of the session if one was set up.
+     *
+     * @param repoSystem The repository system to collect with, must not be {@code null}.
+     * @param session The repository session, must not be {@code null}.
+     * @param request The collection request, must not be {@code null}.
+     * @return The collection result, never {@code null}.
+     * @throws DependencyCollectionException If the dependency graph could not be collected.
+     */
+    public static CollectResult collectDependencies( RepositorySystem repoSystem, RepositorySystemSession session,
+                                                     CollectRequest request )
+        throws DependencyCollectionException
+    {
+        Object cache = session.getData().get( DependencyCollectionCache.class );
+        if ( cache instanceof DependencyCollectionCache )
+        {
+            return ( (DependencyCollectionCache) cache ).collect( repoSystem, session, request );
+        }
+        return repoSystem.collectDependencies( session, request );
+    }
+
+    /**
+     * Sets up a new cache for the specified session if enabled by its configuration.
+     *
+     * @param session The repository session to set up, must not be {@code null}.
+     */
+    static void install( RepositorySystemSession session )
+    {
+        if ( ConfigUtils.getBoolean( session, false, CONFIG_PROP_ENABLED ) )
+        {
+            session.getData().set( DependencyCollectionCache.class, new DependencyCollectionCache() );
+        }
+    }
+
+    CollectResult collect( RepositorySystem repoSystem, RepositorySystemSession session, CollectRequest request )
+        throws DependencyCollectionException
+    {
+        DefaultRepositorySystemSession rawSession = new DefaultRepositorySystemSession( session );
+        rawSession.setDependencyGraphTransformer( null );
+
+        SessionKey sessionKey = new SessionKey( session );
+        ManagedKey managedKey = new ManagedKey( request.getManagedDependencies() );
+
+        DependencyNode root;
+        if ( request.getRoot() != null )
+        {
+            Key key = new Key( request.getRoot(), request.getDependencies(), managedKey, request.getRepositories(),
+                               request.getRequestContext(), sessionKey );
+            DependencyNode subgraph = getSubgraph( repoSystem, rawSession, key, request );
+            if ( subgraph == null )
+            {
+                return repoSystem.collectDependencies( session, request );
+            }
+            root = copy( subgraph, null, new IdentityHashMap<DependencyNode, DependencyNode>() );
+        }
+        else
+        {
+            DefaultDependencyNode node = new DefaultDependencyNode( request.getRootArtifact() );
+            node.setRequestContext( request.getRequestContext() );
+            node.setRepositories( request.getRepositories() );
+
+            Map<DependencyNode, DependencyNode> copies = new IdentityHashMap<>();
+            for ( Dependency dependency : request.getDependencies() )
+            {
+                Key key = new Key( null, Collections.singletonList( dependency ), managedKey,
+                                   request.getRepositories(), request.getRequestContext(), sessionKey );
+                CollectRequest subgraphRequest = new CollectRequest();
+                subgraphRequest.setRootArtifact( SUBGRAPH_ROOT );
+                subgraphRequest.setDependencies( key.dependencies );
+                subgraphRequest.setManagedDependencies( request.getManagedDependencies() );
+                subgraphRequest.setRepositories( request.getRepositories() );
+                subgraphRequest.setRequestContext( request.getRequestContext() );
+                subgraphRequest.setTrace( request.getTrace() );
+
+                DependencyNode subgraph = getSubgraph( repoSystem, rawSession, key, subgraphRequest );
+                if ( subgraph == null )
+                {
+                    return repoSystem.collectDependencies( session, request );
+                }
+                for ( DependencyNode child : subgraph.getChildren() )
+                {
+                    DependencyNode copy = copy( child, request.getRootArtifact(), copies );
+                    if ( copy == null )
+                    {
+                        // the subgraph contains the root artifact, the collector would have cut the cycle there
+                        return repoSystem.collectDependencies( session, request );
+                    }
+                    node.getChildren().add( copy );
+                }
+            }
+            root = node;
+        }
+
+        CollectResult result = new CollectResult( request );
+        result.setRoot( root );
+
+        DependencyGraphTransformer transformer = session.getDependencyGraphTransformer();
+        if ( transformer != null )
+        {
+            try
+            {
+                result.setRoot( transformer.transformGraph( root, new TransformationContext( session ) ) );
+            }
+            catch ( RepositoryException e )
+            {
+                result.addException( e );
+            }
+        }
+
+        if ( !result.getExceptions().isEmpty() )
+        {
+            throw new DependencyCollectionException( result );
+        }
+
+        return result;
+    }
+
+    private DependencyNode getSubgraph( RepositorySystem repoSystem, RepositorySystemSession rawSession, Key key,
+                                        CollectRequest request )
+    {
+        DependencyNode subgraph = subgraphs.get( key );
+        if ( subgraph == null )
+        {
+            CollectResult result;
+            try
+            {
+                result = repoSystem.collectDependencies( rawSession, request );
+            }
+            catch ( DependencyCollectionException e )
+            {
+                return null;
+            }
+            if ( !result.getExceptions().isEmpty() )
+            {
+                return null;
+            }
+            subgraph = result.getRoot();
+            DependencyNode existing = subgraphs.putIfAbsent( key, subgraph );
+            if ( existing != null )
+            {
+                subgraph = existing;
+            }
+        }
+        return subgraph;
+    }
+
+    /**
+     * Deep copies the specified raw graph, preserving shared nodes and cycles. Returns {@code null} if the graph
+     * contains a node matching the given root artifact the same way the collector detects cycles.
+     */
+    private static DependencyNode copy( DependencyNode node, Artifact rootArtifact,
+                                        Map<DependencyNode, DependencyNode> copies )
+    {
+        DependencyNode copy = copies.get( node );
+        if ( copy != null )
+        {
+            return copy;
+        }
+
+        if ( rootArtifact != null && node.getDependency() != null && matches( node.getArtifact(), rootArtifact ) )
+        {
+            return null;
+        }
+
+        copy = new DefaultDependencyNode( node );
+        copies.put( node, copy );
+
+        List<DependencyNode> children = new ArrayList<>( node.getChildren().size() );
+        for ( DependencyNode child : node.getChildren() )
+        {
+            DependencyNode childCopy = copy( child, rootArtifact, copies );
+            if ( childCopy == null )
+            {
+                return null;
+            }
+            children.add( childCopy );
+        }
+        copy.setChildren( children );
+
+        return copy;
+    }
+
+    private static boolean matches( Artifact artifact, Artifact rootArtifact )
+    {
+        return artifact.getArtifactId().equals( rootArtifact.getArtifactId() )
+            && artifact.getGroupId().equals( rootArtifact.getGroupId() )
+            && artifact.getExtension().equals( rootArtifact.getExtension() )
+            && artifact.getClassifier().equals( rootArtifact.getClassifier() );
+    }
+
+    /**
+     * The session settings that influence the raw dependency graph.
+     */
+    static final class SessionKey
+    {
+
+        private final Object[] settings;
+
+        private final int hashCode;
+
+        SessionKey( RepositorySystemSession session )
+        {
+            settings = new Object[] { session.getDependencySelector(), session.getDependencyManager(),
+                session.getDependencyTraverser(), session.getVersionFilter(),
+                session.isIgnoreArtifactDescriptorRepositories(),
+                ConfigUtils.getBoolean( session, false, DependencyManagerUtils.CONFIG_PROP_VERBOSE ) };
+            hashCode = Arrays.hashCode( settings );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof SessionKey ) )
+            {
+                return false;
+            }
+            SessionKey that = (SessionKey) obj;
+            return hashCode == that.hashCode && Arrays.equals( settings, that.settings );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    /**
+     * The managed dependencies of a request, hashed once since modules typically share a long list.
+     */
+    static final class ManagedKey
+    {
+
+        private final List<Dependency> dependencies;
+
+        private final int hashCode;
+
+        ManagedKey( List<Dependency> dependencies )
+        {
+            this.dependencies = dependencies;
+            hashCode = dependencies.hashCode();
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof ManagedKey ) )
+            {
+                return false;
+            }
+            ManagedKey that = (ManagedKey) obj;
+            return hashCode == that.hashCode
+                && ( dependencies == that.dependencies || dependencies.equals( that.dependencies ) );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    static final class Key
+    {
+
+        private final Dependency root;
+
+        private final List<Dependency> dependencies;
+
+        private final ManagedKey managed;
+
+        private final List<RemoteRepository> repositories;
+
+        private final String context;
+
+        private final SessionKey session;
+
+        private final int hashCode;
+
+        Key( Dependency root, List<Dependency> dependencies, ManagedKey managed, List<RemoteRepository> repositories,
+             String context, SessionKey session )
+        {
+            this.root = root;
+            this.dependencies = dependencies;
+            this.managed = managed;
+            this.repositories = repositories;
+            this.context = context;
+            this.session = session;
+            hashCode = Arrays.hashCode( new Object[] { root, dependencies, managed, repositories, context, session } );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            Key that = (Key) obj;
+            return hashCode == that.hashCode && eq( root, that.root ) && dependencies.equals( that.dependencies )
+                && managed.equals( that.managed ) && repositories.equals( that.repositories )
+                && eq( context, that.context ) && session.equals( that.session );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        private static boolean eq( Object s1, Object s2 )
+        {
+            return s1 != null ? s1.equals( s2 ) : s2 == null;
+        }
+
+    }
+
+    static final class TransformationContext
+        implements DependencyGraphTransformationContext
+    {
+
+        private final RepositorySystemSession session;
+
+        private final Map<Object, Object> map = new HashMap<>();
+
+        TransformationContext( RepositorySystemSession session )
+        {
+            this.session = session;
+        }
+
+        public RepositorySystemSession getSession()
+        {
+            return session;
+        }
+
+        public Object get( Object key )
+        {
+            return map.get( key );
+        }
+
+        public Object put( Object key, Object value )
+        {
+            return map.put( key, value );
+        }
+
+    }
+
+}
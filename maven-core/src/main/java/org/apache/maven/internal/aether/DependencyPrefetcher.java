@@ -0,0 +1,322 @@
+package org.apache.maven.internal.aether;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.internal.PluginDependenciesResolver;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectCollectRequestFactory;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.StringUtils;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.util.ConfigUtils;
+import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads the external dependencies and build plugins of all reactor projects into the local repository in the
+ * background, so that the lazy resolution performed by the mojo executions mostly finds the artifacts locally. The
+ * prefetch is best effort: failures are only logged at debug level and get reported by the regular resolution.
+ *
+ * @since 3.6.0
+ */
+@Named
+@Singleton
+public class DependencyPrefetcher
+{
+
+    /**
+     * The number of threads used to prefetch the reactor dependencies, defaults to {@code 0} which disables the
+     * prefetch.
+     */
+    public static final String CONFIG_PROP_THREADS = "maven.prefetch.threads";
+
+    private final Logger logger;
+
+    private final RepositorySystem repoSystem;
+
+    private final PluginDependenciesResolver pluginDependenciesResolver;
+
+    private final ProjectCollectRequestFactory collectRequestFactory;
+
+    @Inject
+    public DependencyPrefetcher( Logger logger, RepositorySystem repoSystem,
+                                 PluginDependenciesResolver pluginDependenciesResolver,
+                                 ProjectCollectRequestFactory collectRequestFactory )
+    {
+        this.logger = logger;
+        this.repoSystem = repoSystem;
+        this.pluginDependenciesResolver = pluginDependenciesResolver;
+        this.collectRequestFactory = collectRequestFactory;
+    }
+
+    /**
+     * Starts prefetching the dependencies of the projects of the specified session. The returned handle must be
+     * cancelled once the session ends.
+     *
+     * @param session The session whose projects should be prefetched, must not be {@code null}.
+     * @return The handle of the running prefetch, never {@code null}.
+     */
+    public Prefetch start( MavenSession session )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+
+        int threads = ConfigUtils.getInteger( repoSession, 0, CONFIG_PROP_THREADS );
+        if ( threads <= 0 || session.getProjects().isEmpty() )
+        {
+            return new Prefetch( null );
+        }
+
+        Set<String> reactorIds = new HashSet<>();
+        for ( MavenProject project : session.getAllProjects() )
+        {
+            reactorIds.add( project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersion() );
+        }
+
+        List<Runnable> tasks = new ArrayList<>();
+        Set<String> artifactIds = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+        Set<String> pluginIds = new HashSet<>();
+        for ( MavenProject project : session.getProjects() )
+        {
+            // same session and request as the resolution of the project, so both consult the same repositories
+            RepositorySystemSession projectSession = collectRequestFactory.decorate( project, repoSession );
+            tasks.add( new DependenciesTask( projectSession,
+                                             collectRequestFactory.newCollectRequest( project, projectSession ),
+                                             reactorIds, artifactIds ) );
+        }
+        for ( MavenProject project : session.getProjects() )
+        {
+            for ( Plugin plugin : project.getBuildPlugins() )
+            {
+                if ( StringUtils.isNotEmpty( plugin.getVersion() ) && !reactorIds.contains( plugin.getId() )
+                    && pluginIds.add( plugin.getId() ) )
+                {
+                    tasks.add( new PluginTask( repoSession, plugin.clone(), project.getRemotePluginRepositories() ) );
+                }
+            }
+        }
+
+        logger.debug( "Prefetching dependencies of " + session.getProjects().size() + " projects using " + threads
+            + " threads" );
+
+        ExecutorService executor =
+            Executors.newFixedThreadPool( Math.min( threads, tasks.size() ), new PrefetchThreadFactory() );
+        for ( Runnable task : tasks )
+        {
+            executor.execute( task );
+        }
+        executor.shutdown();
+
+        return new Prefetch( executor );
+    }
+
+    /**
+     * The handle of a running prefetch.
+     */
+    public static class Prefetch
+    {
+
+        private final ExecutorService executor;
+
+        Prefetch( ExecutorService executor )
+        {
+            this.executor = executor;
+        }
+
+        /**
+         * Stops the prefetch, pending downloads are abandoned.
+         */
+        public void cancel()
+        {
+            if ( executor != null )
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * Waits for the prefetch to finish or to stop after a cancellation.
+         *
+         * @return {@code true} if the prefetch is no longer running, {@code false} if the timeout elapsed.
+         */
+        boolean awaitTermination( long timeout, TimeUnit unit )
+            throws InterruptedException
+        {
+            return executor == null || executor.awaitTermination( timeout, unit );
+        }
+
+    }
+
+    class DependenciesTask
+        implements Runnable
+    {
+
+        private final RepositorySystemSession session;
+
+        private final CollectRequest collect;
+
+        private final Set<String> reactorIds;
+
+        private final Set<String> artifactIds;
+
+        DependenciesTask( RepositorySystemSession session, CollectRequest collect, Set<String> reactorIds,
+                          Set<String> artifactIds )
+        {
+            this.session = session;
+            this.collect = collect;
+            this.reactorIds = reactorIds;
+            this.artifactIds = artifactIds;
+        }
+
+        public void run()
+        {
+            DependencyNode root;
+            try
+            {
+                root = DependencyCollectionCache.collectDependencies( repoSystem, session, collect ).getRoot();
+            }
+            catch ( DependencyCollectionException e )
+            {
+                logger.debug( "Could not prefetch dependencies of " + collect.getRootArtifact() + ": "
+                    + e.getMessage() );
+                root = e.getResult().getRoot();
+            }
+            if ( root == null )
+            {
+                return;
+            }
+
+            final List<ArtifactRequest> requests = new ArrayList<>();
+            root.accept( new TreeDependencyVisitor( new DependencyVisitor()
+            {
+                public boolean visitEnter( DependencyNode node )
+                {
+                    if ( node.getDependency() != null )
+                    {
+                        Artifact artifact = node.getArtifact();
+                        if ( !reactorIds.contains( artifact.getGroupId() + ':' + artifact.getArtifactId() + ':'
+                            + artifact.getBaseVersion() ) && artifactIds.add( artifact.toString() ) )
+                        {
+                            requests.add( new ArtifactRequest( node ) );
+                        }
+                    }
+                    return true;
+                }
+
+                public boolean visitLeave( DependencyNode node )
+                {
+                    return true;
+                }
+            } ) );
+
+            try
+            {
+                repoSystem.resolveArtifacts( session, requests );
+            }
+            catch ( ArtifactResolutionException e )
+            {
+                logger.debug( "Could not prefetch dependencies of " + collect.getRootArtifact() + ": "
+                    + e.getMessage() );
+            }
+            catch ( RuntimeException e )
+            {
+                logger.debug( "Could not prefetch dependencies of " + collect.getRootArtifact(), e );
+            }
+        }
+
+    }
+
+    class PluginTask
+        implements Runnable
+    {
+
+        private final RepositorySystemSession session;
+
+        private final Plugin plugin;
+
+        private final List<RemoteRepository> repositories;
+
+        PluginTask( RepositorySystemSession session, Plugin plugin, List<RemoteRepository> repositories )
+        {
+            this.session = session;
+            this.plugin = plugin;
+            this.repositories = repositories;
+        }
+
+        public void run()
+        {
+            try
+            {
+                Artifact pluginArtifact = pluginDependenciesResolver.resolve( plugin, repositories, session );
+                pluginDependenciesResolver.resolve( plugin, pluginArtifact, null, repositories, session );
+            }
+            catch ( PluginResolutionException e )
+            {
+                logger.debug( "Could not prefetch plugin " + plugin.getId() + ": " + e.getMessage() );
+            }
+            catch ( RuntimeException e )
+            {
+                logger.debug( "Could not prefetch plugin " + plugin.getId(), e );
+            }
+        }
+
+    }
+
+    static class PrefetchThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "Prefetch " + id.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+}
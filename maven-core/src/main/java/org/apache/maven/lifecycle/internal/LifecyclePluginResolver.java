@@ -19,7 +19,9 @@
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.execution.MavenSession;
@@ -29,6 +31,8 @@
 import org.apache.maven.plugin.version.PluginVersionRequest;
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugin.version.PluginVersionResolver;
+import org.apache.maven.plugin.version.PluginVersionResult;
+import org.apache.maven.plugin.version.internal.BatchPluginVersionResolver;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
@@ -59,20 +63,25 @@ public void resolveMissingPluginVersions( MavenProject project, MavenSession ses
     {
         Map<String, String> versions = new HashMap<>( 64 );
 
+        List<Plugin> plugins = new ArrayList<>();
         for ( Plugin plugin : project.getBuildPlugins() )
         {
             if ( plugin.getVersion() == null )
             {
-                PluginVersionRequest request = new DefaultPluginVersionRequest( plugin, session.getRepositorySession(),
-                                                                                project.getRemotePluginRepositories() );
-                plugin.setVersion( pluginVersionResolver.resolve( request ).getVersion() );
+                plugins.add( plugin );
             }
+        }
+        resolveVersions( plugins, project, session );
+
+        for ( Plugin plugin : project.getBuildPlugins() )
+        {
             versions.put( plugin.getKey(), plugin.getVersion() );
         }
 
         PluginManagement pluginManagement = project.getPluginManagement();
         if ( pluginManagement != null )
         {
+            plugins.clear();
             for ( Plugin plugin : pluginManagement.getPlugins() )
             {
                 if ( plugin.getVersion() == null )
@@ -80,13 +89,44 @@ public void resolveMissingPluginVersions( MavenProject project, MavenSession ses
                     plugin.setVersion( versions.get( plugin.getKey() ) );
                     if ( plugin.getVersion() == null )
                     {
-                        PluginVersionRequest request =
-                            new DefaultPluginVersionRequest( plugin, session.getRepositorySession(),
-                                                             project.getRemotePluginRepositories() );
-                        plugin.setVersion( pluginVersionResolver.resolve( request ).getVersion() );
+                        plugins.add( plugin );
                     }
                 }
             }
+            resolveVersions( plugins, project, session );
+        }
+    }
+
+    private void resolveVersions( List<Plugin> plugins, MavenProject project, MavenSession session )
+        throws PluginVersionResolutionException
+    {
+        if ( plugins.isEmpty() )
+        {
+            return;
+        }
+
+        List<PluginVersionRequest> requests = new ArrayList<>( plugins.size() );
+        for ( Plugin plugin : plugins )
+        {
+            requests.add( new DefaultPluginVersionRequest( plugin, session.getRepositorySession(),
+                                                           project.getRemotePluginRepositories() ) );
+        }
+
+        if ( pluginVersionResolver instanceof BatchPluginVersionResolver )
+        {
+            List<PluginVersionResult> results =
+                ( (BatchPluginVersionResolver) pluginVersionResolver ).resolve( requests );
+            for ( int i = 0; i < plugins.size(); i++ )
+            {
+                plugins.get( i ).setVersion( results.get( i ).getVersion() );
+            }
+        }
+        else
+        {
+            for ( int i = 0; i < plugins.size(); i++ )
+            {
+                plugins.get( i ).setVersion( pluginVersionResolver.resolve( requests.get( i ) ).getVersion() );
+            }
         }
     }
 }
\ No newline at end of file
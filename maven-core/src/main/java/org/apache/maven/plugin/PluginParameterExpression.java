@@ -0,0 +1,333 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A parsed plugin parameter expression as understood by {@link PluginParameterExpressionEvaluator}. Parsing only
+ * depends on the expression string so parsed expressions are immutable and shared by all evaluators.
+ *
+ * @since 3.6.0
+ */
+final class PluginParameterExpression
+{
+
+    /**
+     * The kinds of expressions.
+     */
+    enum Kind
+    {
+        /** Plain text without any expression, {@code $$} already unescaped. */
+        LITERAL,
+
+        /** A single {@code ${...}} expression spanning the entire string. */
+        REFERENCE,
+
+        /** Text with embedded expressions, split at the first expression. */
+        TEMPLATE
+    }
+
+    /**
+     * The well-known roots a reference can be bound to, in the order they are matched.
+     */
+    enum Root
+    {
+        LOCAL_REPOSITORY, SESSION, SESSION_PATH, REACTOR_PROJECTS, MOJO_EXECUTION, PROJECT, EXECUTED_PROJECT,
+        PROJECT_PATH, REPOSITORY_SYSTEM_SESSION, MOJO, MOJO_PATH, PLUGIN, PLUGIN_PATH, SETTINGS, SETTINGS_PATH,
+        BASEDIR, BASEDIR_PATH, PROPERTY
+    }
+
+    private static final int MAX_CACHED_EXPRESSIONS = 8192;
+
+    private static final Map<String, PluginParameterExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final Kind kind;
+
+    private final String text;
+
+    private final Root root;
+
+    private final String path;
+
+    private final String pathSuffix;
+
+    private final String prefix;
+
+    private final boolean escaped;
+
+    private final String token;
+
+    private final PluginParameterExpression reference;
+
+    private final PluginParameterExpression tail;
+
+    private PluginParameterExpression( String literal )
+    {
+        this( Kind.LITERAL, literal, null, null, null, null, false, null, null, null );
+    }
+
+    private PluginParameterExpression( String expression, Root root, String path, String pathSuffix )
+    {
+        this( Kind.REFERENCE, expression, root, path, pathSuffix, null, false, null, null, null );
+    }
+
+    private PluginParameterExpression( String prefix, boolean escaped, String token,
+                                       PluginParameterExpression reference, PluginParameterExpression tail )
+    {
+        this( Kind.TEMPLATE, null, null, null, null, prefix, escaped, token, reference, tail );
+    }
+
+    @SuppressWarnings( "checkstyle:parameternumber" )
+    private PluginParameterExpression( Kind kind, String text, Root root, String path, String pathSuffix,
+                                       String prefix, boolean escaped, String token,
+                                       PluginParameterExpression reference, PluginParameterExpression tail )
+    {
+        this.kind = kind;
+        this.text = text;
+        this.root = root;
+        this.path = path;
+        this.pathSuffix = pathSuffix;
+        this.prefix = prefix;
+        this.escaped = escaped;
+        this.token = token;
+        this.reference = reference;
+        this.tail = tail;
+    }
+
+    /**
+     * Parses the specified expression string, reusing a previously parsed instance if possible.
+     *
+     * @param expr The expression string to parse, must not be {@code null}.
+     * @return The parsed expression, never {@code null}.
+     */
+    static PluginParameterExpression parse( String expr )
+    {
+        if ( !expr.contains( "${" ) )
+        {
+            // cheap enough to not pollute the cache with all the plain configuration values
+            return literal( expr );
+        }
+
+        PluginParameterExpression parsed = CACHE.get( expr );
+        if ( parsed == null )
+        {
+            parsed = doParse( expr );
+            if ( CACHE.size() < MAX_CACHED_EXPRESSIONS )
+            {
+                CACHE.put( expr, parsed );
+            }
+        }
+        return parsed;
+    }
+
+    private static PluginParameterExpression literal( String text )
+    {
+        return new PluginParameterExpression( text.contains( "$$" ) ? text.replace( "$$", "$" ) : text );
+    }
+
+    private static PluginParameterExpression doParse( String expr )
+    {
+        if ( expr.startsWith( "${" ) && ( expr.indexOf( '}' ) == expr.length() - 1 ) )
+        {
+            return reference( expr.substring( 2, expr.length() - 1 ) );
+        }
+
+        int index = expr.indexOf( "${" );
+        if ( index >= 0 )
+        {
+            int lastIndex = expr.indexOf( '}', index );
+            if ( lastIndex >= 0 )
+            {
+                String token = expr.substring( index, lastIndex + 1 );
+                boolean escaped = ( index > 0 ) && ( expr.charAt( index - 1 ) == '$' );
+
+                return new PluginParameterExpression( expr.substring( 0, index ), escaped, token,
+                                                      escaped ? null : parse( token ),
+                                                      parse( expr.substring( lastIndex + 1 ) ) );
+            }
+        }
+
+        // Was not an expression
+        return literal( expr );
+    }
+
+    private static PluginParameterExpression reference( String expression )
+    {
+        if ( "localRepository".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.LOCAL_REPOSITORY, null, null );
+        }
+        else if ( "session".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.SESSION, null, null );
+        }
+        else if ( expression.startsWith( "session" ) )
+        {
+            return path( expression, Root.SESSION_PATH, 1 );
+        }
+        else if ( "reactorProjects".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.REACTOR_PROJECTS, null, null );
+        }
+        else if ( "mojoExecution".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.MOJO_EXECUTION, null, null );
+        }
+        else if ( "project".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.PROJECT, null, null );
+        }
+        else if ( "executedProject".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.EXECUTED_PROJECT, null, null );
+        }
+        else if ( expression.startsWith( "project" ) || expression.startsWith( "pom" ) )
+        {
+            // unlike the other roots, the project keeps the root segment when followed by a path
+            return path( expression, Root.PROJECT_PATH, 0 );
+        }
+        else if ( expression.equals( "repositorySystemSession" ) )
+        {
+            return new PluginParameterExpression( expression, Root.REPOSITORY_SYSTEM_SESSION, null, null );
+        }
+        else if ( expression.equals( "mojo" ) )
+        {
+            return new PluginParameterExpression( expression, Root.MOJO, null, null );
+        }
+        else if ( expression.startsWith( "mojo" ) )
+        {
+            return path( expression, Root.MOJO_PATH, 1 );
+        }
+        else if ( expression.equals( "plugin" ) )
+        {
+            return new PluginParameterExpression( expression, Root.PLUGIN, null, null );
+        }
+        else if ( expression.startsWith( "plugin" ) )
+        {
+            return path( expression, Root.PLUGIN_PATH, 1 );
+        }
+        else if ( "settings".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.SETTINGS, null, null );
+        }
+        else if ( expression.startsWith( "settings" ) )
+        {
+            return path( expression, Root.SETTINGS_PATH, 1 );
+        }
+        else if ( "basedir".equals( expression ) )
+        {
+            return new PluginParameterExpression( expression, Root.BASEDIR, null, null );
+        }
+        else if ( expression.startsWith( "basedir" ) )
+        {
+            return path( expression, Root.BASEDIR_PATH, 1 );
+        }
+        return new PluginParameterExpression( expression, Root.PROPERTY, null, null );
+    }
+
+    private static PluginParameterExpression path( String expression, Root root, int pathStart )
+    {
+        int pathSeparator = expression.indexOf( '/' );
+
+        if ( pathSeparator > 0 )
+        {
+            return new PluginParameterExpression( expression, root, expression.substring( pathStart, pathSeparator ),
+                                                  expression.substring( pathSeparator ) );
+        }
+        return new PluginParameterExpression( expression, root, expression.substring( 1 ), null );
+    }
+
+    Kind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * @return The literal text or the (stripped) expression of a reference.
+     */
+    String getText()
+    {
+        return text;
+    }
+
+    Root getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * @return The property path to extract from the root of a reference.
+     */
+    String getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return The file path following the property path of a reference, starting with {@code /}, may be {@code null}.
+     */
+    String getPathSuffix()
+    {
+        return pathSuffix;
+    }
+
+    /**
+     * @return The text in front of the first expression of a template.
+     */
+    String getPrefix()
+    {
+        return prefix;
+    }
+
+    /**
+     * @return {@code true} if the first expression of a template is escaped by a preceding {@code $}.
+     */
+    boolean isEscaped()
+    {
+        return escaped;
+    }
+
+    /**
+     * @return The first {@code ${...}} token of a template.
+     */
+    String getToken()
+    {
+        return token;
+    }
+
+    /**
+     * @return The parsed first token of a template, {@code null} if the token is escaped.
+     */
+    PluginParameterExpression getReference()
+    {
+        return reference;
+    }
+
+    /**
+     * @return The parsed remainder of a template following its first token.
+     */
+    PluginParameterExpression getTail()
+    {
+        return tail;
+    }
+
+}
@@ -24,7 +24,6 @@
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
-import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.path.PathTranslator;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
@@ -144,237 +143,125 @@ public Object evaluate( String expr )
     }
 
     @Override
-    @SuppressWarnings( "checkstyle:methodlength" )
     public Object evaluate( String expr, Class<?> type )
         throws ExpressionEvaluationException
     {
-        Object value = null;
-
         if ( expr == null )
         {
             return null;
         }
 
-        String expression = stripTokens( expr );
-        if ( expression.equals( expr ) )
-        {
-            int index = expr.indexOf( "${" );
-            if ( index >= 0 )
-            {
-                int lastIndex = expr.indexOf( '}', index );
-                if ( lastIndex >= 0 )
-                {
-                    String retVal = expr.substring( 0, index );
-
-                    if ( ( index > 0 ) && ( expr.charAt( index - 1 ) == '$' ) )
-                    {
-                        retVal += expr.substring( index + 1, lastIndex + 1 );
-                    }
-                    else
-                    {
-                        Object subResult = evaluate( expr.substring( index, lastIndex + 1 ) );
-
-                        if ( subResult != null )
-                        {
-                            retVal += subResult;
-                        }
-                        else
-                        {
-                            retVal += "$" + expr.substring( index + 1, lastIndex + 1 );
-                        }
-                    }
-
-                    retVal += evaluate( expr.substring( lastIndex + 1 ) );
-                    return retVal;
-                }
-            }
+        return evaluate( PluginParameterExpression.parse( expr ), type );
+    }
 
-            // Was not an expression
-            if ( expression.contains( "$$" ) )
-            {
-                return expression.replaceAll( "\\$\\$", "\\$" );
-            }
-            else
-            {
-                return expression;
-            }
+    private Object evaluate( PluginParameterExpression expr, Class<?> type )
+        throws ExpressionEvaluationException
+    {
+        switch ( expr.getKind() )
+        {
+            case REFERENCE:
+                return evaluateReference( expr, type );
+            case TEMPLATE:
+                return evaluateTemplate( expr );
+            default:
+                return expr.getText();
         }
+    }
 
-        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+    private String evaluateTemplate( PluginParameterExpression expr )
+        throws ExpressionEvaluationException
+    {
+        StringBuilder retVal = new StringBuilder( 64 );
 
-        if ( "localRepository".equals( expression ) )
-        {
-            value = session.getLocalRepository();
-        }
-        else if ( "session".equals( expression ) )
-        {
-            value = session;
-        }
-        else if ( expression.startsWith( "session" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
+        retVal.append( expr.getPrefix() );
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, session );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), session );
-                }
-            }
-            catch ( Exception e )
-            {
-                // TODO don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "reactorProjects".equals( expression ) )
-        {
-            value = session.getProjects();
-        }
-        else if ( "mojoExecution".equals( expression ) )
+        if ( expr.isEscaped() )
         {
-            value = mojoExecution;
+            retVal.append( expr.getToken(), 1, expr.getToken().length() );
         }
-        else if ( "project".equals( expression ) )
+        else
         {
-            value = project;
-        }
-        else if ( "executedProject".equals( expression ) )
-        {
-            value = project.getExecutionProject();
-        }
-        else if ( expression.startsWith( "project" ) || expression.startsWith( "pom" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
+            Object subResult = evaluate( expr.getReference(), null );
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 0, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, project );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), project );
-                }
-            }
-            catch ( Exception e )
-            {
-                // TODO don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( expression.equals( "repositorySystemSession" ) )
-        {
-            value = session.getRepositorySession();
-        }
-        else if ( expression.equals( "mojo" ) )
-        {
-            value = mojoExecution;
-        }
-        else if ( expression.startsWith( "mojo" ) )
-        {
-            try
+            if ( subResult != null )
             {
-                int pathSeparator = expression.indexOf( '/' );
-
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, mojoExecution );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), mojoExecution );
-                }
+                retVal.append( subResult );
             }
-            catch ( Exception e )
+            else
             {
-                // TODO don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
+                retVal.append( expr.getToken() );
             }
         }
-        else if ( expression.equals( "plugin" ) )
-        {
-            value = mojoDescriptor.getPluginDescriptor();
-        }
-        else if ( expression.startsWith( "plugin" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
 
-                PluginDescriptor pluginDescriptor = mojoDescriptor.getPluginDescriptor();
+        retVal.append( evaluate( expr.getTail(), null ) );
+        return retVal.toString();
+    }
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, pluginDescriptor );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), pluginDescriptor );
-                }
-            }
-            catch ( Exception e )
-            {
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "settings".equals( expression ) )
-        {
-            value = session.getSettings();
-        }
-        else if ( expression.startsWith( "settings" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
+    private Object evaluateReference( PluginParameterExpression expr, Class<?> type )
+        throws ExpressionEvaluationException
+    {
+        Object value = null;
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, session.getSettings() );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
+        String expression = expr.getText();
+
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+
+        switch ( expr.getRoot() )
+        {
+            case LOCAL_REPOSITORY:
+                value = session.getLocalRepository();
+                break;
+            case SESSION:
+                value = session;
+                break;
+            case SESSION_PATH:
+                value = extract( expr, session );
+                break;
+            case REACTOR_PROJECTS:
+                value = session.getProjects();
+                break;
+            case MOJO_EXECUTION:
+            case MOJO:
+                value = mojoExecution;
+                break;
+            case PROJECT:
+                value = project;
+                break;
+            case EXECUTED_PROJECT:
+                value = project.getExecutionProject();
+                break;
+            case PROJECT_PATH:
+                value = extract( expr, project );
+                break;
+            case REPOSITORY_SYSTEM_SESSION:
+                value = session.getRepositorySession();
+                break;
+            case MOJO_PATH:
+                value = extract( expr, mojoExecution );
+                break;
+            case PLUGIN:
+                value = mojoDescriptor.getPluginDescriptor();
+                break;
+            case PLUGIN_PATH:
+                value = extract( expr, mojoDescriptor.getPluginDescriptor() );
+                break;
+            case SETTINGS:
+                value = session.getSettings();
+                break;
+            case SETTINGS_PATH:
+                value = extract( expr, session.getSettings() );
+                break;
+            case BASEDIR:
+                value = basedir;
+                break;
+            case BASEDIR_PATH:
+                if ( expr.getPathSuffix() != null )
                 {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), session.getSettings() );
+                    value = basedir + expr.getPathSuffix();
                 }
-            }
-            catch ( Exception e )
-            {
-                // TODO don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "basedir".equals( expression ) )
-        {
-            value = basedir;
-        }
-        else if ( expression.startsWith( "basedir" ) )
-        {
-            int pathSeparator = expression.indexOf( '/' );
-
-            if ( pathSeparator > 0 )
-            {
-                value = basedir + expression.substring( pathSeparator );
-            }
+                break;
+            default:
+                break;
         }
 
         /*
@@ -435,6 +322,28 @@ else if ( expression.startsWith( "basedir" ) )
         return value;
     }
 
+    private static Object extract( PluginParameterExpression expr, Object root )
+        throws ExpressionEvaluationException
+    {
+        try
+        {
+            Object value = ReflectionValueExtractor.evaluate( expr.getPath(), root );
+
+            if ( expr.getPathSuffix() != null )
+            {
+                value = value + expr.getPathSuffix();
+            }
+
+            return value;
+        }
+        catch ( Exception e )
+        {
+            // TODO don't catch exception
+            throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: "
+                + expr.getText(), e );
+        }
+    }
+
     private static boolean isTypeCompatible( Class<?> type, Object value )
     {
         if ( type.isInstance( value ) )
@@ -446,15 +355,6 @@ private static boolean isTypeCompatible( Class<?> type, Object value )
                         && value.getClass().getName().startsWith( "java.lang." ) );
     }
 
-    private String stripTokens( String expr )
-    {
-        if ( expr.startsWith( "${" ) && ( expr.indexOf( '}' ) == expr.length() - 1 ) )
-        {
-            expr = expr.substring( 2, expr.length() - 1 );
-        }
-        return expr;
-    }
-
     @Override
     public File alignToBaseDirectory( File file )
     {
@@ -624,17 +624,25 @@ private void populatePluginFields( Object mojo, MojoDescriptor mojoDescriptor, C
             // so that this method could entirely be handled by a plexus lookup?
             configurator = container.lookup( ComponentConfigurator.class, configuratorId );
 
-            ConfigurationListener listener = new DebugConfigurationListener( logger );
+            boolean debug = logger.isDebugEnabled();
+
+            ConfigurationListener listener = debug ? new DebugConfigurationListener( logger ) : null;
 
             ValidatingConfigurationListener validator =
                 new ValidatingConfigurationListener( mojo, mojoDescriptor, listener );
 
-            logger.debug(
-                "Configuring mojo '" + mojoDescriptor.getId() + "' with " + configuratorId + " configurator -->" );
+            if ( debug )
+            {
+                logger.debug( "Configuring mojo '" + mojoDescriptor.getId() + "' with " + configuratorId
+                    + " configurator -->" );
+            }
 
             configurator.configureComponent( mojo, configuration, expressionEvaluator, pluginRealm, validator );
 
-            logger.debug( "-- end configuration --" );
+            if ( debug )
+            {
+                logger.debug( "-- end configuration --" );
+            }
 
             Collection<Parameter> missingParameters = validator.getMissingParameters();
             if ( !missingParameters.isEmpty() )
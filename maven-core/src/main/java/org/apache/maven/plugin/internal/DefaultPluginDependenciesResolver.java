@@ -24,6 +24,7 @@
 import java.util.Map;
 
 import org.apache.maven.RepositoryUtils;
+import org.apache.maven.internal.aether.DependencyCollectionCache;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.PluginResolutionException;
@@ -199,7 +200,7 @@ private DependencyNode resolveInternal( Plugin plugin, Artifact pluginArtifact,
 
             request.setTrace( RequestTrace.newChild( trace, depRequest ) );
 
-            node = repoSystem.collectDependencies( pluginSession, request ).getRoot();
+            node = DependencyCollectionCache.collectDependencies( repoSystem, pluginSession, request ).getRoot();
 
             if ( logger.isDebugEnabled() )
             {
@@ -68,7 +68,10 @@ public Collection<Parameter> getMissingParameters()
 
     public void notifyFieldChangeUsingSetter( String fieldName, Object value, Object target )
     {
-        delegate.notifyFieldChangeUsingSetter( fieldName, value, target );
+        if ( delegate != null )
+        {
+            delegate.notifyFieldChangeUsingSetter( fieldName, value, target );
+        }
 
         if ( mojo == target )
         {
@@ -78,7 +81,10 @@ public void notifyFieldChangeUsingSetter( String fieldName, Object value, Object
 
     public void notifyFieldChangeUsingReflection( String fieldName, Object value, Object target )
     {
-        delegate.notifyFieldChangeUsingReflection( fieldName, value, target );
+        if ( delegate != null )
+        {
+            delegate.notifyFieldChangeUsingReflection( fieldName, value, target );
+        }
 
         if ( mojo == target )
         {
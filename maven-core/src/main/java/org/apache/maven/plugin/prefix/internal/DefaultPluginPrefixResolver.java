@@ -22,11 +22,11 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
-import org.apache.maven.artifact.repository.metadata.io.MetadataReader;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.BuildPluginManager;
@@ -35,12 +35,14 @@
 import org.apache.maven.plugin.prefix.PluginPrefixRequest;
 import org.apache.maven.plugin.prefix.PluginPrefixResolver;
 import org.apache.maven.plugin.prefix.PluginPrefixResult;
+import org.apache.maven.repository.internal.MetadataParsingCache;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
 import org.eclipse.aether.RepositoryEvent.EventType;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
@@ -74,9 +76,6 @@
     @Requirement
     private RepositorySystem repositorySystem;
 
-    @Requirement
-    private MetadataReader metadataReader;
-
     public PluginPrefixResult resolve( PluginPrefixRequest request )
         throws NoPluginFoundForPrefixException
     {
@@ -162,54 +161,85 @@ private PluginPrefixResult resolveFromProject( PluginPrefixRequest request, List
 
     private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request )
     {
-        RequestTrace trace = RequestTrace.newChild( null, request );
+        PrefixIndex index = getPrefixIndex( request );
 
-        List<MetadataRequest> requests = new ArrayList<>();
+        PluginPrefixResult result = index.get( request.getPrefix() );
 
-        for ( String pluginGroup : request.getPluginGroups() )
+        if ( result == null )
         {
-            org.eclipse.aether.metadata.Metadata metadata =
-                new DefaultMetadata( pluginGroup, "maven-metadata.xml", DefaultMetadata.Nature.RELEASE_OR_SNAPSHOT );
+            // second try, refetch all (possibly outdated) metadata that wasn't updated in the first attempt
+            result = index.getRefreshed( request );
+        }
+
+        return result;
+    }
 
-            requests.add( new MetadataRequest( metadata, null, REPOSITORY_CONTEXT ).setTrace( trace ) );
+    /**
+     * Gets the index of all plugin prefixes declared by the plugin groups and repositories of the request. The index
+     * is built in one pass over the locally cached metadata and shared through the session's repository cache, so
+     * that subsequent lookups (e.g. for the other prefixed goals on the command line) need no further metadata
+     * resolution.
+     */
+    private PrefixIndex getPrefixIndex( PluginPrefixRequest request )
+    {
+        RepositorySystemSession session = request.getRepositorySession();
+        RepositoryCache cache = session.getCache();
 
-            for ( RemoteRepository repository : request.getRepositories() )
+        PrefixIndexKey key = new PrefixIndexKey( request );
+        PrefixIndex index = null;
+        if ( cache != null )
+        {
+            Object cached = cache.get( session, key );
+            if ( cached instanceof PrefixIndex )
             {
-                requests.add( new MetadataRequest( metadata, repository, REPOSITORY_CONTEXT ).setTrace( trace ) );
+                index = (PrefixIndex) cached;
             }
         }
 
-        // initial try, use locally cached metadata
+        if ( index == null )
+        {
+            RequestTrace trace = RequestTrace.newChild( null, request );
+
+            List<MetadataRequest> requests = new ArrayList<>();
 
-        List<MetadataResult> results = repositorySystem.resolveMetadata( request.getRepositorySession(), requests );
-        requests.clear();
+            for ( String pluginGroup : request.getPluginGroups() )
+            {
+                org.eclipse.aether.metadata.Metadata metadata =
+                    new DefaultMetadata( pluginGroup, "maven-metadata.xml",
+                                         DefaultMetadata.Nature.RELEASE_OR_SNAPSHOT );
 
-        PluginPrefixResult result = processResults( request, trace, results, requests );
+                requests.add( new MetadataRequest( metadata, null, REPOSITORY_CONTEXT ).setTrace( trace ) );
 
-        if ( result != null )
-        {
-            return result;
-        }
+                for ( RemoteRepository repository : request.getRepositories() )
+                {
+                    requests.add( new MetadataRequest( metadata, repository, REPOSITORY_CONTEXT ).setTrace( trace ) );
+                }
+            }
 
-        // second try, refetch all (possibly outdated) metadata that wasn't updated in the first attempt
+            // initial try, use locally cached metadata
 
-        if ( !request.getRepositorySession().isOffline() && !requests.isEmpty() )
-        {
-            DefaultRepositorySystemSession session =
-                new DefaultRepositorySystemSession( request.getRepositorySession() );
-            session.setUpdatePolicy( RepositoryPolicy.UPDATE_POLICY_ALWAYS );
+            List<MetadataResult> results = repositorySystem.resolveMetadata( session, requests );
 
-            results = repositorySystem.resolveMetadata( session, requests );
+            index = new PrefixIndex();
+            List<MetadataRequest> outdated = new ArrayList<>();
+            index.prefixes = processResults( session, trace, results, outdated );
+            index.outdated = outdated;
 
-            return processResults( request, trace, results, null );
+            if ( cache != null )
+            {
+                cache.put( session, key, index );
+            }
         }
 
-        return null;
+        return index;
     }
 
-    private PluginPrefixResult processResults( PluginPrefixRequest request, RequestTrace trace,
-                                               List<MetadataResult> results, List<MetadataRequest> requests )
+    private Map<String, DefaultPluginPrefixResult> processResults( RepositorySystemSession session,
+                                                                   RequestTrace trace, List<MetadataResult> results,
+                                                                   List<MetadataRequest> requests )
     {
+        Map<String, DefaultPluginPrefixResult> prefixes = new HashMap<>();
+
         for ( MetadataResult res : results )
         {
             org.eclipse.aether.metadata.Metadata metadata = res.getMetadata();
@@ -219,16 +249,10 @@ private PluginPrefixResult processResults( PluginPrefixRequest request, RequestT
                 ArtifactRepository repository = res.getRequest().getRepository();
                 if ( repository == null )
                 {
-                    repository = request.getRepositorySession().getLocalRepository();
+                    repository = session.getLocalRepository();
                 }
 
-                PluginPrefixResult result =
-                    resolveFromRepository( request, trace, metadata.getGroupId(), metadata, repository );
-
-                if ( result != null )
-                {
-                    return result;
-                }
+                addPrefixes( session, trace, metadata.getGroupId(), metadata, repository, prefixes );
             }
 
             if ( requests != null && !res.isUpdated() )
@@ -237,21 +261,18 @@ private PluginPrefixResult processResults( PluginPrefixRequest request, RequestT
             }
         }
 
-        return null;
+        return prefixes;
     }
 
-    private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request, RequestTrace trace,
-                                                      String pluginGroup,
-                                                      org.eclipse.aether.metadata.Metadata metadata,
-                                                      ArtifactRepository repository )
+    private void addPrefixes( RepositorySystemSession session, RequestTrace trace, String pluginGroup,
+                              org.eclipse.aether.metadata.Metadata metadata, ArtifactRepository repository,
+                              Map<String, DefaultPluginPrefixResult> prefixes )
     {
         if ( metadata != null && metadata.getFile() != null && metadata.getFile().isFile() )
         {
             try
             {
-                Map<String, ?> options = Collections.singletonMap( MetadataReader.IS_STRICT, Boolean.FALSE );
-
-                Metadata pluginGroupMetadata = metadataReader.read( metadata.getFile(), options );
+                Metadata pluginGroupMetadata = MetadataParsingCache.read( session, metadata.getFile() );
 
                 List<org.apache.maven.artifact.repository.metadata.Plugin> plugins = pluginGroupMetadata.getPlugins();
 
@@ -259,20 +280,21 @@ private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request, R
                 {
                     for ( org.apache.maven.artifact.repository.metadata.Plugin plugin : plugins )
                     {
-                        if ( request.getPrefix().equals( plugin.getPrefix() ) )
+                        // the first declaration in resolution order wins, like the sequential lookup did
+                        if ( plugin.getPrefix() != null && !prefixes.containsKey( plugin.getPrefix() ) )
                         {
-                            return new DefaultPluginPrefixResult( pluginGroup, plugin.getArtifactId(), repository );
+                            prefixes.put( plugin.getPrefix(),
+                                          new DefaultPluginPrefixResult( pluginGroup, plugin.getArtifactId(),
+                                                                         repository ) );
                         }
                     }
                 }
             }
             catch ( IOException e )
             {
-                invalidMetadata( request.getRepositorySession(), trace, metadata, repository, e );
+                invalidMetadata( session, trace, metadata, repository, e );
             }
         }
-
-        return null;
     }
 
     private void invalidMetadata( RepositorySystemSession session, RequestTrace trace,
@@ -291,4 +313,102 @@ private void invalidMetadata( RepositorySystemSession session, RequestTrace trac
         }
     }
 
+    /**
+     * The plugin prefixes declared by the metadata of some plugin groups and repositories.
+     */
+    class PrefixIndex
+    {
+
+        Map<String, DefaultPluginPrefixResult> prefixes;
+
+        List<MetadataRequest> outdated;
+
+        private Map<String, DefaultPluginPrefixResult> refreshed;
+
+        PluginPrefixResult get( String prefix )
+        {
+            return copy( prefixes.get( prefix ) );
+        }
+
+        /**
+         * Looks up the prefix of the request in the metadata that was not updated by the initial pass. The metadata
+         * is refetched at most once per index.
+         */
+        synchronized PluginPrefixResult getRefreshed( PluginPrefixRequest request )
+        {
+            if ( refreshed == null )
+            {
+                RepositorySystemSession session = request.getRepositorySession();
+                if ( !session.isOffline() && !outdated.isEmpty() )
+                {
+                    DefaultRepositorySystemSession refreshSession = new DefaultRepositorySystemSession( session );
+                    refreshSession.setUpdatePolicy( RepositoryPolicy.UPDATE_POLICY_ALWAYS );
+
+                    List<MetadataResult> results = repositorySystem.resolveMetadata( refreshSession, outdated );
+
+                    refreshed = processResults( session, RequestTrace.newChild( null, request ), results, null );
+                }
+                else
+                {
+                    refreshed = Collections.emptyMap();
+                }
+            }
+
+            return copy( refreshed.get( request.getPrefix() ) );
+        }
+
+        private PluginPrefixResult copy( DefaultPluginPrefixResult result )
+        {
+            if ( result == null )
+            {
+                return null;
+            }
+            return new DefaultPluginPrefixResult( result.getGroupId(), result.getArtifactId(),
+                                                  result.getRepository() );
+        }
+
+    }
+
+    /**
+     * Identifies the prefix index for the plugin groups and repositories of a request.
+     */
+    static final class PrefixIndexKey
+    {
+
+        private final List<String> pluginGroups;
+
+        private final List<RemoteRepository> repositories;
+
+        private final int hashCode;
+
+        PrefixIndexKey( PluginPrefixRequest request )
+        {
+            pluginGroups = new ArrayList<>( request.getPluginGroups() );
+            repositories = new ArrayList<>( request.getRepositories() );
+            hashCode = pluginGroups.hashCode() * 31 + repositories.hashCode();
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof PrefixIndexKey ) )
+            {
+                return false;
+            }
+            PrefixIndexKey that = (PrefixIndexKey) obj;
+            return pluginGroups.equals( that.pluginGroups ) && repositories.equals( that.repositories );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
 }
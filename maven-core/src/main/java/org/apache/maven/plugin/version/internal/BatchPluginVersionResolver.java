@@ -0,0 +1,52 @@
+package org.apache.maven.plugin.version.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.plugin.version.PluginVersionRequest;
+import org.apache.maven.plugin.version.PluginVersionResolutionException;
+import org.apache.maven.plugin.version.PluginVersionResult;
+
+/**
+ * Resolves the versions of several plugins at once. This is an optional capability of a
+ * {@link org.apache.maven.plugin.version.PluginVersionResolver}, callers need to check for it and fall back to
+ * resolving the requests one by one.
+ * <strong>Warning:</strong> This is an internal utility interface that is only public for technical reasons, it is
+ * not part of the public API. In particular, this interface can be changed or deleted without prior notice.
+ *
+ * @since 3.6.0
+ */
+public interface BatchPluginVersionResolver
+{
+
+    /**
+     * Resolves the versions for the specified requests. Compared to resolving the requests one by one, the metadata of
+     * all plugins is resolved in a single batch.
+     *
+     * @param requests The requests that hold the details about the plugins and the repositories to consult, must not
+     *            be {@code null}.
+     * @return The results of the version resolution in the order of the requests, never {@code null}.
+     * @throws PluginVersionResolutionException If the version of any plugin could not be resolved.
+     */
+    List<PluginVersionResult> resolve( List<? extends PluginVersionRequest> requests )
+        throws PluginVersionResolutionException;
+
+}
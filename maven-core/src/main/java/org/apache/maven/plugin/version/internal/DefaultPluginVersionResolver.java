@@ -21,15 +21,24 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.MetadataReader;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.MavenPluginManager;
@@ -39,12 +48,15 @@
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugin.version.PluginVersionResolver;
 import org.apache.maven.plugin.version.PluginVersionResult;
+import org.apache.maven.repository.internal.MetadataParsingCache;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.RepositoryEvent.EventType;
 import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
@@ -54,6 +66,7 @@
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.MetadataRequest;
 import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.version.GenericVersionScheme;
 import org.eclipse.aether.version.InvalidVersionSpecificationException;
 import org.eclipse.aether.version.Version;
@@ -67,85 +80,290 @@
  */
 @Component( role = PluginVersionResolver.class )
 public class DefaultPluginVersionResolver
-    implements PluginVersionResolver
+    implements PluginVersionResolver, BatchPluginVersionResolver, Disposable
 {
 
     private static final String REPOSITORY_CONTEXT = "plugin";
 
+    /**
+     * The number of threads used to check the candidate versions of a batch of plugins, defaults to {@code 1}.
+     */
+    static final String CONFIG_PROP_THREADS = "maven.pluginVersionResolver.threads";
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
     @Requirement
     private Logger logger;
 
     @Requirement
     private RepositorySystem repositorySystem;
 
-    @Requirement
-    private MetadataReader metadataReader;
-
     @Requirement
     private MavenPluginManager pluginManager;
 
+    /**
+     * The pool shared by all concurrent version selections, created on first use and grown to the largest number of
+     * threads requested so far, guarded by {@code this}.
+     */
+    private ThreadPoolExecutor executor;
+
     public PluginVersionResult resolve( PluginVersionRequest request )
         throws PluginVersionResolutionException
     {
-        PluginVersionResult result = resolveFromProject( request );
+        return resolve( Collections.singletonList( request ) ).get( 0 );
+    }
+
+    public List<PluginVersionResult> resolve( List<? extends PluginVersionRequest> requests )
+        throws PluginVersionResolutionException
+    {
+        PluginVersionResult[] results = new PluginVersionResult[requests.size()];
 
-        if ( result == null )
+        Map<RepositorySystemSession, List<Integer>> pending = new IdentityHashMap<>();
+
+        for ( int i = 0; i < results.length; i++ )
         {
-            result = resolveFromRepository( request );
+            PluginVersionRequest request = requests.get( i );
+
+            PluginVersionResult result = resolveFromProject( request );
+
+            if ( result != null )
+            {
+                if ( logger.isDebugEnabled() )
+                {
+                    logger.debug( "Resolved plugin version for " + request.getGroupId() + ":"
+                        + request.getArtifactId() + " to " + result.getVersion() + " from POM " + request.getPom() );
+                }
+                results[i] = result;
+                continue;
+            }
+
+            result = getCachedResult( request );
+
+            if ( result != null )
+            {
+                logResolvedFromRepository( request, result );
+                results[i] = result;
+                continue;
+            }
 
-            if ( logger.isDebugEnabled() )
+            List<Integer> indices = pending.get( request.getRepositorySession() );
+            if ( indices == null )
             {
-                logger.debug( "Resolved plugin version for " + request.getGroupId() + ":" + request.getArtifactId()
-                    + " to " + result.getVersion() + " from repository " + result.getRepository() );
+                indices = new ArrayList<>();
+                pending.put( request.getRepositorySession(), indices );
             }
+            indices.add( i );
         }
-        else if ( logger.isDebugEnabled() )
+
+        for ( Map.Entry<RepositorySystemSession, List<Integer>> entry : pending.entrySet() )
         {
-            logger.debug( "Resolved plugin version for " + request.getGroupId() + ":" + request.getArtifactId() + " to "
-                + result.getVersion() + " from POM " + request.getPom() );
+            resolveFromRepository( entry.getKey(), requests, entry.getValue(), results );
         }
 
-        return result;
+        return Arrays.asList( results );
+    }
+
+    private void logResolvedFromRepository( PluginVersionRequest request, PluginVersionResult result )
+    {
+        if ( logger.isDebugEnabled() )
+        {
+            logger.debug( "Resolved plugin version for " + request.getGroupId() + ":" + request.getArtifactId()
+                + " to " + result.getVersion() + " from repository " + result.getRepository() );
+        }
     }
 
-    private PluginVersionResult resolveFromRepository( PluginVersionRequest request )
+    /**
+     * Resolves the versions of the specified requests from their repositories. The metadata of all plugins is
+     * resolved in one batch, selecting the versions (which may involve resolving plugin descriptors) is done
+     * concurrently.
+     */
+    private void resolveFromRepository( RepositorySystemSession session, List<? extends PluginVersionRequest> requests,
+                                        List<Integer> indices, PluginVersionResult[] results )
         throws PluginVersionResolutionException
     {
-        RequestTrace trace = RequestTrace.newChild( null, request );
+        List<MetadataRequest> metadataRequests = new ArrayList<>();
+        RequestTrace[] traces = new RequestTrace[indices.size()];
+
+        for ( int i = 0; i < indices.size(); i++ )
+        {
+            PluginVersionRequest request = requests.get( indices.get( i ) );
+
+            RequestTrace trace = RequestTrace.newChild( null, request );
+            traces[i] = trace;
+
+            org.eclipse.aether.metadata.Metadata metadata =
+                new DefaultMetadata( request.getGroupId(), request.getArtifactId(), "maven-metadata.xml",
+                                     DefaultMetadata.Nature.RELEASE_OR_SNAPSHOT );
+
+            metadataRequests.add( new MetadataRequest( metadata, null, REPOSITORY_CONTEXT ).setTrace( trace ) );
+
+            for ( RemoteRepository repository : request.getRepositories() )
+            {
+                metadataRequests.add(
+                    new MetadataRequest( metadata, repository, REPOSITORY_CONTEXT ).setTrace( trace ) );
+            }
+        }
 
-        DefaultPluginVersionResult result = new DefaultPluginVersionResult();
+        List<MetadataResult> metadataResults = repositorySystem.resolveMetadata( session, metadataRequests );
 
-        org.eclipse.aether.metadata.Metadata metadata =
-            new DefaultMetadata( request.getGroupId(), request.getArtifactId(), "maven-metadata.xml",
-                                 DefaultMetadata.Nature.RELEASE_OR_SNAPSHOT );
+        List<VersionSelection> tasks = new ArrayList<>( indices.size() );
 
-        List<MetadataRequest> requests = new ArrayList<>();
+        int offset = 0;
+        for ( int i = 0; i < indices.size(); i++ )
+        {
+            PluginVersionRequest request = requests.get( indices.get( i ) );
+
+            Versions versions = new Versions();
+
+            int count = 1 + request.getRepositories().size();
+            for ( MetadataResult res : metadataResults.subList( offset, offset + count ) )
+            {
+                ArtifactRepository repository = res.getRequest().getRepository();
+                if ( repository == null )
+                {
+                    repository = session.getLocalRepository();
+                }
+
+                mergeMetadata( session, traces[i], versions, res.getMetadata(), repository );
+            }
+            offset += count;
+
+            tasks.add( new VersionSelection( request, versions ) );
+        }
 
-        requests.add( new MetadataRequest( metadata, null, REPOSITORY_CONTEXT ).setTrace( trace ) );
+        List<PluginVersionResult> selected = selectVersions( session, tasks );
 
-        for ( RemoteRepository repository : request.getRepositories() )
+        for ( int i = 0; i < indices.size(); i++ )
         {
-            requests.add( new MetadataRequest( metadata, repository, REPOSITORY_CONTEXT ).setTrace( trace ) );
+            PluginVersionRequest request = requests.get( indices.get( i ) );
+            PluginVersionResult result = selected.get( i );
+
+            putCachedResult( request, result );
+            logResolvedFromRepository( request, result );
+            results[indices.get( i )] = result;
         }
+    }
 
-        List<MetadataResult> results = repositorySystem.resolveMetadata( request.getRepositorySession(), requests );
+    private List<PluginVersionResult> selectVersions( RepositorySystemSession session, List<VersionSelection> tasks )
+        throws PluginVersionResolutionException
+    {
+        List<PluginVersionResult> results = new ArrayList<>( tasks.size() );
 
-        Versions versions = new Versions();
+        int threads = Math.min( tasks.size(), ConfigUtils.getInteger( session, 1, CONFIG_PROP_THREADS ) );
+
+        if ( threads <= 1 )
+        {
+            for ( VersionSelection task : tasks )
+            {
+                results.add( task.select() );
+            }
+            return results;
+        }
 
-        for ( MetadataResult res : results )
+        ThreadPoolExecutor executor = getExecutor( threads );
+        List<Future<PluginVersionResult>> futures = new ArrayList<>( tasks.size() );
+        try
+        {
+            for ( VersionSelection task : tasks )
+            {
+                futures.add( executor.submit( task ) );
+            }
+            for ( Future<PluginVersionResult> future : futures )
+            {
+                try
+                {
+                    results.add( future.get() );
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof PluginVersionResolutionException )
+                    {
+                        throw (PluginVersionResolutionException) cause;
+                    }
+                    if ( cause instanceof RuntimeException )
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                    if ( cause instanceof Error )
+                    {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException( cause );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while resolving plugin versions", e );
+        }
+        finally
         {
-            ArtifactRepository repository = res.getRequest().getRepository();
-            if ( repository == null )
+            // no-op for completed selections, stops the remaining ones after a failure
+            for ( Future<PluginVersionResult> future : futures )
             {
-                repository = request.getRepositorySession().getLocalRepository();
+                future.cancel( true );
             }
+        }
 
-            mergeMetadata( request.getRepositorySession(), trace, versions, res.getMetadata(), repository );
+        return results;
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor( int threads )
+    {
+        if ( executor == null )
+        {
+            executor = new ThreadPoolExecutor( threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<Runnable>(), new SelectionThreadFactory() );
+            executor.allowCoreThreadTimeOut( true );
+        }
+        else if ( executor.getMaximumPoolSize() < threads )
+        {
+            executor.setMaximumPoolSize( threads );
+            executor.setCorePoolSize( threads );
         }
+        return executor;
+    }
 
-        selectVersion( result, request, versions );
+    @Override
+    public synchronized void dispose()
+    {
+        if ( executor != null )
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
 
-        return result;
+    private PluginVersionResult getCachedResult( PluginVersionRequest request )
+    {
+        RepositorySystemSession session = request.getRepositorySession();
+        RepositoryCache cache = session.getCache();
+        if ( cache != null )
+        {
+            Object cached = cache.get( session, new CacheKey( request ) );
+            if ( cached instanceof PluginVersionResult )
+            {
+                PluginVersionResult result = (PluginVersionResult) cached;
+                DefaultPluginVersionResult copy = new DefaultPluginVersionResult( result.getVersion() );
+                copy.setRepository( result.getRepository() );
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    private void putCachedResult( PluginVersionRequest request, PluginVersionResult result )
+    {
+        RepositorySystemSession session = request.getRepositorySession();
+        RepositoryCache cache = session.getCache();
+        if ( cache != null )
+        {
+            DefaultPluginVersionResult copy = new DefaultPluginVersionResult( result.getVersion() );
+            copy.setRepository( result.getRepository() );
+            cache.put( session, new CacheKey( request ), copy );
+        }
     }
 
     private void selectVersion( DefaultPluginVersionResult result, PluginVersionRequest request, Versions versions )
@@ -283,9 +501,7 @@ private void mergeMetadata( RepositorySystemSession session, RequestTrace trace,
         {
             try
             {
-                Map<String, ?> options = Collections.singletonMap( MetadataReader.IS_STRICT, Boolean.FALSE );
-
-                Metadata repoMetadata = metadataReader.read( metadata.getFile(), options );
+                Metadata repoMetadata = MetadataParsingCache.read( session, metadata.getFile() );
 
                 mergeMetadata( versions, repoMetadata, repository );
             }
@@ -403,4 +619,103 @@ private PluginVersionResult resolveFromProject( PluginVersionRequest request, Li
 
     }
 
+    /**
+     * Selects the version of a single plugin from its merged metadata.
+     */
+    class VersionSelection
+        implements Callable<PluginVersionResult>
+    {
+
+        private final PluginVersionRequest request;
+
+        private final Versions versions;
+
+        VersionSelection( PluginVersionRequest request, Versions versions )
+        {
+            this.request = request;
+            this.versions = versions;
+        }
+
+        PluginVersionResult select()
+            throws PluginVersionResolutionException
+        {
+            DefaultPluginVersionResult result = new DefaultPluginVersionResult();
+            selectVersion( result, request, versions );
+            return result;
+        }
+
+        public PluginVersionResult call()
+            throws PluginVersionResolutionException
+        {
+            return select();
+        }
+
+    }
+
+    static class SelectionThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "PluginVersionResolver " + id.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+    /**
+     * Identifies the version resolved from the repositories for a plugin within a session.
+     */
+    static final class CacheKey
+    {
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final List<RemoteRepository> repositories;
+
+        private final int hashCode;
+
+        CacheKey( PluginVersionRequest request )
+        {
+            groupId = request.getGroupId();
+            artifactId = request.getArtifactId();
+            repositories = new ArrayList<>( request.getRepositories() );
+
+            int hash = 17;
+            hash = hash * 31 + groupId.hashCode();
+            hash = hash * 31 + artifactId.hashCode();
+            hash = hash * 31 + repositories.hashCode();
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof CacheKey ) )
+            {
+                return false;
+            }
+            CacheKey that = (CacheKey) obj;
+            return groupId.equals( that.groupId ) && artifactId.equals( that.artifactId )
+                && repositories.equals( that.repositories );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
 }
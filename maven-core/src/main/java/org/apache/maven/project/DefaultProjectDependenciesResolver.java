@@ -19,45 +19,75 @@
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.RepositoryUtils;
-import org.apache.maven.artifact.Artifact;
+import org.apache.maven.internal.aether.DependencyCollectionCache;
 import org.apache.maven.model.Dependency;
-import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Exclusion;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.RequestTrace;
-import org.eclipse.aether.artifact.ArtifactType;
 import org.eclipse.aether.artifact.ArtifactTypeRegistry;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyCollectionException;
 import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyRequest;
-import org.eclipse.aether.util.artifact.ArtifactIdUtils;
-import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
 
 /**
  * @author Benjamin Bentmann
  */
 @Component( role = ProjectDependenciesResolver.class )
 public class DefaultProjectDependenciesResolver
-    implements ProjectDependenciesResolver
+    implements ProjectDependenciesResolver, Disposable
 {
 
+    /**
+     * The number of threads used to resolve the artifacts of the dependency graph, defaults to {@code 1} which
+     * delegates to {@link RepositorySystem#resolveDependencies(RepositorySystemSession, DependencyRequest)}.
+     */
+    static final String CONFIG_PROP_THREADS = "maven.projectDependencies.threads";
+
+    /**
+     * The maximum number of concurrent batches served by the same remote repository, defaults to the number of
+     * threads.
+     */
+    static final String CONFIG_PROP_THREADS_PER_REPOSITORY = "maven.projectDependencies.threadsPerRepository";
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
     @Requirement
     private Logger logger;
 
@@ -65,7 +95,13 @@
     private RepositorySystem repoSystem;
 
     @Requirement
-    private List<RepositorySessionDecorator> decorators;
+    private ProjectCollectRequestFactory collectRequestFactory;
+
+    /**
+     * The pool shared by all concurrent resolutions, created on first use and grown to the largest number of threads
+     * requested so far, guarded by {@code this}.
+     */
+    private ThreadPoolExecutor executor;
 
     public DependencyResolutionResult resolve( DependencyResolutionRequest request )
         throws DependencyResolutionException
@@ -77,7 +113,6 @@ public DependencyResolutionResult resolve( DependencyResolutionRequest request )
         final MavenProject project = request.getMavenProject();
         final DependencyFilter filter = request.getResolutionFilter();
         RepositorySystemSession session = request.getRepositorySession();
-        ArtifactTypeRegistry stereotypes = session.getArtifactTypeRegistry();
 
         if ( logger.isDebugEnabled()
             && session.getConfigProperties().get( DependencyManagerUtils.CONFIG_PROP_VERBOSE ) == null )
@@ -87,129 +122,433 @@ public DependencyResolutionResult resolve( DependencyResolutionRequest request )
             session = verbose;
         }
 
-        for ( RepositorySessionDecorator decorator : decorators )
+        session = collectRequestFactory.decorate( project, session );
+
+        CollectRequest collect = collectRequestFactory.newCollectRequest( project, session );
+
+        DependencyRequest depRequest = new DependencyRequest( collect, filter );
+        depRequest.setTrace( trace );
+
+        DependencyNode node;
+        try
+        {
+            collect.setTrace( RequestTrace.newChild( trace, depRequest ) );
+            node = DependencyCollectionCache.collectDependencies( repoSystem, session, collect ).getRoot();
+            result.setDependencyGraph( node );
+        }
+        catch ( DependencyCollectionException e )
+        {
+            result.setDependencyGraph( e.getResult().getRoot() );
+            result.setCollectionErrors( e.getResult().getExceptions() );
+
+            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
+                + project.getId() + ": " + e.getMessage(), e );
+        }
+
+        depRequest.setRoot( node );
+
+        if ( logger.isWarnEnabled() )
         {
-            RepositorySystemSession decorated = decorator.decorate( project, session );
-            if ( decorated != null )
+            for ( DependencyNode child : node.getChildren() )
             {
-                session = decorated;
+                if ( !child.getRelocations().isEmpty() )
+                {
+                    logger.warn( "The artifact " + child.getRelocations().get( 0 ) + " has been relocated to "
+                        + child.getDependency().getArtifact() );
+                }
             }
         }
 
-        CollectRequest collect = new CollectRequest();
-        collect.setRootArtifact( RepositoryUtils.toArtifact( project.getArtifact() ) );
-        collect.setRequestContext( "project" );
-        collect.setRepositories( project.getRemoteProjectRepositories() );
+        if ( logger.isDebugEnabled() )
+        {
+            node.accept( new GraphLogger( project ) );
+        }
 
-        if ( project.getDependencyArtifacts() == null )
+        try
         {
-            for ( Dependency dependency : project.getDependencies() )
+            int threads = ConfigUtils.getInteger( session, 1, CONFIG_PROP_THREADS );
+            if ( threads > 1 )
             {
-                if ( StringUtils.isEmpty( dependency.getGroupId() ) || StringUtils.isEmpty( dependency.getArtifactId() )
-                    || StringUtils.isEmpty( dependency.getVersion() ) )
+                process( result, resolveConcurrently( session, depRequest, threads ) );
+            }
+            else
+            {
+                process( result, repoSystem.resolveDependencies( session, depRequest ).getArtifactResults() );
+            }
+        }
+        catch ( org.eclipse.aether.resolution.DependencyResolutionException e )
+        {
+            process( result, e.getResult().getArtifactResults() );
+
+            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
+                + project.getId() + ": " + e.getMessage(), e );
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the artifacts of the collected graph like {@link RepositorySystem#resolveDependencies} does but
+     * splits the artifact requests into batches that are resolved concurrently. Batches are formed per remote
+     * repository that is consulted first, so the number of simultaneous downloads from a single repository can be
+     * bounded: each repository gets no more pool tasks than its limit, and these tasks take turns on its batches. The
+     * results are reported in graph order and failures surface as the same exception the repository
+     * system would have thrown.
+     */
+    private List<ArtifactResult> resolveConcurrently( RepositorySystemSession session, DependencyRequest depRequest,
+                                                      int threads )
+        throws org.eclipse.aether.resolution.DependencyResolutionException
+    {
+        final RequestTrace trace = RequestTrace.newChild( depRequest.getTrace(), depRequest );
+        final List<ArtifactRequest> requests = new ArrayList<>();
+
+        DependencyVisitor visitor = new DependencyVisitor()
+        {
+            public boolean visitEnter( DependencyNode node )
+            {
+                if ( node.getDependency() != null )
                 {
-                    // guard against case where best-effort resolution for invalid models is requested
-                    continue;
+                    requests.add( new ArtifactRequest( node ).setTrace( trace ) );
+                }
+                return true;
+            }
+
+            public boolean visitLeave( DependencyNode node )
+            {
+                return true;
+            }
+        };
+        if ( depRequest.getFilter() != null )
+        {
+            visitor = new FilteringDependencyVisitor( visitor, depRequest.getFilter() );
+        }
+        depRequest.getRoot().accept( new TreeDependencyVisitor( visitor ) );
+
+        List<ResolutionLane> lanes = partition( session, requests, threads );
+
+        int batchCount = 0;
+        for ( ResolutionLane lane : lanes )
+        {
+            batchCount += lane.batches.size();
+        }
+
+        DependencyResult depResult = new DependencyResult( depRequest ).setRoot( depRequest.getRoot() );
+
+        ArtifactResult[] results = new ArtifactResult[requests.size()];
+        if ( batchCount <= 1 )
+        {
+            for ( ResolutionLane lane : lanes )
+            {
+                for ( ResolutionBatch batch : lane.batches )
+                {
+                    batch.resolve( session, results );
                 }
-                collect.addDependency( RepositoryUtils.toDependency( dependency, stereotypes ) );
             }
         }
         else
         {
-            Map<String, Dependency> dependencies = new HashMap<>();
-            for ( Dependency dependency : project.getDependencies() )
+            ThreadPoolExecutor executor = getExecutor( threads );
+            List<Future<?>> futures = new ArrayList<>( batchCount );
+            try
             {
-                String classifier = dependency.getClassifier();
-                if ( classifier == null )
+                for ( ResolutionLane lane : lanes )
                 {
-                    ArtifactType type = stereotypes.get( dependency.getType() );
-                    if ( type != null )
+                    for ( int i = 0; i < lane.workers; i++ )
                     {
-                        classifier = type.getClassifier();
+                        futures.add( executor.submit( lane.toTask( session, results ) ) );
                     }
                 }
-                String key =
-                    ArtifactIdUtils.toVersionlessId( dependency.getGroupId(), dependency.getArtifactId(),
-                                                    dependency.getType(), classifier );
-                dependencies.put( key, dependency );
+                for ( Future<?> future : futures )
+                {
+                    future.get();
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new org.eclipse.aether.resolution.DependencyResolutionException( depResult, e );
+            }
+            catch ( ExecutionException e )
+            {
+                Throwable cause = e.getCause();
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                if ( cause instanceof Error )
+                {
+                    throw (Error) cause;
+                }
+                throw new org.eclipse.aether.resolution.DependencyResolutionException( depResult, cause );
             }
-            for ( Artifact artifact : project.getDependencyArtifacts() )
+            finally
             {
-                String key = artifact.getDependencyConflictId();
-                Dependency dependency = dependencies.get( key );
-                Collection<Exclusion> exclusions = dependency != null ? dependency.getExclusions() : null;
-                org.eclipse.aether.graph.Dependency dep = RepositoryUtils.toDependency( artifact, exclusions );
-                if ( !JavaScopes.SYSTEM.equals( dep.getScope() ) && dep.getArtifact().getFile() != null )
+                // no-op for completed batches, stops the remaining ones after a failure
+                for ( Future<?> future : futures )
                 {
-                    // enable re-resolution
-                    org.eclipse.aether.artifact.Artifact art = dep.getArtifact();
-                    art = art.setFile( null ).setVersion( art.getBaseVersion() );
-                    dep = dep.setArtifact( art );
+                    future.cancel( true );
                 }
-                collect.addDependency( dep );
             }
         }
 
-        DependencyManagement depMgmt = project.getDependencyManagement();
-        if ( depMgmt != null )
+        List<ArtifactResult> artifactResults = Arrays.asList( results );
+        depResult.setArtifactResults( artifactResults );
+
+        boolean failures = false;
+        for ( ArtifactResult artifactResult : artifactResults )
         {
-            for ( Dependency dependency : depMgmt.getDependencies() )
+            if ( artifactResult.getArtifact() != null )
             {
-                collect.addManagedDependency( RepositoryUtils.toDependency( dependency, stereotypes ) );
+                artifactResult.getRequest().getDependencyNode().setArtifact( artifactResult.getArtifact() );
             }
+            failures |= !artifactResult.isResolved();
         }
 
-        DependencyRequest depRequest = new DependencyRequest( collect, filter );
-        depRequest.setTrace( trace );
+        if ( failures )
+        {
+            throw new org.eclipse.aether.resolution.DependencyResolutionException( depResult,
+                                                          new ArtifactResolutionException( artifactResults ) );
+        }
 
-        DependencyNode node;
-        try
+        return artifactResults;
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor( int threads )
+    {
+        if ( executor == null )
         {
-            collect.setTrace( RequestTrace.newChild( trace, depRequest ) );
-            node = repoSystem.collectDependencies( session, collect ).getRoot();
-            result.setDependencyGraph( node );
+            executor = new ThreadPoolExecutor( threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<Runnable>(), new ResolutionThreadFactory() );
+            executor.allowCoreThreadTimeOut( true );
         }
-        catch ( DependencyCollectionException e )
+        else if ( executor.getMaximumPoolSize() < threads )
         {
-            result.setDependencyGraph( e.getResult().getRoot() );
-            result.setCollectionErrors( e.getResult().getExceptions() );
+            executor.setMaximumPoolSize( threads );
+            executor.setCorePoolSize( threads );
+        }
+        return executor;
+    }
 
-            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
-                + project.getId() + ": " + e.getMessage(), e );
+    @Override
+    public synchronized void dispose()
+    {
+        if ( executor != null )
+        {
+            executor.shutdownNow();
+            executor = null;
         }
+    }
 
-        depRequest.setRoot( node );
+    private List<ResolutionLane> partition( RepositorySystemSession session, List<ArtifactRequest> requests,
+                                            int threads )
+    {
+        int threadsPerRepository = ConfigUtils.getInteger( session, threads, CONFIG_PROP_THREADS_PER_REPOSITORY );
 
-        if ( logger.isWarnEnabled() )
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for ( int i = 0; i < requests.size(); i++ )
         {
-            for ( DependencyNode child : node.getChildren() )
+            List<RemoteRepository> repositories = requests.get( i ).getRepositories();
+            String key = repositories.isEmpty() ? "" : repositories.get( 0 ).getId();
+            List<Integer> group = groups.get( key );
+            if ( group == null )
             {
-                if ( !child.getRelocations().isEmpty() )
+                group = new ArrayList<>();
+                groups.put( key, group );
+            }
+            group.add( i );
+        }
+
+        List<ResolutionLane> lanes = new ArrayList<>();
+        for ( List<Integer> group : groups.values() )
+        {
+            int count = Math.min( threads, group.size() );
+            ResolutionLane lane = new ResolutionLane( Math.min( count, Math.max( 1, threadsPerRepository ) ) );
+            for ( int b = 0; b < count; b++ )
+            {
+                List<Integer> indices = group.subList( group.size() * b / count, group.size() * ( b + 1 ) / count );
+                lane.batches.add( new ResolutionBatch( requests, indices ) );
+            }
+            lanes.add( lane );
+        }
+        return lanes;
+    }
+
+    /**
+     * The batches that share their first remote repository. The lane is served by a fixed number of pool tasks that
+     * take the pending batches in turn, so a busy repository never parks more pool threads than its limit while
+     * batches for other repositories wait in the queue.
+     */
+    class ResolutionLane
+    {
+
+        final List<ResolutionBatch> batches = new ArrayList<>();
+
+        final int workers;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        ResolutionLane( int workers )
+        {
+            this.workers = workers;
+        }
+
+        Callable<Void> toTask( final RepositorySystemSession session, final ArtifactResult[] results )
+        {
+            return new Callable<Void>()
+            {
+                public Void call()
+                    throws InterruptedException
                 {
-                    logger.warn( "The artifact " + child.getRelocations().get( 0 ) + " has been relocated to "
-                        + child.getDependency().getArtifact() );
+                    for ( int i = next.getAndIncrement(); i < batches.size(); i = next.getAndIncrement() )
+                    {
+                        if ( Thread.interrupted() )
+                        {
+                            throw new InterruptedException();
+                        }
+                        batches.get( i ).resolve( session, results );
+                    }
+                    return null;
                 }
+            };
+        }
+
+    }
+
+    /**
+     * A slice of the artifact requests of a graph that shares its first remote repository with the other batches of
+     * its lane.
+     */
+    class ResolutionBatch
+    {
+
+        private final List<ArtifactRequest> requests;
+
+        private final List<Integer> indices;
+
+        ResolutionBatch( List<ArtifactRequest> requests, List<Integer> indices )
+        {
+            this.requests = new ArrayList<>( indices.size() );
+            for ( Integer index : indices )
+            {
+                this.requests.add( requests.get( index ) );
             }
+            this.indices = indices;
         }
 
-        if ( logger.isDebugEnabled() )
+        void resolve( RepositorySystemSession session, ArtifactResult[] results )
         {
-            node.accept( new GraphLogger( project ) );
+            List<ArtifactResult> batchResults;
+            try
+            {
+                batchResults = repoSystem.resolveArtifacts( session, requests );
+            }
+            catch ( ArtifactResolutionException e )
+            {
+                batchResults = e.getResults();
+            }
+            for ( int i = 0; i < indices.size(); i++ )
+            {
+                results[indices.get( i )] = batchResults.get( i );
+            }
         }
 
-        try
+    }
+
+    /**
+     * Converts the specified dependency management entries. Modules inheriting the same management section (e.g. from
+     * a large imported BOM) share the converted list through the session's repository cache instead of converting
+     * every entry again.
+     */
+    static List<org.eclipse.aether.graph.Dependency> getManagedDependencies( RepositorySystemSession session,
+                                                                            List<Dependency> dependencies,
+                                                                            ArtifactTypeRegistry stereotypes )
+    {
+        RepositoryCache cache = session.getCache();
+        Object key = null;
+        if ( cache != null )
         {
-            process( result, repoSystem.resolveDependencies( session, depRequest ).getArtifactResults() );
+            key = new ManagedDependenciesKey( dependencies, stereotypes );
+            Object managed = cache.get( session, key );
+            if ( managed instanceof List )
+            {
+                @SuppressWarnings( "unchecked" )
+                List<org.eclipse.aether.graph.Dependency> list = (List<org.eclipse.aether.graph.Dependency>) managed;
+                return list;
+            }
         }
-        catch ( org.eclipse.aether.resolution.DependencyResolutionException e )
+
+        List<org.eclipse.aether.graph.Dependency> managed = new ArrayList<>( dependencies.size() );
+        for ( Dependency dependency : dependencies )
         {
-            process( result, e.getResult().getArtifactResults() );
+            managed.add( RepositoryUtils.toDependency( dependency, stereotypes ) );
+        }
+        managed = Collections.unmodifiableList( managed );
 
-            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
-                + project.getId() + ": " + e.getMessage(), e );
+        if ( cache != null )
+        {
+            cache.put( session, key, managed );
+        }
+
+        return managed;
+    }
+
+    /**
+     * A snapshot of the dependency management fields relevant to {@link RepositoryUtils#toDependency}, independent of
+     * the model instances of the module it was taken from.
+     */
+    static final class ManagedDependenciesKey
+    {
+
+        private final Object[] fields;
+
+        private final int hashCode;
+
+        ManagedDependenciesKey( List<Dependency> dependencies, ArtifactTypeRegistry stereotypes )
+        {
+            List<Object> values = new ArrayList<>( dependencies.size() * 9 + 1 );
+            values.add( stereotypes );
+            for ( Dependency dependency : dependencies )
+            {
+                values.add( dependency.getGroupId() );
+                values.add( dependency.getArtifactId() );
+                values.add( dependency.getVersion() );
+                values.add( dependency.getType() );
+                values.add( dependency.getClassifier() );
+                values.add( dependency.getSystemPath() );
+                values.add( dependency.getScope() );
+                values.add( dependency.getOptional() );
+                values.add( dependency.getExclusions().size() );
+                for ( Exclusion exclusion : dependency.getExclusions() )
+                {
+                    values.add( exclusion.getGroupId() );
+                    values.add( exclusion.getArtifactId() );
+                }
+            }
+            fields = values.toArray();
+            hashCode = Arrays.hashCode( fields );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof ManagedDependenciesKey ) )
+            {
+                return false;
+            }
+            ManagedDependenciesKey that = (ManagedDependenciesKey) obj;
+            return hashCode == that.hashCode && Arrays.equals( fields, that.fields );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
         }
 
-        return result;
     }
 
     private void process( DefaultDependencyResolutionResult result, Collection<ArtifactResult> results )
@@ -228,6 +567,21 @@ private void process( DefaultDependencyResolutionResult result, Collection<Artif
         }
     }
 
+    static class ResolutionThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "ProjectDependencies " + id.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
     class GraphLogger
         implements DependencyVisitor
     {
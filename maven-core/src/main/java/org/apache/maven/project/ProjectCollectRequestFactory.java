@@ -0,0 +1,161 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.codehaus.plexus.util.StringUtils;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.ArtifactTypeRegistry;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.eclipse.aether.util.artifact.JavaScopes;
+
+/**
+ * Creates the repository session and the collect request for the dependency graph of a project, so that everything
+ * collecting the dependencies of a project (e.g. the resolution and the prefetch of the reactor dependencies) works
+ * against the same repositories and session.
+ *
+ * @since 3.6.0
+ */
+@Named
+@Singleton
+public class ProjectCollectRequestFactory
+{
+
+    // this is a live injected collection
+    private final List<RepositorySessionDecorator> decorators;
+
+    @Inject
+    public ProjectCollectRequestFactory( List<RepositorySessionDecorator> decorators )
+    {
+        this.decorators = decorators;
+    }
+
+    /**
+     * Applies the repository session decorators to the specified session.
+     *
+     * @param project The project whose dependencies are collected, must not be {@code null}.
+     * @param session The session to decorate, must not be {@code null}.
+     * @return The decorated session, never {@code null}.
+     */
+    public RepositorySystemSession decorate( MavenProject project, RepositorySystemSession session )
+    {
+        for ( RepositorySessionDecorator decorator : decorators )
+        {
+            RepositorySystemSession decorated = decorator.decorate( project, session );
+            if ( decorated != null )
+            {
+                session = decorated;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Creates the request to collect the dependencies of the specified project.
+     *
+     * @param project The project whose dependencies are collected, must not be {@code null}.
+     * @param session The session as returned by {@link #decorate(MavenProject, RepositorySystemSession)}, must not be
+     *            {@code null}.
+     * @return The collect request, never {@code null}.
+     */
+    public CollectRequest newCollectRequest( MavenProject project, RepositorySystemSession session )
+    {
+        ArtifactTypeRegistry stereotypes = session.getArtifactTypeRegistry();
+
+        CollectRequest collect = new CollectRequest();
+        collect.setRootArtifact( RepositoryUtils.toArtifact( project.getArtifact() ) );
+        collect.setRequestContext( "project" );
+        collect.setRepositories( project.getRemoteProjectRepositories() );
+
+        if ( project.getDependencyArtifacts() == null )
+        {
+            for ( Dependency dependency : project.getDependencies() )
+            {
+                if ( StringUtils.isEmpty( dependency.getGroupId() ) || StringUtils.isEmpty( dependency.getArtifactId() )
+                    || StringUtils.isEmpty( dependency.getVersion() ) )
+                {
+                    // guard against case where best-effort resolution for invalid models is requested
+                    continue;
+                }
+                collect.addDependency( RepositoryUtils.toDependency( dependency, stereotypes ) );
+            }
+        }
+        else
+        {
+            Map<String, Dependency> dependencies = new HashMap<>();
+            for ( Dependency dependency : project.getDependencies() )
+            {
+                String classifier = dependency.getClassifier();
+                if ( classifier == null )
+                {
+                    ArtifactType type = stereotypes.get( dependency.getType() );
+                    if ( type != null )
+                    {
+                        classifier = type.getClassifier();
+                    }
+                }
+                String key =
+                    ArtifactIdUtils.toVersionlessId( dependency.getGroupId(), dependency.getArtifactId(),
+                                                    dependency.getType(), classifier );
+                dependencies.put( key, dependency );
+            }
+            for ( Artifact artifact : project.getDependencyArtifacts() )
+            {
+                String key = artifact.getDependencyConflictId();
+                Dependency dependency = dependencies.get( key );
+                Collection<Exclusion> exclusions = dependency != null ? dependency.getExclusions() : null;
+                org.eclipse.aether.graph.Dependency dep = RepositoryUtils.toDependency( artifact, exclusions );
+                if ( !JavaScopes.SYSTEM.equals( dep.getScope() ) && dep.getArtifact().getFile() != null )
+                {
+                    // enable re-resolution
+                    org.eclipse.aether.artifact.Artifact art = dep.getArtifact();
+                    art = art.setFile( null ).setVersion( art.getBaseVersion() );
+                    dep = dep.setArtifact( art );
+                }
+                collect.addDependency( dep );
+            }
+        }
+
+        DependencyManagement depMgmt = project.getDependencyManagement();
+        if ( depMgmt != null && !depMgmt.getDependencies().isEmpty() )
+        {
+            collect.setManagedDependencies( DefaultProjectDependenciesResolver.getManagedDependencies(
+                session, depMgmt.getDependencies(), stereotypes ) );
+        }
+
+        return collect;
+    }
+
+}
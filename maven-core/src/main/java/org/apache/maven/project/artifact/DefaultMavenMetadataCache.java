@@ -20,32 +20,76 @@
  */
 
 import java.io.File;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.metadata.ResolutionGroup;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DistributionManagement;
 import org.codehaus.plexus.component.annotations.Component;
 
 /**
- * DefaultMavenMetadataCache
+ * DefaultMavenMetadataCache. The cached records are never handed out, a cache hit returns views that copy the cached
+ * artifacts only when they are accessed and switch to a private copy when modified.
  */
 @Component( role = MavenMetadataCache.class )
 public class DefaultMavenMetadataCache
     implements MavenMetadataCache
 {
 
+    /**
+     * The system property to configure the maximum number of cached records, defaults to {@code 10000}. A value of
+     * {@code 0} or less disables the cache.
+     */
+    static final String MAX_SIZE_PROPERTY = "maven.metadataCache.maxSize";
+
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
     protected final Map<CacheKey, CacheRecord> cache = new ConcurrentHashMap<>();
 
+    private final Map<DescriptorKey, DescriptorRecord> descriptors = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong descriptorHits = new AtomicLong();
+
+    private final AtomicLong descriptorMisses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DefaultMavenMetadataCache()
+    {
+        this( Integer.getInteger( MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE ) );
+    }
+
+    DefaultMavenMetadataCache( int maxSize )
+    {
+        this.maxSize = Math.max( maxSize, 0 );
+    }
+
     /**
      * CacheKey
      */
@@ -205,32 +249,45 @@ private static <T> boolean eq( T s1, T s2 )
     }
 
     /**
-     * CacheRecord
+     * Tracks the last use of a cached record for the eviction.
+     */
+    abstract static class UsageRecord
+    {
+        volatile long lastUsed;
+    }
+
+    /**
+     * CacheRecord, an immutable snapshot of a resolution group that is shared by all cache hits.
      */
     public class CacheRecord
+        extends UsageRecord
     {
-        private Artifact pomArtifact;
-        private Artifact relocatedArtifact;
-        private List<Artifact> artifacts;
-        private Map<String, Artifact> managedVersions;
-        private List<ArtifactRepository> remoteRepositories;
+        private final Artifact pomArtifact;
+        private final Artifact relocatedArtifact;
+        private final List<Artifact> artifacts;
+        private final Map<String, Artifact> managedVersions;
+        private final List<ArtifactRepository> remoteRepositories;
 
-        private long length;
-        private long timestamp;
+        private final long length;
+        private final long timestamp;
 
         CacheRecord( Artifact pomArtifact, Artifact relocatedArtifact, Set<Artifact> artifacts,
                      Map<String, Artifact> managedVersions, List<ArtifactRepository> remoteRepositories )
         {
             this.pomArtifact = ArtifactUtils.copyArtifact( pomArtifact );
             this.relocatedArtifact = ArtifactUtils.copyArtifactSafe( relocatedArtifact );
-            this.artifacts = ArtifactUtils.copyArtifacts( artifacts, new ArrayList<Artifact>() );
-            this.remoteRepositories = new ArrayList<>( remoteRepositories );
+            this.artifacts =
+                Collections.unmodifiableList( ArtifactUtils.copyArtifacts( artifacts, new ArrayList<Artifact>() ) );
+            this.remoteRepositories = Collections.unmodifiableList( new ArrayList<>( remoteRepositories ) );
 
-            this.managedVersions = managedVersions;
             if ( managedVersions != null )
             {
-                this.managedVersions =
-                    ArtifactUtils.copyArtifacts( managedVersions, new LinkedHashMap<String, Artifact>() );
+                this.managedVersions = Collections.unmodifiableMap(
+                    ArtifactUtils.copyArtifacts( managedVersions, new LinkedHashMap<String, Artifact>() ) );
+            }
+            else
+            {
+                this.managedVersions = null;
             }
 
             File pomFile = pomArtifact.getFile();
@@ -310,20 +367,27 @@ public ResolutionGroup get( Artifact artifact, boolean resolveManagedVersions, A
 
         if ( cacheRecord != null && !cacheRecord.isStale() )
         {
+            hits.incrementAndGet();
+            cacheRecord.lastUsed = clock.incrementAndGet();
+
             Artifact pomArtifact = ArtifactUtils.copyArtifact( cacheRecord.getArtifact() );
             Artifact relocatedArtifact = ArtifactUtils.copyArtifactSafe( cacheRecord.getRelocatedArtifact() );
-            Set<Artifact> artifacts =
-                ArtifactUtils.copyArtifacts( cacheRecord.getArtifacts(), new LinkedHashSet<Artifact>() );
+            Set<Artifact> artifacts = new ArtifactSetView( cacheRecord.getArtifacts() );
             Map<String, Artifact> managedVersions = cacheRecord.getManagedVersions();
             if ( managedVersions != null )
             {
-                managedVersions = ArtifactUtils.copyArtifacts( managedVersions, new LinkedHashMap<String, Artifact>() );
+                managedVersions = new ManagedVersionsView( managedVersions );
             }
             return new ResolutionGroup( pomArtifact, relocatedArtifact, artifacts, managedVersions,
-                                        cacheRecord.getRemoteRepositories() );
+                                        new ArrayList<>( cacheRecord.getRemoteRepositories() ) );
         }
 
-        cache.remove( cacheKey );
+        misses.incrementAndGet();
+
+        if ( cacheRecord != null )
+        {
+            cache.remove( cacheKey );
+        }
 
         return null;
     }
@@ -342,15 +406,503 @@ protected CacheKey newCacheKey( Artifact artifact, boolean resolveManagedVersion
 
     protected void put( CacheKey cacheKey, ResolutionGroup result )
     {
+        if ( maxSize <= 0 )
+        {
+            return;
+        }
+
         CacheRecord cacheRecord =
             new CacheRecord( result.getPomArtifact(), result.getRelocatedArtifact(), result.getArtifacts(),
                              result.getManagedVersions(), result.getResolutionRepositories() );
+        cacheRecord.lastUsed = clock.incrementAndGet();
+
+        if ( cache.size() >= maxSize && !cache.containsKey( cacheKey ) )
+        {
+            evict( cache );
+        }
 
         cache.put( cacheKey, cacheRecord );
     }
 
+    /**
+     * Drops the least recently used quarter of the records. Concurrent puts may briefly exceed the maximum size.
+     */
+    private synchronized void evict( Map<?, ? extends UsageRecord> records )
+    {
+        int size = records.size();
+        if ( size < maxSize )
+        {
+            return;
+        }
+
+        long[] used = new long[size];
+        int n = 0;
+        for ( UsageRecord record : records.values() )
+        {
+            if ( n >= used.length )
+            {
+                break;
+            }
+            used[n++] = record.lastUsed;
+        }
+        if ( n <= 0 )
+        {
+            // concurrently emptied
+            return;
+        }
+        Arrays.sort( used, 0, n );
+        long threshold = used[Math.min( n, Math.max( 1, size / 4 ) ) - 1];
+
+        for ( Iterator<? extends UsageRecord> it = records.values().iterator(); it.hasNext(); )
+        {
+            if ( it.next().lastUsed <= threshold )
+            {
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the descriptor of the specified POM. Descriptors do not depend on the scope, type, classifier or dependency
+     * filter of the artifact whose metadata is retrieved, so all variants of an artifact share the same descriptor.
+     *
+     * @param pomArtifact The POM artifact, must not be {@code null}.
+     * @param localRepository The local repository, must not be {@code null}.
+     * @param remoteRepositories The remote repositories, must not be {@code null}.
+     * @return The cached descriptor or {@code null} if none or only a stale one is cached.
+     */
+    public DescriptorRecord getDescriptor( Artifact pomArtifact, ArtifactRepository localRepository,
+                                           List<ArtifactRepository> remoteRepositories )
+    {
+        DescriptorKey key = new DescriptorKey( pomArtifact, localRepository, remoteRepositories );
+
+        DescriptorRecord descriptor = descriptors.get( key );
+
+        if ( descriptor != null && !descriptor.isStale() )
+        {
+            descriptorHits.incrementAndGet();
+            descriptor.lastUsed = clock.incrementAndGet();
+            return descriptor;
+        }
+
+        descriptorMisses.incrementAndGet();
+
+        if ( descriptor != null )
+        {
+            descriptors.remove( key );
+        }
+
+        return null;
+    }
+
+    /**
+     * Caches the descriptor of the specified POM, the descriptor is only cached if the POM file exists.
+     *
+     * @param pomArtifact The POM artifact as passed to {@link #getDescriptor}, must not be {@code null}.
+     * @param localRepository The local repository, must not be {@code null}.
+     * @param remoteRepositories The remote repositories, must not be {@code null}.
+     * @param descriptor The descriptor to cache, must not be {@code null}.
+     */
+    public void putDescriptor( Artifact pomArtifact, ArtifactRepository localRepository,
+                               List<ArtifactRepository> remoteRepositories, DescriptorRecord descriptor )
+    {
+        if ( descriptor.length < 0 || maxSize <= 0 )
+        {
+            return;
+        }
+
+        DescriptorKey key = new DescriptorKey( pomArtifact, localRepository, remoteRepositories );
+        descriptor.lastUsed = clock.incrementAndGet();
+
+        if ( descriptors.size() >= maxSize && !descriptors.containsKey( key ) )
+        {
+            evict( descriptors );
+        }
+
+        descriptors.put( key, descriptor );
+    }
+
     public void flush()
     {
         cache.clear();
+        descriptors.clear();
+    }
+
+    /**
+     * Gets the number of resolution group lookups that were answered from the cache.
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of resolution group lookups that found no or only a stale record.
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of descriptor lookups that were answered from the cache.
+     */
+    public long getDescriptorHitCount()
+    {
+        return descriptorHits.get();
+    }
+
+    /**
+     * Gets the number of descriptor lookups that found no or only a stale descriptor.
+     */
+    public long getDescriptorMissCount()
+    {
+        return descriptorMisses.get();
     }
+
+    /**
+     * Gets the number of records dropped to keep the cache within its maximum size.
+     */
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    /**
+     * DescriptorKey, identifies a POM by its coordinates and the repositories it was built from.
+     */
+    static class DescriptorKey
+    {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final File file;
+        private final List<ArtifactRepository> repositories = new ArrayList<>();
+        private final int hashCode;
+
+        DescriptorKey( Artifact pomArtifact, ArtifactRepository localRepository,
+                       List<ArtifactRepository> remoteRepositories )
+        {
+            groupId = pomArtifact.getGroupId();
+            artifactId = pomArtifact.getArtifactId();
+            version = pomArtifact.getVersion();
+            file = pomArtifact.getFile();
+            repositories.add( localRepository );
+            repositories.addAll( remoteRepositories );
+
+            int hash = 17;
+            hash = hash * 31 + groupId.hashCode();
+            hash = hash * 31 + artifactId.hashCode();
+            hash = hash * 31 + ( version != null ? version.hashCode() : 0 );
+            hash = hash * 31 + ( file != null ? file.hashCode() : 0 );
+            hash = hash * 31 + repositoriesHashCode( repositories );
+            hashCode = hash;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( o == this )
+            {
+                return true;
+            }
+
+            if ( !( o instanceof DescriptorKey ) )
+            {
+                return false;
+            }
+
+            DescriptorKey other = (DescriptorKey) o;
+
+            return eq( groupId, other.groupId ) && eq( artifactId, other.artifactId ) && eq( version, other.version )
+                && eq( file, other.file ) && repositoriesEquals( repositories, other.repositories );
+        }
+    }
+
+    /**
+     * DescriptorRecord, the parts of a built project that are needed to retrieve artifact metadata. Holding on to
+     * these instead of the project keeps the cached model small, the model objects must be treated as read-only.
+     */
+    public static class DescriptorRecord
+        extends UsageRecord
+    {
+        private final File pomFile;
+        private final String pomVersion;
+        private final List<Dependency> dependencies;
+        private final List<Dependency> managedDependencies;
+        private final DistributionManagement distributionManagement;
+        private final List<ArtifactRepository> remoteRepositories;
+
+        private final long length;
+        private final long timestamp;
+
+        public DescriptorRecord( Artifact pomArtifact, List<Dependency> dependencies,
+                                 List<Dependency> managedDependencies, DistributionManagement distributionManagement,
+                                 List<ArtifactRepository> remoteRepositories )
+        {
+            this.pomFile = pomArtifact.getFile();
+            this.pomVersion = pomArtifact.getVersion();
+            this.dependencies = Collections.unmodifiableList( new ArrayList<>( dependencies ) );
+            this.managedDependencies = ( managedDependencies != null )
+                ? Collections.unmodifiableList( new ArrayList<>( managedDependencies ) ) : null;
+            this.distributionManagement = distributionManagement;
+            this.remoteRepositories = Collections.unmodifiableList( new ArrayList<>( remoteRepositories ) );
+
+            if ( pomFile != null && pomFile.canRead() )
+            {
+                this.length = pomFile.length();
+                this.timestamp = pomFile.lastModified();
+            }
+            else
+            {
+                this.length = -1;
+                this.timestamp = -1;
+            }
+        }
+
+        public File getPomFile()
+        {
+            return pomFile;
+        }
+
+        public String getPomVersion()
+        {
+            return pomVersion;
+        }
+
+        public List<Dependency> getDependencies()
+        {
+            return dependencies;
+        }
+
+        public List<Dependency> getManagedDependencies()
+        {
+            return managedDependencies;
+        }
+
+        public DistributionManagement getDistributionManagement()
+        {
+            return distributionManagement;
+        }
+
+        public List<ArtifactRepository> getRemoteRepositories()
+        {
+            return remoteRepositories;
+        }
+
+        boolean isStale()
+        {
+            return !pomFile.canRead() || length != pomFile.length() || timestamp != pomFile.lastModified();
+        }
+    }
+
+    /**
+     * A set over cached artifacts that copies each artifact on first access. Modifying the set detaches it from the
+     * cached artifacts.
+     */
+    static class ArtifactSetView
+        extends AbstractSet<Artifact>
+    {
+
+        private final List<Artifact> cached;
+
+        private final Artifact[] copies;
+
+        private Set<Artifact> detached;
+
+        ArtifactSetView( List<Artifact> cached )
+        {
+            this.cached = cached;
+            this.copies = new Artifact[cached.size()];
+        }
+
+        Artifact copy( int index )
+        {
+            Artifact copy = copies[index];
+            if ( copy == null )
+            {
+                copy = ArtifactUtils.copyArtifact( cached.get( index ) );
+                copies[index] = copy;
+            }
+            return copy;
+        }
+
+        Set<Artifact> detach()
+        {
+            if ( detached == null )
+            {
+                detached = new LinkedHashSet<>();
+                for ( int i = 0; i < copies.length; i++ )
+                {
+                    detached.add( copy( i ) );
+                }
+            }
+            return detached;
+        }
+
+        @Override
+        public int size()
+        {
+            return ( detached != null ) ? detached.size() : copies.length;
+        }
+
+        @Override
+        public boolean add( Artifact artifact )
+        {
+            return detach().add( artifact );
+        }
+
+        @Override
+        public boolean remove( Object o )
+        {
+            return detach().remove( o );
+        }
+
+        @Override
+        public void clear()
+        {
+            detach().clear();
+        }
+
+        @Override
+        public Iterator<Artifact> iterator()
+        {
+            if ( detached != null )
+            {
+                return detached.iterator();
+            }
+
+            return new Iterator<Artifact>()
+            {
+                private int index;
+
+                private Artifact last;
+
+                public boolean hasNext()
+                {
+                    return index < copies.length;
+                }
+
+                public Artifact next()
+                {
+                    if ( index >= copies.length )
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    last = copy( index++ );
+                    return last;
+                }
+
+                public void remove()
+                {
+                    if ( last == null )
+                    {
+                        throw new IllegalStateException();
+                    }
+                    detach().remove( last );
+                    last = null;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A map over cached managed versions that copies each artifact on first access. Anything but lookups detaches
+     * the map from the cached artifacts.
+     */
+    static class ManagedVersionsView
+        extends AbstractMap<String, Artifact>
+    {
+
+        private final Map<String, Artifact> cached;
+
+        private final Map<Object, Artifact> copies = new HashMap<>();
+
+        private Map<String, Artifact> detached;
+
+        ManagedVersionsView( Map<String, Artifact> cached )
+        {
+            this.cached = cached;
+        }
+
+        Map<String, Artifact> detach()
+        {
+            if ( detached == null )
+            {
+                detached = new LinkedHashMap<>();
+                for ( String key : cached.keySet() )
+                {
+                    detached.put( key, get( key ) );
+                }
+            }
+            return detached;
+        }
+
+        @Override
+        public Artifact get( Object key )
+        {
+            if ( detached != null )
+            {
+                return detached.get( key );
+            }
+
+            Artifact copy = copies.get( key );
+            if ( copy == null )
+            {
+                Artifact artifact = cached.get( key );
+                if ( artifact != null )
+                {
+                    copy = ArtifactUtils.copyArtifact( artifact );
+                    copies.put( key, copy );
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean containsKey( Object key )
+        {
+            return ( detached != null ) ? detached.containsKey( key ) : cached.containsKey( key );
+        }
+
+        @Override
+        public int size()
+        {
+            return ( detached != null ) ? detached.size() : cached.size();
+        }
+
+        @Override
+        public Artifact put( String key, Artifact value )
+        {
+            return detach().put( key, value );
+        }
+
+        @Override
+        public Artifact remove( Object key )
+        {
+            return detach().remove( key );
+        }
+
+        @Override
+        public void clear()
+        {
+            detach().clear();
+        }
+
+        @Override
+        public Set<Entry<String, Artifact>> entrySet()
+        {
+            return detach().entrySet();
+        }
+
+    }
+
 }
@@ -33,6 +33,7 @@
 import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
@@ -67,6 +68,7 @@
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.artifact.DefaultMavenMetadataCache.DescriptorRecord;
 import org.apache.maven.properties.internal.EnvironmentUtils;
 import org.apache.maven.properties.internal.SystemProperties;
 import org.apache.maven.repository.legacy.metadata.DefaultMetadataResolutionRequest;
@@ -198,7 +200,7 @@ public ResolutionGroup retrieve( MetadataResolutionRequest request )
 
             relocatedArtifact = rel.relocatedArtifact;
 
-            if ( rel.project == null )
+            if ( rel.descriptor == null )
             {
                 // When this happens we have a Maven 1.x POM, or some invalid POM.
                 // It should have never found its way into Maven 2.x repository but it did.
@@ -206,12 +208,11 @@ public ResolutionGroup retrieve( MetadataResolutionRequest request )
             }
             else
             {
-                dependencies = rel.project.getDependencies();
+                dependencies = rel.descriptor.getDependencies();
 
-                DependencyManagement depMgmt = rel.project.getDependencyManagement();
-                managedDependencies = ( depMgmt != null ) ? depMgmt.getDependencies() : null;
+                managedDependencies = rel.descriptor.getManagedDependencies();
 
-                pomRepositories = rel.project.getRemoteArtifactRepositories();
+                pomRepositories = rel.descriptor.getRemoteRepositories();
             }
         }
 
@@ -538,14 +539,14 @@ private ProjectBuilder getProjectBuilder()
     private ProjectRelocation retrieveRelocatedProject( Artifact artifact, MetadataResolutionRequest repositoryRequest )
         throws ArtifactMetadataRetrievalException
     {
-        MavenProject project;
+        DescriptorRecord descriptor;
 
         Artifact pomArtifact;
         Artifact relocatedArtifact = null;
         boolean done = false;
         do
         {
-            project = null;
+            descriptor = null;
 
             pomArtifact =
                 repositorySystem.createProjectArtifact( artifact.getGroupId(),
@@ -565,16 +566,7 @@ private ProjectRelocation retrieveRelocatedProject( Artifact artifact, MetadataR
             {
                 try
                 {
-                    ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
-                    configuration.setLocalRepository( repositoryRequest.getLocalRepository() );
-                    configuration.setRemoteRepositories( repositoryRequest.getRemoteRepositories() );
-                    configuration.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
-                    configuration.setProcessPlugins( false );
-                    configuration.setRepositoryMerging( ProjectBuildingRequest.RepositoryMerging.REQUEST_DOMINANT );
-                    configuration.setSystemProperties( getSystemProperties() );
-                    configuration.setRepositorySession( legacySupport.getRepositorySession() );
-
-                    project = getProjectBuilder().build( pomArtifact, configuration ).getProject();
+                    descriptor = getDescriptor( pomArtifact, repositoryRequest );
                 }
                 catch ( ProjectBuildingException e )
                 {
@@ -615,11 +607,11 @@ else if ( isNonTransferrablePom( e ) )
                     logger.warn( message );
                 }
 
-                if ( project != null )
+                if ( descriptor != null )
                 {
                     Relocation relocation = null;
 
-                    DistributionManagement distMgmt = project.getDistributionManagement();
+                    DistributionManagement distMgmt = descriptor.getDistributionManagement();
                     if ( distMgmt != null )
                     {
                         relocation = distMgmt.getRelocation();
@@ -634,20 +626,17 @@ else if ( isNonTransferrablePom( e ) )
                         {
                             artifact.setGroupId( relocation.getGroupId() );
                             relocatedArtifact = artifact;
-                            project.setGroupId( relocation.getGroupId() );
                         }
                         if ( relocation.getArtifactId() != null )
                         {
                             artifact.setArtifactId( relocation.getArtifactId() );
                             relocatedArtifact = artifact;
-                            project.setArtifactId( relocation.getArtifactId() );
                         }
                         if ( relocation.getVersion() != null )
                         {
                             // note: see MNG-3454. This causes a problem, but fixing it may break more.
                             artifact.setVersionRange( VersionRange.createFromVersion( relocation.getVersion() ) );
                             relocatedArtifact = artifact;
-                            project.setVersion( relocation.getVersion() );
                         }
 
                         if ( artifact.getDependencyFilter() != null
@@ -703,13 +692,70 @@ else if ( isNonTransferrablePom( e ) )
         while ( !done );
 
         ProjectRelocation rel = new ProjectRelocation();
-        rel.project = project;
+        rel.descriptor = descriptor;
         rel.pomArtifact = pomArtifact;
         rel.relocatedArtifact = relocatedArtifact;
 
         return rel;
     }
 
+    /**
+     * Gets the descriptor of the specified POM, building the project only if the cache holds no descriptor for it. The
+     * descriptor does not depend on the scope or filters of the artifact whose metadata is retrieved, so all variants
+     * of an artifact share a single project build.
+     */
+    private DescriptorRecord getDescriptor( Artifact pomArtifact, MetadataResolutionRequest repositoryRequest )
+        throws ProjectBuildingException
+    {
+        DefaultMavenMetadataCache descriptors =
+            ( cache instanceof DefaultMavenMetadataCache ) ? (DefaultMavenMetadataCache) cache : null;
+
+        Artifact keyArtifact = null;
+        if ( descriptors != null )
+        {
+            DescriptorRecord descriptor = descriptors.getDescriptor( pomArtifact,
+                                                                     repositoryRequest.getLocalRepository(),
+                                                                     repositoryRequest.getRemoteRepositories() );
+            if ( descriptor != null )
+            {
+                // update the POM artifact just like building the project would
+                pomArtifact.selectVersion( descriptor.getPomVersion() );
+                pomArtifact.setFile( descriptor.getPomFile() );
+                pomArtifact.setResolved( true );
+
+                return descriptor;
+            }
+
+            // the project building resolves the POM artifact, remember how it was requested
+            keyArtifact = ArtifactUtils.copyArtifact( pomArtifact );
+        }
+
+        ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
+        configuration.setLocalRepository( repositoryRequest.getLocalRepository() );
+        configuration.setRemoteRepositories( repositoryRequest.getRemoteRepositories() );
+        configuration.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+        configuration.setProcessPlugins( false );
+        configuration.setRepositoryMerging( ProjectBuildingRequest.RepositoryMerging.REQUEST_DOMINANT );
+        configuration.setSystemProperties( getSystemProperties() );
+        configuration.setRepositorySession( legacySupport.getRepositorySession() );
+
+        MavenProject project = getProjectBuilder().build( pomArtifact, configuration ).getProject();
+
+        DependencyManagement depMgmt = project.getDependencyManagement();
+        DescriptorRecord descriptor =
+            new DescriptorRecord( pomArtifact, project.getDependencies(),
+                                  ( depMgmt != null ) ? depMgmt.getDependencies() : null,
+                                  project.getDistributionManagement(), project.getRemoteArtifactRepositories() );
+
+        if ( descriptors != null )
+        {
+            descriptors.putDescriptor( keyArtifact, repositoryRequest.getLocalRepository(),
+                                       repositoryRequest.getRemoteRepositories(), descriptor );
+        }
+
+        return descriptor;
+    }
+
     private ModelProblem hasMissingParentPom( ProjectBuildingException e )
     {
         if ( e.getCause() instanceof ModelBuildingException )
@@ -760,7 +806,7 @@ private Properties getSystemProperties()
 
     private static final class ProjectRelocation
     {
-        private MavenProject project;
+        private DescriptorRecord descriptor;
 
         private Artifact pomArtifact;
 
@@ -0,0 +1,83 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+
+import junit.framework.TestCase;
+
+public class RepositoryUtilsTest
+    extends TestCase
+{
+
+    public void testEquallyConfiguredRepositoriesShareConversion()
+    {
+        RemoteRepository repo = RepositoryUtils.toRepo( newRepository( "http://repo.example.org/" ) );
+
+        assertEquals( "central", repo.getId() );
+        assertEquals( "default", repo.getContentType() );
+        assertSame( repo, RepositoryUtils.toRepo( newRepository( "http://repo.example.org/" ) ) );
+    }
+
+    public void testModifiedRepositoryIsConvertedAgain()
+    {
+        ArtifactRepository repository = newRepository( "http://repo.example.org/" );
+        RemoteRepository repo = RepositoryUtils.toRepo( repository );
+
+        repository.setUrl( "http://mirror.example.org/" );
+        RemoteRepository mirror = RepositoryUtils.toRepo( repository );
+
+        assertNotSame( repo, mirror );
+        assertEquals( "http://mirror.example.org/", mirror.getUrl() );
+    }
+
+    public void testHandlersAreSharedBetweenEqualArtifacts()
+    {
+        ArtifactHandler handler =
+            RepositoryUtils.toArtifact( new DefaultArtifact( "gid:aid:jar:1.0" ) ).getArtifactHandler();
+
+        assertEquals( "jar", handler.getExtension() );
+        assertSame( handler,
+                    RepositoryUtils.toArtifact( new DefaultArtifact( "gid:other:jar:2.0" ) ).getArtifactHandler() );
+        assertNotSame( handler,
+                       RepositoryUtils.toArtifact( new DefaultArtifact( "gid:aid:pom:1.0" ) ).getArtifactHandler() );
+    }
+
+    public void testNewHandlerReturnsFreshInstances()
+    {
+        ArtifactHandler handler = RepositoryUtils.newHandler( new DefaultArtifact( "gid:aid:jar:1.0" ) );
+
+        assertEquals( "jar", handler.getExtension() );
+        assertNotSame( handler, RepositoryUtils.newHandler( new DefaultArtifact( "gid:aid:jar:1.0" ) ) );
+    }
+
+    private static ArtifactRepository newRepository( String url )
+    {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy( true, "daily", "warn" );
+        return new MavenArtifactRepository( "central", url, new DefaultRepositoryLayout(), policy, policy );
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.apache.maven.artifact.repository;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.LocalArtifactRegistration;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalArtifactResult;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+
+import junit.framework.TestCase;
+
+public class LegacyLocalRepositoryManagerTest
+    extends TestCase
+{
+
+    private File basedir;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        basedir = new File( "target/test-local-repos/" + getName() ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        basedir.mkdirs();
+    }
+
+    public void testIndexedLookup()
+        throws Exception
+    {
+        RepositorySystemSession session = newSession( true );
+        LocalRepositoryManager lrm = session.getLocalRepositoryManager();
+        Artifact artifact = new DefaultArtifact( "gid:aid:jar:1.0" );
+
+        assertFalse( find( session, artifact ).isAvailable() );
+
+        File file = new File( basedir, lrm.getPathForLocalArtifact( artifact ) );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file, "jar" );
+        lrm.add( session, new LocalArtifactRegistration( artifact ) );
+
+        LocalArtifactResult result = find( session, artifact );
+        assertTrue( result.isAvailable() );
+        assertEquals( file, result.getFile() );
+
+        // the index remembers the artifact, the file system is no longer consulted
+        assertTrue( file.delete() );
+        assertTrue( find( session, artifact ).isAvailable() );
+    }
+
+    public void testIndexIgnoresRegistrationOfMissingFile()
+        throws Exception
+    {
+        RepositorySystemSession session = newSession( true );
+        LocalRepositoryManager lrm = session.getLocalRepositoryManager();
+        Artifact artifact = new DefaultArtifact( "gid:aid:jar:1.0" );
+
+        lrm.add( session, new LocalArtifactRegistration( artifact ) );
+        assertFalse( find( session, artifact ).isAvailable() );
+    }
+
+    public void testUnindexedLookup()
+        throws Exception
+    {
+        RepositorySystemSession session = newSession( false );
+        LocalRepositoryManager lrm = session.getLocalRepositoryManager();
+        Artifact artifact = new DefaultArtifact( "gid:aid:jar:1.0" );
+
+        File file = new File( basedir, lrm.getPathForLocalArtifact( artifact ) );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file, "jar" );
+        lrm.add( session, new LocalArtifactRegistration( artifact ) );
+        assertTrue( find( session, artifact ).isAvailable() );
+
+        assertTrue( file.delete() );
+        assertFalse( find( session, artifact ).isAvailable() );
+    }
+
+    private RepositorySystemSession newSession( boolean indexed )
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+        session.setConfigProperty( LegacyLocalRepositoryManager.CONFIG_PROP_INDEX, indexed );
+
+        ArtifactRepository repository =
+            new MavenArtifactRepository( "local", basedir.toURI().toString(), new DefaultRepositoryLayout(),
+                                         new ArtifactRepositoryPolicy(), new ArtifactRepositoryPolicy() );
+        return LegacyLocalRepositoryManager.overlay( repository, session, null );
+    }
+
+    private static LocalArtifactResult find( RepositorySystemSession session, Artifact artifact )
+    {
+        return session.getLocalRepositoryManager().find( session, new LocalArtifactRequest( artifact, null, null ) );
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.apache.maven.classrealm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.junit.Test;
+
+public class IndexedImportsClassLoaderTest
+{
+
+    private static ClassLoader newLoader()
+    {
+        return new URLClassLoader( new URL[0], null );
+    }
+
+    private static void assertSameImports( Map<String, ClassLoader> imports, List<String> names )
+        throws Exception
+    {
+        ClassRealm realm = new ClassWorld().newRealm( "test", null );
+        for ( Map.Entry<String, ClassLoader> entry : imports.entrySet() )
+        {
+            realm.importFrom( entry.getValue(), entry.getKey() );
+        }
+
+        IndexedImportsClassLoader index = new IndexedImportsClassLoader( "test", imports );
+
+        for ( String name : names )
+        {
+            assertSame( name, realm.getImportClassLoader( name ), index.getImportClassLoader( name ) );
+        }
+    }
+
+    @Test
+    public void testMatchesClassRealmImports()
+        throws Exception
+    {
+        Map<String, ClassLoader> imports = new LinkedHashMap<>();
+        imports.put( "org.apache.maven", newLoader() );
+        imports.put( "org.apache.maven.model", newLoader() );
+        imports.put( "org.apache.maven.model.*", newLoader() );
+        imports.put( "org.apache.maven.model.Model", newLoader() );
+        imports.put( "org.slf4j.*", newLoader() );
+        imports.put( "META-INF/maven/extension.xml", newLoader() );
+
+        assertSameImports( imports, Arrays.asList( "org.apache.maven.Maven", "org.apache.maven.model.Model",
+                                                   "org.apache.maven.model.Model$Inner",
+                                                   "org.apache.maven.model.Build",
+                                                   "org.apache.maven.model.io.ModelReader", "org.apache.mavenx.Foo",
+                                                   "org.slf4j.Logger", "org.slf4j.spi.LoggerFactoryBinder",
+                                                   "Default", "org/apache/maven/model/Model.class",
+                                                   "org/apache/maven/model/io/ModelReader.class",
+                                                   "org/apache/maven/model/Model$Inner.class",
+                                                   "org/slf4j/Logger.class", "org/slf4j/spi/Binder.class",
+                                                   "META-INF/maven/extension.xml", "META-INF/plexus/components.xml",
+                                                   "org/apache/maven" ) );
+    }
+
+    @Test
+    public void testMatchesClassRealmImportsWithDefaultImport()
+        throws Exception
+    {
+        Map<String, ClassLoader> imports = new LinkedHashMap<>();
+        imports.put( "", newLoader() );
+        imports.put( "org.apache.maven.plugin", newLoader() );
+
+        assertSameImports( imports, Arrays.asList( "org.apache.maven.plugin.Mojo", "org.apache.maven.plugins.Foo",
+                                                   "com.example.Foo", "org/apache/maven/plugin/Mojo.class",
+                                                   "com/example/foo.properties" ) );
+    }
+
+    @Test
+    public void testNotImportedClassFailsFast()
+        throws Exception
+    {
+        ClassLoader loader = getClass().getClassLoader();
+
+        Map<String, ClassLoader> imports = new LinkedHashMap<>();
+        imports.put( "org.junit", loader );
+
+        IndexedImportsClassLoader index = new IndexedImportsClassLoader( "test", imports );
+
+        assertSame( Test.class, index.loadClass( Test.class.getName() ) );
+        assertSame( String.class, index.loadClass( String.class.getName() ) );
+        assertNull( index.getResource( "org/apache/maven/classrealm/IndexedImportsClassLoaderTest.class" ) );
+
+        try
+        {
+            index.loadClass( getClass().getName() );
+            fail( "class is not imported" );
+        }
+        catch ( ClassNotFoundException e )
+        {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.apache.maven.internal.aether;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+
+public class DependencyCollectionCacheTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private RepositorySystem repoSystem;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        repoSystem = lookup( RepositorySystem.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        repoSystem = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/project-dependencies-resolver";
+    }
+
+    public void testCachedGraphsMatchRegularCollection()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+        MavenProject project = session.getCurrentProject();
+
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setConfigProperty( DependencyCollectionCache.CONFIG_PROP_ENABLED, "true" );
+        DependencyCollectionCache.install( repoSession );
+
+        for ( String module : new String[] { "first", "second" } )
+        {
+            CollectRequest request = new CollectRequest();
+            request.setRootArtifact( new DefaultArtifact( "org.apache.maven.test", module, "jar", "1.0" ) );
+            request.setRepositories( project.getRemoteProjectRepositories() );
+            request.setRequestContext( "project" );
+            request.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its:b:0.1" ), "compile" ) );
+            request.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its:a:0.1" ), "test" ) );
+
+            DependencyNode expected = repoSystem.collectDependencies( session.getRepositorySession(), request ).getRoot();
+            DependencyNode actual =
+                DependencyCollectionCache.collectDependencies( repoSystem, repoSession, request ).getRoot();
+
+            assertEquals( dump( expected ), dump( actual ) );
+        }
+    }
+
+    public void testGraphContainingRootArtifactMatchesRegularCollection()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+        MavenProject project = session.getCurrentProject();
+
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setConfigProperty( DependencyCollectionCache.CONFIG_PROP_ENABLED, "true" );
+        DependencyCollectionCache.install( repoSession );
+
+        CollectRequest request = new CollectRequest();
+        request.setRootArtifact( new DefaultArtifact( "org.apache.maven.its:a:1.0" ) );
+        request.setRepositories( project.getRemoteProjectRepositories() );
+        request.setRequestContext( "project" );
+        request.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its:b:0.1" ), "compile" ) );
+
+        DependencyNode expected = repoSystem.collectDependencies( session.getRepositorySession(), request ).getRoot();
+        DependencyNode actual =
+            DependencyCollectionCache.collectDependencies( repoSystem, repoSession, request ).getRoot();
+
+        assertEquals( dump( expected ), dump( actual ) );
+    }
+
+    private static String dump( DependencyNode root )
+    {
+        final StringBuilder buffer = new StringBuilder( 256 );
+        root.accept( new DependencyVisitor()
+        {
+            private String indent = "";
+
+            public boolean visitEnter( DependencyNode node )
+            {
+                buffer.append( indent ).append( node.getArtifact() );
+                if ( node.getDependency() != null )
+                {
+                    buffer.append( ':' ).append( node.getDependency().getScope() );
+                }
+                buffer.append( '\n' );
+                indent += "  ";
+                return true;
+            }
+
+            public boolean visitLeave( DependencyNode node )
+            {
+                indent = indent.substring( 2 );
+                return true;
+            }
+        } );
+        return buffer.toString();
+    }
+
+}
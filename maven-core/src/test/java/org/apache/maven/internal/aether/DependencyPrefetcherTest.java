@@ -0,0 +1,228 @@
+package org.apache.maven.internal.aether;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.internal.PluginDependenciesResolver;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectCollectRequestFactory;
+import org.apache.maven.project.RepositorySessionDecorator;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+
+import junit.framework.TestCase;
+
+public class DependencyPrefetcherTest
+    extends TestCase
+{
+
+    private RecordingRepositorySystem recorder;
+
+    private DependencyPrefetcher prefetcher;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        recorder = new RecordingRepositorySystem();
+        prefetcher =
+            new DependencyPrefetcher( new ConsoleLogger( Logger.LEVEL_DISABLED, "test" ),
+                                      newProxy( RepositorySystem.class, recorder ),
+                                      newProxy( PluginDependenciesResolver.class, recorder ),
+                                      new ProjectCollectRequestFactory(
+                                          Collections.<RepositorySessionDecorator>emptyList() ) );
+    }
+
+    public void testDisabledByDefault()
+        throws Exception
+    {
+        MavenSession session = newSession( null, newProject( "a", "external" ) );
+
+        DependencyPrefetcher.Prefetch prefetch = prefetcher.start( session );
+        assertTrue( prefetch.awaitTermination( 0, TimeUnit.SECONDS ) );
+        prefetch.cancel();
+
+        assertEquals( Collections.<String>emptyList(), recorder.collected );
+    }
+
+    public void testReactorProjectsNotFetched()
+        throws Exception
+    {
+        MavenSession session = newSession( 2, newProject( "a", "b", "external" ), newProject( "b" ) );
+
+        DependencyPrefetcher.Prefetch prefetch = prefetcher.start( session );
+        assertTrue( prefetch.awaitTermination( 10, TimeUnit.SECONDS ) );
+
+        assertEquals( 2, recorder.collected.size() );
+        assertEquals( Collections.singletonList( "test:external:jar:1.0" ), recorder.resolved );
+    }
+
+    public void testCancelStopsPrefetch()
+        throws Exception
+    {
+        recorder.blocked = new CountDownLatch( 1 );
+        MavenSession session = newSession( 1, newProject( "a", "external" ), newProject( "b", "external" ) );
+
+        DependencyPrefetcher.Prefetch prefetch = prefetcher.start( session );
+        assertTrue( recorder.blocked.await( 10, TimeUnit.SECONDS ) );
+        prefetch.cancel();
+
+        assertTrue( prefetch.awaitTermination( 10, TimeUnit.SECONDS ) );
+        assertEquals( 1, recorder.collected.size() );
+        assertEquals( Collections.<String>emptyList(), recorder.resolved );
+    }
+
+    private static MavenSession newSession( Integer threads, MavenProject... projects )
+    {
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        if ( threads != null )
+        {
+            repoSession.setConfigProperty( DependencyPrefetcher.CONFIG_PROP_THREADS, threads );
+        }
+
+        MavenSession session = new MavenSession( null, repoSession, new DefaultMavenExecutionRequest(),
+                                                 new DefaultMavenExecutionResult() );
+        session.setProjects( Arrays.asList( projects ) );
+        session.setAllProjects( Arrays.asList( projects ) );
+        return session;
+    }
+
+    private static MavenProject newProject( String artifactId, String... dependencies )
+    {
+        MavenProject project = new MavenProject();
+        project.setGroupId( "test" );
+        project.setArtifactId( artifactId );
+        project.setVersion( "1.0" );
+        project.setArtifact( new org.apache.maven.artifact.DefaultArtifact( "test", artifactId, "1.0", null, "jar",
+                                                                            null,
+                                                                            new DefaultArtifactHandler( "jar" ) ) );
+        for ( String dependency : dependencies )
+        {
+            Dependency dep = new Dependency();
+            dep.setGroupId( "test" );
+            dep.setArtifactId( dependency );
+            dep.setVersion( "1.0" );
+            project.getModel().addDependency( dep );
+        }
+        return project;
+    }
+
+    private static <T> T newProxy( Class<T> type, InvocationHandler handler )
+    {
+        return type.cast( Proxy.newProxyInstance( getClassLoader(), new Class<?>[] { type }, handler ) );
+    }
+
+    private static ClassLoader getClassLoader()
+    {
+        return DependencyPrefetcherTest.class.getClassLoader();
+    }
+
+    /**
+     * Collects the direct dependencies of a request as the graph and records the collected and resolved artifacts.
+     */
+    static class RecordingRepositorySystem
+        implements InvocationHandler
+    {
+
+        final List<String> collected = Collections.synchronizedList( new ArrayList<String>() );
+
+        final List<String> resolved = Collections.synchronizedList( new ArrayList<String>() );
+
+        volatile CountDownLatch blocked;
+
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            if ( "collectDependencies".equals( method.getName() ) )
+            {
+                return collect( (CollectRequest) args[1] );
+            }
+            if ( "resolveArtifacts".equals( method.getName() ) )
+            {
+                @SuppressWarnings( "unchecked" )
+                List<ArtifactRequest> requests = (List<ArtifactRequest>) args[1];
+                List<ArtifactResult> results = new ArrayList<>();
+                for ( ArtifactRequest request : requests )
+                {
+                    resolved.add( request.getArtifact().toString() );
+                    results.add( new ArtifactResult( request ).setArtifact( request.getArtifact() ) );
+                }
+                return results;
+            }
+            if ( method.getDeclaringClass() == Object.class )
+            {
+                return method.invoke( this, args );
+            }
+            throw new UnsupportedOperationException( method.getName() );
+        }
+
+        private CollectResult collect( CollectRequest request )
+        {
+            collected.add( request.getRootArtifact().toString() );
+
+            CollectResult result = new CollectResult( request );
+            if ( blocked != null )
+            {
+                blocked.countDown();
+                try
+                {
+                    // only a cancellation gets the prefetch past this point
+                    new CountDownLatch( 1 ).await();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    return result;
+                }
+            }
+
+            DefaultDependencyNode root = new DefaultDependencyNode( request.getRootArtifact() );
+            for ( org.eclipse.aether.graph.Dependency dependency : request.getDependencies() )
+            {
+                root.getChildren().add( new DefaultDependencyNode( dependency ) );
+            }
+            return result.setRoot( root );
+        }
+
+    }
+
+}
@@ -355,6 +355,39 @@ public void testTwoExpressions()
         assertEquals( "expected-directory" + File.separatorChar + "expected-finalName", value );
     }
 
+    public void testSameExpressionEvaluatedForDifferentProjects()
+        throws Exception
+    {
+        String expr = "${project.artifactId}-${project.version}.jar";
+
+        Model first = new Model();
+        first.setArtifactId( "first" );
+        first.setVersion( "1" );
+
+        Model second = new Model();
+        second.setArtifactId( "second" );
+        second.setVersion( "2" );
+
+        ExpressionEvaluator ee1 = createExpressionEvaluator( new MavenProject( first ), null, new Properties() );
+        ExpressionEvaluator ee2 = createExpressionEvaluator( new MavenProject( second ), null, new Properties() );
+
+        assertEquals( "first-1.jar", ee1.evaluate( expr ) );
+        assertEquals( "second-2.jar", ee2.evaluate( expr ) );
+        assertEquals( "first-1.jar", ee1.evaluate( expr ) );
+    }
+
+    public void testEscapedDollarsInLiteralTail()
+        throws Exception
+    {
+        Model model = new Model();
+        model.setVersion( "1" );
+
+        ExpressionEvaluator ee = createExpressionEvaluator( new MavenProject( model ), null, new Properties() );
+
+        assertEquals( "a$b", ee.evaluate( "a$$b" ) );
+        assertEquals( "1 costs $5", ee.evaluate( "${project.version} costs $$5" ) );
+    }
+
     public void testShouldExtractPluginArtifacts()
         throws Exception
     {
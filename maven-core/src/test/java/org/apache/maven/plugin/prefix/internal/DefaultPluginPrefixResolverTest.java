@@ -0,0 +1,112 @@
+package org.apache.maven.plugin.prefix.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.prefix.DefaultPluginPrefixRequest;
+import org.apache.maven.plugin.prefix.NoPluginFoundForPrefixException;
+import org.apache.maven.plugin.prefix.PluginPrefixResolver;
+import org.apache.maven.plugin.prefix.PluginPrefixResult;
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+
+public class DefaultPluginPrefixResolverTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private PluginPrefixResolver resolver;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        resolver = lookup( PluginPrefixResolver.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        resolver = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/lifecycle-executor";
+    }
+
+    public void testPrefixesResolvedFromSharedIndex()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+
+        final AtomicInteger resolutions = new AtomicInteger();
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setCache( new DefaultRepositoryCache() );
+        repoSession.setRepositoryListener( new AbstractRepositoryListener()
+        {
+            @Override
+            public void metadataResolving( RepositoryEvent event )
+            {
+                resolutions.incrementAndGet();
+            }
+        } );
+
+        PluginPrefixResult result = resolver.resolve( newRequest( "resources", session, repoSession ) );
+        assertEquals( "org.apache.maven.plugins", result.getGroupId() );
+        assertEquals( "maven-resources-plugin", result.getArtifactId() );
+
+        int count = resolutions.get();
+        assertTrue( count > 0 );
+
+        result = resolver.resolve( newRequest( "clean", session, repoSession ) );
+        assertEquals( "maven-clean-plugin", result.getArtifactId() );
+        assertEquals( count, resolutions.get() );
+
+        try
+        {
+            resolver.resolve( newRequest( "unknown", session, repoSession ) );
+            fail( "Expected the prefix to be unknown" );
+        }
+        catch ( NoPluginFoundForPrefixException e )
+        {
+            assertTrue( e.getMessage().contains( "unknown" ) );
+        }
+    }
+
+    private static DefaultPluginPrefixRequest newRequest( String prefix, MavenSession session,
+                                                          DefaultRepositorySystemSession repoSession )
+    {
+        DefaultPluginPrefixRequest request = new DefaultPluginPrefixRequest( prefix, session );
+        request.setRepositorySession( repoSession );
+        request.setPluginGroups( Collections.singletonList( "org.apache.maven.plugins" ) );
+        request.setPom( null );
+        return request;
+    }
+
+}
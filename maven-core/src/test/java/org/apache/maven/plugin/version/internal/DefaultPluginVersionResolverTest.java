@@ -0,0 +1,171 @@
+package org.apache.maven.plugin.version.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.version.DefaultPluginVersionRequest;
+import org.apache.maven.plugin.version.PluginVersionRequest;
+import org.apache.maven.plugin.version.PluginVersionResolutionException;
+import org.apache.maven.plugin.version.PluginVersionResolver;
+import org.apache.maven.plugin.version.PluginVersionResult;
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+
+public class DefaultPluginVersionResolverTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private DefaultPluginVersionResolver resolver;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        resolver = (DefaultPluginVersionResolver) lookup( PluginVersionResolver.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        resolver = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/lifecycle-executor";
+    }
+
+    public void testBatchResolutionUsesSessionCache()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+
+        final AtomicInteger resolutions = new AtomicInteger();
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setCache( new DefaultRepositoryCache() );
+        repoSession.setRepositoryListener( new AbstractRepositoryListener()
+        {
+            @Override
+            public void metadataResolving( RepositoryEvent event )
+            {
+                resolutions.incrementAndGet();
+            }
+        } );
+
+        List<PluginVersionRequest> requests =
+            newRequests( session, repoSession, "maven-clean-plugin", "maven-resources-plugin", "maven-jar-plugin" );
+
+        List<PluginVersionResult> results = resolver.resolve( requests );
+        assertEquals( 3, results.size() );
+        for ( PluginVersionResult result : results )
+        {
+            assertEquals( "0.1", result.getVersion() );
+        }
+
+        int count = resolutions.get();
+        assertTrue( count > 0 );
+
+        results = resolver.resolve( requests );
+        assertEquals( "0.1", results.get( 1 ).getVersion() );
+        assertEquals( "0.1", resolver.resolve( requests.get( 2 ) ).getVersion() );
+        assertEquals( count, resolutions.get() );
+    }
+
+    public void testBatchResolutionReportsFirstFailure()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setCache( new DefaultRepositoryCache() );
+
+        try
+        {
+            resolver.resolve( newRequests( session, repoSession, "maven-clean-plugin", "missing-a-plugin",
+                                           "missing-b-plugin" ) );
+            fail( "Expected the plugin version resolution to fail" );
+        }
+        catch ( PluginVersionResolutionException e )
+        {
+            assertEquals( "missing-a-plugin", e.getArtifactId() );
+        }
+
+        // same outcome when the versions are selected concurrently
+        repoSession.setConfigProperty( DefaultPluginVersionResolver.CONFIG_PROP_THREADS, 3 );
+        try
+        {
+            resolver.resolve( newRequests( session, repoSession, "maven-clean-plugin", "missing-a-plugin",
+                                           "missing-b-plugin" ) );
+            fail( "Expected the plugin version resolution to fail" );
+        }
+        catch ( PluginVersionResolutionException e )
+        {
+            assertEquals( "missing-a-plugin", e.getArtifactId() );
+        }
+    }
+
+    public void testConcurrentBatchResolution()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setConfigProperty( DefaultPluginVersionResolver.CONFIG_PROP_THREADS, 3 );
+
+        List<PluginVersionResult> results = resolver.resolve(
+            newRequests( session, repoSession, "maven-clean-plugin", "maven-resources-plugin", "maven-jar-plugin" ) );
+        assertEquals( 3, results.size() );
+        for ( PluginVersionResult result : results )
+        {
+            assertEquals( "0.1", result.getVersion() );
+        }
+    }
+
+    private static List<PluginVersionRequest> newRequests( MavenSession session,
+                                                           DefaultRepositorySystemSession repoSession,
+                                                           String... artifactIds )
+    {
+        List<PluginVersionRequest> requests = new ArrayList<>();
+        for ( String artifactId : Arrays.asList( artifactIds ) )
+        {
+            Plugin plugin = new Plugin();
+            plugin.setGroupId( "org.apache.maven.plugins" );
+            plugin.setArtifactId( artifactId );
+            requests.add( new DefaultPluginVersionRequest( plugin, repoSession,
+                                                           session.getCurrentProject().getRemotePluginRepositories() ) );
+        }
+        return requests;
+    }
+
+}
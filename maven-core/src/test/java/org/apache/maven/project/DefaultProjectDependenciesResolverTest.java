@@ -0,0 +1,170 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.ArtifactTypeRegistry;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.util.artifact.DefaultArtifactTypeRegistry;
+
+public class DefaultProjectDependenciesResolverTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private ProjectDependenciesResolver resolver;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        resolver = lookup( ProjectDependenciesResolver.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        resolver = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/project-dependencies-resolver";
+    }
+
+    public void testConcurrentResolutionKeepsOrderAndErrors()
+        throws Exception
+    {
+        DependencyResolutionException sequential = resolve( 1 );
+        DependencyResolutionException concurrent = resolve( 3 );
+
+        assertEquals( sequential.getMessage(), concurrent.getMessage() );
+
+        DependencyResolutionResult expected = sequential.getResult();
+        DependencyResolutionResult actual = concurrent.getResult();
+        assertEquals( 4, expected.getResolvedDependencies().size() );
+        assertEquals( toIds( expected.getResolvedDependencies() ), toIds( actual.getResolvedDependencies() ) );
+        assertEquals( toIds( expected.getUnresolvedDependencies() ), toIds( actual.getUnresolvedDependencies() ) );
+        for ( Dependency dependency : actual.getResolvedDependencies() )
+        {
+            assertNotNull( dependency.getArtifact().getFile() );
+        }
+    }
+
+    public void testConcurrentResolutionLimitedPerRepository()
+        throws Exception
+    {
+        DependencyResolutionException sequential = resolve( 1, 1 );
+        DependencyResolutionException limited = resolve( 3, 1 );
+
+        assertEquals( sequential.getMessage(), limited.getMessage() );
+        assertEquals( toIds( sequential.getResult().getResolvedDependencies() ),
+                      toIds( limited.getResult().getResolvedDependencies() ) );
+        assertEquals( toIds( sequential.getResult().getUnresolvedDependencies() ),
+                      toIds( limited.getResult().getUnresolvedDependencies() ) );
+    }
+
+    public void testManagedDependenciesSharedAcrossEqualManagementSections()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+        ArtifactTypeRegistry stereotypes = new DefaultArtifactTypeRegistry();
+
+        List<org.apache.maven.model.Dependency> first = newManagedDependencies( "1.0" );
+        List<Dependency> managed =
+            DefaultProjectDependenciesResolver.getManagedDependencies( session, first, stereotypes );
+        assertEquals( 2, managed.size() );
+        assertEquals( "b", managed.get( 1 ).getArtifact().getArtifactId() );
+
+        assertSame( managed, DefaultProjectDependenciesResolver.getManagedDependencies(
+            session, newManagedDependencies( "1.0" ), stereotypes ) );
+        assertNotSame( managed, DefaultProjectDependenciesResolver.getManagedDependencies(
+            session, newManagedDependencies( "2.0" ), stereotypes ) );
+    }
+
+    private static List<org.apache.maven.model.Dependency> newManagedDependencies( String version )
+    {
+        List<org.apache.maven.model.Dependency> dependencies = new ArrayList<>();
+        for ( String artifactId : new String[] { "a", "b" } )
+        {
+            org.apache.maven.model.Dependency dependency = new org.apache.maven.model.Dependency();
+            dependency.setGroupId( "org.apache.maven.its" );
+            dependency.setArtifactId( artifactId );
+            dependency.setVersion( version );
+            dependencies.add( dependency );
+        }
+        return dependencies;
+    }
+
+    private DependencyResolutionException resolve( int threads )
+        throws Exception
+    {
+        return resolve( threads, threads );
+    }
+
+    private DependencyResolutionException resolve( int threads, int threadsPerRepository )
+        throws Exception
+    {
+        MavenSession session = createMavenSession( null );
+        MavenProject project = session.getCurrentProject();
+
+        String path = new File( getBasedir(), "pom.xml" ).getAbsolutePath();
+        ProjectBuilder builder = new ProjectBuilder( project );
+        for ( int i = 0; i < 5; i++ )
+        {
+            builder.addDependency( "com.mycompany", "system-" + i, "1.0", Artifact.SCOPE_SYSTEM,
+                                   i == 2 ? path + ".missing" : path );
+        }
+
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( session.getRepositorySession() );
+        repoSession.setConfigProperty( DefaultProjectDependenciesResolver.CONFIG_PROP_THREADS, threads );
+        repoSession.setConfigProperty( DefaultProjectDependenciesResolver.CONFIG_PROP_THREADS_PER_REPOSITORY,
+                                       threadsPerRepository );
+
+        try
+        {
+            resolver.resolve( new DefaultDependencyResolutionRequest( project, repoSession ) );
+            fail( "Expected dependency resolution to fail" );
+            return null;
+        }
+        catch ( DependencyResolutionException e )
+        {
+            return e;
+        }
+    }
+
+    private static List<String> toIds( List<Dependency> dependencies )
+    {
+        List<String> ids = new ArrayList<>();
+        for ( Dependency dependency : dependencies )
+        {
+            ids.add( dependency.getArtifact().toString() );
+        }
+        return ids;
+    }
+
+}
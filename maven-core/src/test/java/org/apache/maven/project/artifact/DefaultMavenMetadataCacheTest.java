@@ -19,13 +19,21 @@
  * under the License.
  */
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.project.artifact.DefaultMavenMetadataCache.CacheKey;
+import org.apache.maven.project.artifact.DefaultMavenMetadataCache.DescriptorRecord;
 import org.apache.maven.repository.DelegatingLocalArtifactRepository;
 import org.apache.maven.repository.RepositorySystem;
 import org.codehaus.plexus.PlexusTestCase;
@@ -78,4 +86,129 @@ public void testCacheKey()
 
         assertEquals(k1.hashCode(), k2.hashCode());
     }
+
+    public void testCacheHitsAreIndependentCopies()
+        throws Exception
+    {
+        DefaultMavenMetadataCache cache = new DefaultMavenMetadataCache();
+        ArtifactRepository lr = repositorySystem.createDefaultLocalRepository();
+        List<ArtifactRepository> rrs = Collections.singletonList( repositorySystem.createDefaultRemoteRepository() );
+        Artifact pom = repositorySystem.createArtifact( "testGroup", "testArtifact", "1.0", "pom" );
+
+        assertNull( cache.get( pom, true, lr, rrs ) );
+
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        artifacts.add( repositorySystem.createArtifact( "testGroup", "a", "1.0", "compile", "jar" ) );
+        artifacts.add( repositorySystem.createArtifact( "testGroup", "b", "1.0", "compile", "jar" ) );
+        Map<String, Artifact> managedVersions = Collections.singletonMap(
+            "testGroup:c:jar", repositorySystem.createArtifact( "testGroup", "c", "2.0", "compile", "jar" ) );
+        cache.put( pom, true, lr, rrs, new ResolutionGroup( pom, null, artifacts, managedVersions, rrs ) );
+
+        ResolutionGroup first = cache.get( pom, true, lr, rrs );
+        Artifact a = first.getArtifacts().iterator().next();
+        assertSame( a, first.getArtifacts().iterator().next() );
+        a.setScope( "test" );
+        first.getManagedVersions().get( "testGroup:c:jar" ).setVersion( "3.0" );
+        first.getArtifacts().add( repositorySystem.createArtifact( "testGroup", "d", "1.0", "compile", "jar" ) );
+        assertEquals( 3, first.getArtifacts().size() );
+        assertEquals( "test", first.getArtifacts().iterator().next().getScope() );
+
+        ResolutionGroup second = cache.get( pom, true, lr, rrs );
+        assertEquals( 2, second.getArtifacts().size() );
+        assertEquals( "compile", second.getArtifacts().iterator().next().getScope() );
+        assertEquals( "2.0", second.getManagedVersions().get( "testGroup:c:jar" ).getVersion() );
+        assertNotSame( a, second.getArtifacts().iterator().next() );
+
+        assertEquals( 2, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+    }
+
+    public void testDescriptorSharedUntilPomChanges()
+        throws Exception
+    {
+        DefaultMavenMetadataCache cache = new DefaultMavenMetadataCache();
+        ArtifactRepository lr = repositorySystem.createDefaultLocalRepository();
+        List<ArtifactRepository> rrs = Collections.singletonList( repositorySystem.createDefaultRemoteRepository() );
+
+        File pomFile = File.createTempFile( "descriptor", ".pom" );
+        pomFile.deleteOnExit();
+
+        Artifact requested = repositorySystem.createProjectArtifact( "testGroup", "testArtifact", "1.0" );
+        Artifact built = repositorySystem.createProjectArtifact( "testGroup", "testArtifact", "1.0" );
+        built.setFile( pomFile );
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "testGroup" );
+        dependency.setArtifactId( "a" );
+        dependency.setVersion( "1.0" );
+        DescriptorRecord descriptor =
+            new DescriptorRecord( built, Collections.singletonList( dependency ), null, null, rrs );
+
+        assertNull( cache.getDescriptor( requested, lr, rrs ) );
+        cache.putDescriptor( requested, lr, rrs, descriptor );
+
+        Artifact other = repositorySystem.createProjectArtifact( "testGroup", "testArtifact", "1.0" );
+        other.setScope( Artifact.SCOPE_TEST );
+        assertSame( descriptor, cache.getDescriptor( other, lr, rrs ) );
+        assertEquals( pomFile, descriptor.getPomFile() );
+        assertEquals( 1, descriptor.getDependencies().size() );
+
+        assertTrue( pomFile.setLastModified( pomFile.lastModified() - 10000 ) );
+        assertNull( cache.getDescriptor( other, lr, rrs ) );
+
+        Artifact missing = repositorySystem.createProjectArtifact( "testGroup", "missing", "1.0" );
+        cache.putDescriptor( missing, lr, rrs,
+                             new DescriptorRecord( missing, Collections.<Dependency>emptyList(), null, null, rrs ) );
+        assertNull( cache.getDescriptor( missing, lr, rrs ) );
+
+        assertEquals( 1, cache.getDescriptorHitCount() );
+        assertEquals( 3, cache.getDescriptorMissCount() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 0, cache.getMissCount() );
+    }
+
+    public void testLeastRecentlyUsedRecordsEvicted()
+        throws Exception
+    {
+        DefaultMavenMetadataCache cache = new DefaultMavenMetadataCache( 4 );
+        ArtifactRepository lr = repositorySystem.createDefaultLocalRepository();
+        List<ArtifactRepository> rrs = Collections.singletonList( repositorySystem.createDefaultRemoteRepository() );
+
+        Artifact[] poms = new Artifact[5];
+        for ( int i = 0; i < poms.length; i++ )
+        {
+            poms[i] = repositorySystem.createArtifact( "testGroup", "artifact" + i, "1.0", "pom" );
+            Set<Artifact> artifacts = Collections.emptySet();
+            cache.put( poms[i], false, lr, rrs, new ResolutionGroup( poms[i], artifacts, rrs ) );
+            if ( i == 0 )
+            {
+                assertNotNull( cache.get( poms[0], false, lr, rrs ) );
+            }
+            if ( i == 3 )
+            {
+                assertNotNull( cache.get( poms[0], false, lr, rrs ) );
+            }
+        }
+
+        assertEquals( 1, cache.getEvictionCount() );
+        assertNotNull( cache.get( poms[0], false, lr, rrs ) );
+        assertNull( cache.get( poms[1], false, lr, rrs ) );
+        assertNotNull( cache.get( poms[4], false, lr, rrs ) );
+    }
+
+    public void testZeroMaxSizeDisablesCache()
+        throws Exception
+    {
+        DefaultMavenMetadataCache cache = new DefaultMavenMetadataCache( 0 );
+        ArtifactRepository lr = repositorySystem.createDefaultLocalRepository();
+        List<ArtifactRepository> rrs = Collections.singletonList( repositorySystem.createDefaultRemoteRepository() );
+
+        Artifact pom = repositorySystem.createArtifact( "testGroup", "artifact", "1.0", "pom" );
+        Set<Artifact> artifacts = Collections.emptySet();
+        cache.put( pom, false, lr, rrs, new ResolutionGroup( pom, artifacts, rrs ) );
+        cache.put( pom, false, lr, rrs, new ResolutionGroup( pom, artifacts, rrs ) );
+
+        assertNull( cache.get( pom, false, lr, rrs ) );
+        assertEquals( 0, cache.getEvictionCount() );
+    }
 }
@@ -20,7 +20,6 @@
  */
 
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositoryEvent.EventType;
 import org.eclipse.aether.RepositorySystemSession;
@@ -55,8 +54,6 @@
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -258,18 +255,30 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
         {
             if ( metadata != null )
             {
-                try ( SyncContext syncContext = syncContextFactory.newInstance( session, true ) )
+                org.apache.maven.artifact.repository.metadata.Metadata repoMetadata = null;
+
+                if ( metadata.getFile() != null )
                 {
-                    syncContext.acquire( null, Collections.singleton( metadata ) );
+                    repoMetadata = MetadataParsingCache.get( session, metadata.getFile() );
+                }
 
-                    if ( metadata.getFile() != null && metadata.getFile().exists() )
+                if ( repoMetadata == null )
+                {
+                    try ( SyncContext syncContext = syncContextFactory.newInstance( session, true ) )
                     {
-                        try ( final InputStream in = new FileInputStream( metadata.getFile() ) )
+                        syncContext.acquire( null, Collections.singleton( metadata ) );
+
+                        if ( metadata.getFile() != null && metadata.getFile().exists() )
                         {
-                            versioning = new MetadataXpp3Reader().read( in, false ).getVersioning();
+                            repoMetadata = MetadataParsingCache.read( session, metadata.getFile() );
                         }
                     }
                 }
+
+                if ( repoMetadata != null )
+                {
+                    versioning = repoMetadata.getVersioning();
+                }
             }
         }
         catch ( Exception e )
@@ -22,7 +22,6 @@
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositoryEvent;
@@ -40,7 +39,9 @@
 import org.eclipse.aether.metadata.Metadata;
 import org.eclipse.aether.repository.ArtifactRepository;
 import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
 import org.eclipse.aether.repository.WorkspaceReader;
 import org.eclipse.aether.repository.WorkspaceRepository;
 import org.eclipse.aether.resolution.MetadataRequest;
@@ -60,15 +61,18 @@
 import javax.inject.Singleton;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Benjamin Bentmann
@@ -87,6 +91,22 @@
 
     private static final String SNAPSHOT = "SNAPSHOT";
 
+    /**
+     * The time in milliseconds results may be reused across repository sessions, {@code 0} to disable the cache. This
+     * is mostly useful when Maven is embedded and runs many builds in the same process.
+     */
+    static final String CONFIG_PROP_SHARED_CACHE_TTL = "maven.versionResolver.sharedCache.ttl";
+
+    /**
+     * The maximum number of results held by the cache shared across repository sessions. Once reached, expired results
+     * are pruned and further results are not cached until entries expire.
+     */
+    static final String CONFIG_PROP_SHARED_CACHE_SIZE = "maven.versionResolver.sharedCache.size";
+
+    private static final int DEFAULT_SHARED_CACHE_SIZE = 10000;
+
+    private final ConcurrentMap<Key, SharedRecord> sharedCache = new ConcurrentHashMap<>();
+
     @SuppressWarnings( "unused" )
     private Logger logger = NullLoggerFactory.LOGGER;
 
@@ -179,8 +199,51 @@ public VersionResult resolveVersion( RepositorySystemSession session, VersionReq
             }
         }
 
+        // the reactor always wins over the repositories, so look there before consulting the shared cache
+        WorkspaceReader workspace = session.getWorkspaceReader();
+        boolean inWorkspace = version.endsWith( SNAPSHOT ) && workspace != null
+            && workspace.findVersions( artifact ).contains( version );
+
+        long sharedCacheTtl = ConfigUtils.getLong( session, 0L, CONFIG_PROP_SHARED_CACHE_TTL );
+        Metadata.Nature sharedNature = null;
+        if ( RELEASE.equals( version ) )
+        {
+            sharedNature = Metadata.Nature.RELEASE;
+        }
+        else if ( version.endsWith( SNAPSHOT ) )
+        {
+            sharedNature = Metadata.Nature.SNAPSHOT;
+        }
+        Key sharedCacheKey = null;
+        // an update policy that demands a check (e.g. -U) must not be answered from an earlier session's result
+        if ( sharedCacheTtl > 0L && sharedNature != null && !inWorkspace
+            && getUpdateInterval( session, request, sharedNature, System.currentTimeMillis() ) > 0L )
+        {
+            sharedCacheKey = new Key( session, request, false );
+
+            SharedRecord record = sharedCache.get( sharedCacheKey );
+            if ( record != null )
+            {
+                if ( record.isValid( System.currentTimeMillis() ) )
+                {
+                    result.setVersion( record.version );
+                    result.setRepository(
+                        CacheUtils.getRepository( session, request.getRepositories(), record.repoClass,
+                                                  record.repoId ) );
+                    if ( cacheKey != null )
+                    {
+                        cache.put( session, cacheKey, record );
+                    }
+                    return result;
+                }
+                sharedCache.remove( sharedCacheKey, record );
+            }
+        }
+
         Metadata metadata;
 
+        List<File> metadataFiles = null;
+
         if ( RELEASE.equals( version ) )
         {
             metadata = new DefaultMetadata( artifact.getGroupId(), artifact.getArtifactId(), MAVEN_METADATA_XML,
@@ -193,8 +256,7 @@ else if ( LATEST.equals( version ) )
         }
         else if ( version.endsWith( SNAPSHOT ) )
         {
-            WorkspaceReader workspace = session.getWorkspaceReader();
-            if ( workspace != null && workspace.findVersions( artifact ).contains( version ) )
+            if ( inWorkspace )
             {
                 metadata = null;
                 result.setRepository( workspace.getRepository() );
@@ -235,6 +297,11 @@ else if ( version.endsWith( SNAPSHOT ) )
 
             Map<String, VersionInfo> infos = new HashMap<>();
 
+            if ( sharedCacheKey != null )
+            {
+                metadataFiles = getLocalMetadataFiles( session, metadataReqs );
+            }
+
             for ( MetadataResult metadataResult : metadataResults )
             {
                 result.addException( metadataResult.getException() );
@@ -303,9 +370,136 @@ else if ( LATEST.equals( version ) )
             cache.put( session, cacheKey, new Record( result.getVersion(), result.getRepository() ) );
         }
 
+        if ( sharedCacheKey != null && metadata != null && result.getExceptions().isEmpty()
+            && isSafelyCacheable( session, artifact ) )
+        {
+            long now = System.currentTimeMillis();
+            long ttl = Math.min( sharedCacheTtl, getUpdateInterval( session, request, metadata.getNature(), now ) );
+            if ( ttl > 0L && hasSharedCacheCapacity( session, now ) )
+            {
+                sharedCache.put( sharedCacheKey,
+                                 new SharedRecord( result.getVersion(), result.getRepository(), now + ttl,
+                                                   metadataFiles ) );
+            }
+        }
+
         return result;
     }
 
+    /**
+     * Checks whether the shared cache may take another result, pruning expired results once it is full.
+     */
+    private boolean hasSharedCacheCapacity( RepositorySystemSession session, long now )
+    {
+        int maxSize = ConfigUtils.getInteger( session, DEFAULT_SHARED_CACHE_SIZE, CONFIG_PROP_SHARED_CACHE_SIZE );
+        if ( sharedCache.size() < maxSize )
+        {
+            return true;
+        }
+        for ( Iterator<SharedRecord> it = sharedCache.values().iterator(); it.hasNext(); )
+        {
+            if ( now >= it.next().expires )
+            {
+                it.remove();
+            }
+        }
+        return sharedCache.size() < maxSize;
+    }
+
+    /**
+     * Gets the files in the local repository that hold the requested metadata, whether they exist yet or not.
+     */
+    private List<File> getLocalMetadataFiles( RepositorySystemSession session, List<MetadataRequest> requests )
+    {
+        LocalRepositoryManager lrm = session.getLocalRepositoryManager();
+        File basedir = lrm.getRepository().getBasedir();
+
+        List<File> files = new ArrayList<>( requests.size() );
+        for ( MetadataRequest request : requests )
+        {
+            String path;
+            if ( request.getRepository() == null )
+            {
+                path = lrm.getPathForLocalMetadata( request.getMetadata() );
+            }
+            else
+            {
+                path = lrm.getPathForRemoteMetadata( request.getMetadata(), request.getRepository(),
+                                                     request.getRequestContext() );
+            }
+            files.add( new File( basedir, path ) );
+        }
+        return files;
+    }
+
+    /**
+     * Gets the time in milliseconds until the most eager update policy that applies to the request would check the
+     * remote repositories again, i.e. the time a resolution result can be reused without violating update policies.
+     */
+    private long getUpdateInterval( RepositorySystemSession session, VersionRequest request, Metadata.Nature nature,
+                                    long now )
+    {
+        long interval = Long.MAX_VALUE;
+
+        if ( StringUtils.isNotEmpty( session.getUpdatePolicy() ) )
+        {
+            return getUpdateInterval( session.getUpdatePolicy(), now );
+        }
+
+        for ( RemoteRepository repository : request.getRepositories() )
+        {
+            if ( nature != Metadata.Nature.SNAPSHOT )
+            {
+                interval = Math.min( interval, getUpdateInterval( repository.getPolicy( false ), now ) );
+            }
+            if ( nature != Metadata.Nature.RELEASE )
+            {
+                interval = Math.min( interval, getUpdateInterval( repository.getPolicy( true ), now ) );
+            }
+        }
+
+        return interval;
+    }
+
+    private static long getUpdateInterval( RepositoryPolicy policy, long now )
+    {
+        return policy.isEnabled() ? getUpdateInterval( policy.getUpdatePolicy(), now ) : Long.MAX_VALUE;
+    }
+
+    private static long getUpdateInterval( String policy, long now )
+    {
+        if ( RepositoryPolicy.UPDATE_POLICY_NEVER.equals( policy ) )
+        {
+            return Long.MAX_VALUE;
+        }
+        else if ( RepositoryPolicy.UPDATE_POLICY_ALWAYS.equals( policy ) )
+        {
+            return 0L;
+        }
+        else if ( policy != null && policy.startsWith( RepositoryPolicy.UPDATE_POLICY_INTERVAL ) )
+        {
+            try
+            {
+                String minutes = policy.substring( RepositoryPolicy.UPDATE_POLICY_INTERVAL.length() + 1 );
+                return TimeUnit.MINUTES.toMillis( Long.parseLong( minutes ) );
+            }
+            catch ( RuntimeException e )
+            {
+                // unparseable, fall back to daily like the update check manager does
+            }
+        }
+
+        // daily, i.e. until the next midnight
+        Calendar midnight = Calendar.getInstance();
+        midnight.setTimeInMillis( now );
+        midnight.set( Calendar.HOUR_OF_DAY, 0 );
+        midnight.set( Calendar.MINUTE, 0 );
+        midnight.set( Calendar.SECOND, 0 );
+        midnight.set( Calendar.MILLISECOND, 0 );
+        midnight.add( Calendar.DAY_OF_MONTH, 1 );
+        return midnight.getTimeInMillis() - now;
+    }
+
     private boolean resolve( VersionResult result, Map<String, VersionInfo> infos, String key )
     {
         VersionInfo info = infos.get( key );
@@ -325,38 +519,50 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
         {
             if ( metadata != null )
             {
-                try ( SyncContext syncContext = syncContextFactory.newInstance( session, true ) )
+                org.apache.maven.artifact.repository.metadata.Metadata repoMetadata = null;
+
+                if ( metadata.getFile() != null )
                 {
-                    syncContext.acquire( null, Collections.singleton( metadata ) );
+                    repoMetadata = MetadataParsingCache.get( session, metadata.getFile() );
+                }
 
-                    if ( metadata.getFile() != null && metadata.getFile().exists() )
+                if ( repoMetadata == null )
+                {
+                    try ( SyncContext syncContext = syncContextFactory.newInstance( session, true ) )
                     {
-                        try ( final InputStream in = new FileInputStream( metadata.getFile() ) )
+                        syncContext.acquire( null, Collections.singleton( metadata ) );
+
+                        if ( metadata.getFile() != null && metadata.getFile().exists() )
                         {
-                            versioning = new MetadataXpp3Reader().read( in, false ).getVersioning();
-
-                            /*
-                            NOTE: Users occasionally misuse the id "local" for remote repos which screws up the metadata
-                            of the local repository. This is especially troublesome during snapshot resolution so we try
-                            to handle that gracefully.
-                             */
-                            if ( versioning != null && repository instanceof LocalRepository
-                                     && versioning.getSnapshot() != null
-                                     && versioning.getSnapshot().getBuildNumber() > 0 )
-                            {
-                                final Versioning repaired = new Versioning();
-                                repaired.setLastUpdated( versioning.getLastUpdated() );
-                                repaired.setSnapshot( new Snapshot() );
-                                repaired.getSnapshot().setLocalCopy( true );
-                                versioning = repaired;
-                                throw new IOException( "Snapshot information corrupted with remote repository data"
-                                                           + ", please verify that no remote repository uses the id '"
-                                                           + repository.getId() + "'" );
-
-                            }
+                            repoMetadata = MetadataParsingCache.read( session, metadata.getFile() );
                         }
                     }
                 }
+
+                if ( repoMetadata != null )
+                {
+                    versioning = repoMetadata.getVersioning();
+
+                    /*
+                    NOTE: Users occasionally misuse the id "local" for remote repos which screws up the metadata
+                    of the local repository. This is especially troublesome during snapshot resolution so we try
+                    to handle that gracefully.
+                     */
+                    if ( versioning != null && repository instanceof LocalRepository
+                             && versioning.getSnapshot() != null
+                             && versioning.getSnapshot().getBuildNumber() > 0 )
+                    {
+                        final Versioning repaired = new Versioning();
+                        repaired.setLastUpdated( versioning.getLastUpdated() );
+                        repaired.setSnapshot( new Snapshot() );
+                        repaired.getSnapshot().setLocalCopy( true );
+                        versioning = repaired;
+                        throw new IOException( "Snapshot information corrupted with remote repository data"
+                                                   + ", please verify that no remote repository uses the id '"
+                                                   + repository.getId() + "'" );
+
+                    }
+                }
             }
         }
         catch ( Exception e )
@@ -514,6 +720,11 @@ boolean isOutdated( String timestamp )
         private final int hashCode;
 
         Key( RepositorySystemSession session, VersionRequest request )
+        {
+            this( session, request, true );
+        }
+
+        Key( RepositorySystemSession session, VersionRequest request, boolean includeWorkspace )
         {
             Artifact artifact = request.getArtifact();
             groupId = artifact.getGroupId();
@@ -522,7 +733,7 @@ boolean isOutdated( String timestamp )
             extension = artifact.getExtension();
             version = artifact.getVersion();
             localRepo = session.getLocalRepository().getBasedir();
-            workspace = CacheUtils.getWorkspace( session );
+            workspace = includeWorkspace ? CacheUtils.getWorkspace( session ) : null;
             repositories = new ArrayList<>( request.getRepositories().size() );
             boolean repoMan = false;
             for ( RemoteRepository repository : request.getRepositories() )
@@ -602,4 +813,47 @@ public int hashCode()
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * A resolution result shared across sessions. Besides expiring, the record is invalidated when any of the metadata
+     * files in the local repository it was resolved from is created or changed, e.g. by installing or deploying a new
+     * snapshot.
+     */
+    private static class SharedRecord
+        extends Record
+    {
+        final long expires;
+
+        final File[] files;
+
+        final long[] lastModified;
+
+        SharedRecord( String version, ArtifactRepository repository, long expires, List<File> files )
+        {
+            super( version, repository );
+            this.expires = expires;
+            this.files = files.toArray( new File[files.size()] );
+            this.lastModified = new long[this.files.length];
+            for ( int i = 0; i < this.files.length; i++ )
+            {
+                lastModified[i] = this.files[i].lastModified();
+            }
+        }
+
+        boolean isValid( long now )
+        {
+            if ( now >= expires )
+            {
+                return false;
+            }
+            for ( int i = 0; i < files.length; i++ )
+            {
+                if ( files[i].lastModified() != lastModified[i] )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
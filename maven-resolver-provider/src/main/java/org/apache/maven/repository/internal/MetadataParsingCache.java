@@ -0,0 +1,153 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+
+/**
+ * Parses {@code maven-metadata.xml} files leniently and remembers the parsed content in the repository system cache,
+ * keyed by the path, size and modification time of the file. Version, version range, plugin version and plugin prefix
+ * resolution thus parse each metadata file only once per session unless it is changed in the meantime. The cached
+ * metadata itself is never handed out, callers get their own copy to modify as they please.
+ *
+ * @since 3.6.0
+ */
+public final class MetadataParsingCache
+{
+
+    private MetadataParsingCache()
+    {
+        // hide constructor
+    }
+
+    /**
+     * Gets a previously parsed copy of the specified metadata file if the file has not changed since.
+     *
+     * @param session The repository session whose cache to use, must not be {@code null}.
+     * @param file The metadata file, must not be {@code null}.
+     * @return A copy of the parsed metadata or {@code null} if the file was not yet parsed or has changed.
+     */
+    public static Metadata get( RepositorySystemSession session, File file )
+    {
+        RepositoryCache cache = session.getCache();
+        if ( cache == null )
+        {
+            return null;
+        }
+
+        Object metadata = cache.get( session, new Key( file ) );
+        return ( metadata instanceof Metadata ) ? ( (Metadata) metadata ).clone() : null;
+    }
+
+    /**
+     * Reads the specified metadata file, reusing the result of a previous read if the file has not changed since.
+     *
+     * @param session The repository session whose cache to use, must not be {@code null}.
+     * @param file The metadata file to read, must not be {@code null}.
+     * @return A copy of the parsed metadata, never {@code null}.
+     * @throws IOException If the file could not be read or parsed.
+     */
+    public static Metadata read( RepositorySystemSession session, File file )
+        throws IOException
+    {
+        RepositoryCache cache = session.getCache();
+        if ( cache == null )
+        {
+            return parse( file );
+        }
+
+        Key key = new Key( file );
+
+        Object cached = cache.get( session, key );
+        if ( cached instanceof Metadata )
+        {
+            return ( (Metadata) cached ).clone();
+        }
+
+        Metadata metadata = parse( file );
+        cache.put( session, key, metadata );
+        return metadata.clone();
+    }
+
+    private static Metadata parse( File file )
+        throws IOException
+    {
+        try ( InputStream in = Files.newInputStream( file.toPath() ) )
+        {
+            return new MetadataXpp3Reader().read( in, false );
+        }
+        catch ( XmlPullParserException e )
+        {
+            throw new IOException( "Could not parse metadata " + file + ": " + e.getMessage(), e );
+        }
+    }
+
+    private static final class Key
+    {
+
+        private final String path;
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final int hashCode;
+
+        Key( File file )
+        {
+            path = file.getAbsolutePath();
+            length = file.length();
+            lastModified = file.lastModified();
+            hashCode = path.hashCode() * 31 + (int) ( length ^ lastModified );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            Key that = (Key) obj;
+            return length == that.length && lastModified == that.lastModified && path.equals( that.path );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+}
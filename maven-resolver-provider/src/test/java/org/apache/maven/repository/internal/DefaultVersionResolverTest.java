@@ -19,11 +19,22 @@
  * under the License.
  */
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.impl.VersionResolver;
 import org.eclipse.aether.resolution.VersionRequest;
 import org.eclipse.aether.resolution.VersionResult;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
 
 public class DefaultVersionResolverTest
     extends AbstractRepositoryTestCase
@@ -93,4 +104,131 @@ public void testResolveSeparateInstalledClassifiedNonVersionedArtifacts()
         VersionResult resultB = versionResolver.resolveVersion( session, requestB );
         assertEquals( versionB, resultB.getVersion() );
     }
+
+    public void testSharedCacheReusedAcrossSessionsUntilMetadataChanges()
+        throws Exception
+    {
+        File localRepo = getTestFile( "target/local-repo-shared-cache" );
+        File metadataFile = new File( localRepo, "org/apache/maven/its/shared/1.0-SNAPSHOT/maven-metadata-local.xml" );
+        metadataFile.getParentFile().mkdirs();
+
+        writeSnapshotMetadata( metadataFile, "1.0-20180101.101010-1", 1500000000000L );
+        assertEquals( "1.0-20180101.101010-1", resolveSharedSnapshot( localRepo ) );
+
+        // same timestamp, the previous result is reused without reading the metadata again
+        writeSnapshotMetadata( metadataFile, "1.0-20180202.202020-2", 1500000000000L );
+        assertEquals( "1.0-20180101.101010-1", resolveSharedSnapshot( localRepo ) );
+
+        // a changed file invalidates the shared result
+        metadataFile.setLastModified( 1500000010000L );
+        assertEquals( "1.0-20180202.202020-2", resolveSharedSnapshot( localRepo ) );
+    }
+
+    public void testSharedCacheDoesNotShadowWorkspace()
+        throws Exception
+    {
+        File localRepo = getTestFile( "target/local-repo-shared-cache-workspace" );
+        File metadataFile = new File( localRepo, "org/apache/maven/its/shared/1.0-SNAPSHOT/maven-metadata-local.xml" );
+        metadataFile.getParentFile().mkdirs();
+
+        writeSnapshotMetadata( metadataFile, "1.0-20180101.101010-1", 1500000000000L );
+        assertEquals( "1.0-20180101.101010-1", resolveSharedSnapshot( newSharedCacheSession( localRepo ) ) );
+
+        DefaultRepositorySystemSession session = newSharedCacheSession( localRepo );
+        session.setWorkspaceReader( new SnapshotWorkspaceReader() );
+        assertEquals( "1.0-SNAPSHOT", resolveSharedSnapshot( session ) );
+    }
+
+    public void testSharedCacheIgnoredWhenUpdatePolicyIsAlways()
+        throws Exception
+    {
+        File localRepo = getTestFile( "target/local-repo-shared-cache-update" );
+        File metadataFile = new File( localRepo, "org/apache/maven/its/shared/1.0-SNAPSHOT/maven-metadata-local.xml" );
+        metadataFile.getParentFile().mkdirs();
+
+        writeSnapshotMetadata( metadataFile, "1.0-20180101.101010-1", 1500000000000L );
+        assertEquals( "1.0-20180101.101010-1", resolveSharedSnapshot( localRepo ) );
+
+        // same timestamp, only a session that skips the shared cache reads the metadata again
+        writeSnapshotMetadata( metadataFile, "1.0-20180202.202020-2", 1500000000000L );
+        DefaultRepositorySystemSession session = newSharedCacheSession( localRepo );
+        session.setUpdatePolicy( RepositoryPolicy.UPDATE_POLICY_ALWAYS );
+        assertEquals( "1.0-20180202.202020-2", resolveSharedSnapshot( session ) );
+    }
+
+    public void testSharedCacheSizeLimit()
+        throws Exception
+    {
+        File localRepo = getTestFile( "target/local-repo-shared-cache-size" );
+        File metadataFile = new File( localRepo, "org/apache/maven/its/shared/1.0-SNAPSHOT/maven-metadata-local.xml" );
+        metadataFile.getParentFile().mkdirs();
+
+        DefaultRepositorySystemSession session = newSharedCacheSession( localRepo );
+        session.setConfigProperty( DefaultVersionResolver.CONFIG_PROP_SHARED_CACHE_SIZE, "0" );
+
+        writeSnapshotMetadata( metadataFile, "1.0-20180101.101010-1", 1500000000000L );
+        assertEquals( "1.0-20180101.101010-1", resolveSharedSnapshot( session ) );
+
+        // nothing was cached, so the metadata is read again despite the unchanged timestamp
+        writeSnapshotMetadata( metadataFile, "1.0-20180202.202020-2", 1500000000000L );
+        session = newSharedCacheSession( localRepo );
+        session.setConfigProperty( DefaultVersionResolver.CONFIG_PROP_SHARED_CACHE_SIZE, "0" );
+        assertEquals( "1.0-20180202.202020-2", resolveSharedSnapshot( session ) );
+    }
+
+    private String resolveSharedSnapshot( File localRepo )
+        throws Exception
+    {
+        return resolveSharedSnapshot( newSharedCacheSession( localRepo ) );
+    }
+
+    private String resolveSharedSnapshot( DefaultRepositorySystemSession session )
+        throws Exception
+    {
+        VersionRequest request = new VersionRequest();
+        request.setArtifact( new DefaultArtifact( "org.apache.maven.its", "shared", "jar", "1.0-SNAPSHOT" ) );
+
+        return versionResolver.resolveVersion( session, request ).getVersion();
+    }
+
+    private DefaultRepositorySystemSession newSharedCacheSession( File localRepo )
+    {
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager( system.newLocalRepositoryManager( session,
+                                                                              new LocalRepository( localRepo ) ) );
+        session.setConfigProperty( DefaultVersionResolver.CONFIG_PROP_SHARED_CACHE_TTL, "60000" );
+        return session;
+    }
+
+    private static void writeSnapshotMetadata( File file, String version, long lastModified )
+        throws Exception
+    {
+        String xml = "<metadata><groupId>org.apache.maven.its</groupId><artifactId>shared</artifactId>"
+            + "<version>1.0-SNAPSHOT</version><versioning><snapshotVersions><snapshotVersion>"
+            + "<extension>jar</extension><value>" + version + "</value><updated>20180101101010</updated>"
+            + "</snapshotVersion></snapshotVersions></versioning></metadata>";
+        Files.write( file.toPath(), xml.getBytes( StandardCharsets.UTF_8 ) );
+        file.setLastModified( lastModified );
+    }
+
+    private static class SnapshotWorkspaceReader
+        implements WorkspaceReader
+    {
+        private final WorkspaceRepository repository = new WorkspaceRepository( "reactor" );
+
+        public WorkspaceRepository getRepository()
+        {
+            return repository;
+        }
+
+        public File findArtifact( Artifact artifact )
+        {
+            return null;
+        }
+
+        public List<String> findVersions( Artifact artifact )
+        {
+            return Collections.singletonList( "1.0-SNAPSHOT" );
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetadataParsingCacheTest
+{
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private static void write( File file, String version, long lastModified )
+        throws IOException
+    {
+        String xml = "<metadata><groupId>g</groupId><artifactId>a</artifactId><versioning><versions><version>"
+            + version + "</version></versions></versioning></metadata>";
+        Files.write( file.toPath(), xml.getBytes( StandardCharsets.UTF_8 ) );
+        file.setLastModified( lastModified );
+    }
+
+    @Test
+    public void testParsedOncePerSessionUntilChanged()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+
+        File file = tempDir.newFile( "maven-metadata.xml" );
+        write( file, "1.0", 1000000000000L );
+
+        assertNull( MetadataParsingCache.get( session, file ) );
+
+        Metadata first = MetadataParsingCache.read( session, file );
+        assertEquals( "1.0", first.getVersioning().getVersions().get( 0 ) );
+
+        // callers own their copy
+        first.getVersioning().getVersions().clear();
+
+        Metadata second = MetadataParsingCache.get( session, file );
+        assertNotNull( second );
+        assertNotSame( first, second );
+        assertEquals( "1.0", second.getVersioning().getVersions().get( 0 ) );
+
+        write( file, "2.0", 1000000001000L );
+
+        assertNull( MetadataParsingCache.get( session, file ) );
+        assertEquals( "2.0", MetadataParsingCache.read( session, file ).getVersioning().getVersions().get( 0 ) );
+    }
+
+    @Test
+    public void testNoCacheInSession()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        File file = tempDir.newFile( "maven-metadata.xml" );
+        write( file, "1.0", 1000000000000L );
+
+        assertEquals( "1.0", MetadataParsingCache.read( session, file ).getVersioning().getVersions().get( 0 ) );
+        assertNull( MetadataParsingCache.get( session, file ) );
+    }
+
+}